@@ -0,0 +1,21 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.request.CategoryDTO;
+
+import java.time.Instant;
+
+final class CategoryFixtures {
+
+    private CategoryFixtures() {
+    }
+
+    static CategoryDTO categoryDTO(int index) {
+        return new CategoryDTO((long) index,
+                "Category " + index,
+                "Products of the category number " + index,
+                "https://images.example.com/categories/" + index + ".png",
+                null,
+                0L,
+                Instant.parse("2024-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryJsonBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int pageSize;
+
+    private ObjectWriter categoryWriter;
+
+    private ObjectWriter pageWriter;
+
+    private CategoryDTO categoryDTO;
+
+    private CategoryPageDTO categoryPageDTO;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        categoryWriter = builder.build().writerFor(CategoryDTO.class);
+        pageWriter = builder.build().writerFor(CategoryPageDTO.class);
+        List<CategoryDTO> content = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(CategoryFixtures::categoryDTO)
+                .collect(Collectors.toList());
+        categoryDTO = content.get(0);
+        categoryPageDTO = CategoryPageDTO.builder()
+                .content(content)
+                .nextCursor("MTAw")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeCategory() throws JsonProcessingException {
+        return categoryWriter.writeValueAsBytes(categoryDTO);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(categoryPageDTO);
+    }
+}
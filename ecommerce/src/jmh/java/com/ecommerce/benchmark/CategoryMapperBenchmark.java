@@ -0,0 +1,36 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.model.Category;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryMapperBenchmark {
+
+    private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    private CategoryDTO categoryDTO;
+
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        categoryDTO = CategoryFixtures.categoryDTO(1);
+        category = categoryMapper.toModel(categoryDTO);
+    }
+
+    @Benchmark
+    public CategoryDTO toDTO() {
+        return categoryMapper.toDTO(category);
+    }
+
+    @Benchmark
+    public Category toModel() {
+        return categoryMapper.toModel(categoryDTO);
+    }
+}
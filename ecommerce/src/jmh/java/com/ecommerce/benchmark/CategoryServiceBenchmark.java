@@ -0,0 +1,108 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.exception.InvalidCursorException;
+import com.ecommerce.exception.UnboundedListingDisabledException;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.search.CategorySuggestionIndex;
+import com.ecommerce.service.CategoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the category listings against an embedded H2 database seeded with
+ * {@code tableSize} rows. The application context is booted once per trial.
+ * <p>
+ * The pages are read again and again with nothing changing in between, so with the query cache
+ * on they are answered from it after the first call; {@code queryCache} reports those hits and
+ * the database reads apart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int tableSize;
+
+    @Param({"false", "true"})
+    private boolean queryCache;
+
+    private ConfigurableApplicationContext context;
+
+    private CategoryService categoryService;
+
+    private ObjectWriter pageWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--category.listing.unbounded-enabled=true",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + queryCache,
+                        "--logging.level.root=WARN");
+        CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+        context.getBean(CategoryRepository.class).saveAll(IntStream.rangeClosed(1, tableSize)
+                .mapToObj(CategoryFixtures::categoryDTO)
+                .map(categoryMapper::toNewModel)
+                .collect(Collectors.toList()));
+        context.getBean(CategorySuggestionIndex.class).rebuild();
+        categoryService = context.getBean(CategoryService.class);
+        pageWriter = context.getBean(ObjectMapper.class).writerFor(CategoryPageDTO.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CategoryDTO> listAll() throws UnboundedListingDisabledException {
+        return categoryService.listAll();
+    }
+
+    @Benchmark
+    public CategoryPageDTO listFirstPage() throws InvalidCursorException {
+        return categoryService.listPage(null, null);
+    }
+
+    /**
+     * The first page as it is answered with category.listing.direct-json off: read as DTOs, then
+     * serialized by Jackson.
+     */
+    @Benchmark
+    public byte[] serializeFirstPage() throws InvalidCursorException, JsonProcessingException {
+        return pageWriter.writeValueAsBytes(categoryService.listPage(null, null));
+    }
+
+    /**
+     * The first page written straight from the rows, to compare with {@link #serializeFirstPage()}
+     * in time and in gc.alloc.rate.norm.
+     */
+    @Benchmark
+    public byte[] writeFirstPage() throws InvalidCursorException {
+        return categoryService.listPageJson(null, null).body();
+    }
+
+    /**
+     * A one-digit prefix matches about a ninth of the table, all of which has to be scanned.
+     */
+    @Benchmark
+    public List<CategorySuggestionDTO> suggest() {
+        return categoryService.suggest("category 1", null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Requests drawn from a {@link TrafficProfile} with a seeded random generator, so that two runs
+ * with the same seed send the same sequence of requests.
+ * <p>
+ * Lookups by name follow a Zipf distribution over the seeded categories: a few categories get most
+ * of the traffic, as on the real catalogue. Updates rewrite the description of a seeded category,
+ * creations add categories named {@code loadtest-n}.
+ */
+final class CategoryTrafficMix implements LoadRunner.RequestMix {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+
+    private final TrafficProfile profile;
+
+    private final Random random;
+
+    private final double[] popularity;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private int created;
+
+    private int updated;
+
+    /**
+     * @param categories number of seeded categories
+     * @param skew       Zipf exponent of the lookups by name, 0 for uniform
+     */
+    CategoryTrafficMix(String baseUrl, TrafficProfile profile, int categories, double skew, long seed) {
+        this.baseUrl = baseUrl;
+        this.profile = profile;
+        this.random = new Random(seed);
+        this.popularity = new double[categories];
+        double total = 0;
+        for (int rank = 0; rank < categories; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            popularity[rank] = total;
+        }
+        for (int rank = 0; rank < categories; rank++) {
+            popularity[rank] /= total;
+        }
+    }
+
+    @Override
+    public synchronized LoadRunner.Operation next() {
+        String label = profile.operation(random.nextInt(100));
+        HttpRequest request = switch (label) {
+            case "byName" -> get("/category/" + LoadTestApplication.categoryName(popularCategory()));
+            case "list" -> get("/category");
+            case "create" -> post("/category/create", LoadTestApplication.category("loadtest-" + ++created));
+            default -> update(LoadTestApplication.categoryName(1 + random.nextInt(popularity.length)));
+        };
+        return new LoadRunner.Operation(label, request);
+    }
+
+    private int popularCategory() {
+        int rank = Arrays.binarySearch(popularity, random.nextDouble());
+        return 1 + Math.min(popularity.length - 1, rank >= 0 ? rank : -rank - 1);
+    }
+
+    private HttpRequest update(String name) {
+        CategoryDTO category = LoadTestApplication.category(name);
+        category.setCategoryDescription("Products of " + name + ", edit " + ++updated);
+        return post("/category/" + name + "/update", category);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, CategoryDTO body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one load test run, written as JSON so that runs can be compared across commits.
+ */
+record LoadResult(String name, Map<String, Object> settings, double durationSeconds,
+                  OperationStats total, Map<String, OperationStats> operations) {
+
+    record OperationStats(long requests, long errors, double throughput, double errorRate,
+                          double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        static OperationStats of(Histogram histogram, long errors, double seconds) {
+            long requests = histogram.getTotalCount();
+            return new OperationStats(requests, errors,
+                    round(requests / seconds),
+                    requests == 0 ? 0 : round((double) errors / requests),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+
+    static void write(Path file, List<LoadResult> results) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+    }
+
+    static void print(PrintStream out, List<LoadResult> results) {
+        out.printf("%-20s %-14s %10s %8s %9s %9s %9s %9s%n",
+                "run", "operation", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LoadResult result : results) {
+            print(out, result.name(), "total", result.total());
+            result.operations().forEach((operation, stats) -> print(out, result.name(), operation, stats));
+        }
+    }
+
+    private static void print(PrintStream out, String run, String operation, OperationStats stats) {
+        out.printf("%-20s %-14s %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                run, operation, stats.throughput(), stats.errors(),
+                stats.p50Ms(), stats.p95Ms(), stats.p99Ms(), stats.maxMs());
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed loop load generator: each of {@code concurrency} virtual users sends its next request
+ * as soon as the previous one completed, until the run time is over. Latencies are recorded per
+ * operation label in HdrHistogram recorders; a response with a status of 500 or above, or a
+ * transport failure, counts as an error.
+ */
+final class LoadRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    interface RequestMix {
+        Operation next();
+    }
+
+    record Operation(String label, HttpRequest request) {
+    }
+
+    private final HttpClient client;
+
+    LoadRunner(HttpClient client) {
+        this.client = client;
+    }
+
+    LoadResult run(String name, Map<String, Object> settings, RequestMix mix, int concurrency,
+                   Duration warmup, Duration duration) throws InterruptedException {
+        measure(mix, concurrency, warmup);
+        Measurement measurement = measure(mix, concurrency, duration);
+        return measurement.toResult(name, settings);
+    }
+
+    private Measurement measure(RequestMix mix, int concurrency, Duration duration) throws InterruptedException {
+        Measurement measurement = new Measurement();
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        for (int user = 0; user < concurrency; user++) {
+            sendNext(mix, measurement, deadline, finished);
+        }
+        finished.await();
+        measurement.elapsedNanos = System.nanoTime() - measurement.startNanos;
+        return measurement;
+    }
+
+    private void sendNext(RequestMix mix, Measurement measurement, long deadline, CountDownLatch finished) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+        Operation operation = mix.next();
+        long start = System.nanoTime();
+        client.sendAsync(operation.request(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    boolean error = failure != null || response.statusCode() >= 500;
+                    measurement.record(operation.label(), System.nanoTime() - start, error);
+                    sendNext(mix, measurement, deadline, finished);
+                });
+    }
+
+    private static final class Measurement {
+
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Recorder> latencies = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        void record(String label, long nanos, boolean error) {
+            latencies.computeIfAbsent(label, ignored -> new Recorder(HIGHEST_TRACKABLE_MICROS, 3))
+                    .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+            LongAdder counter = errors.computeIfAbsent(label, ignored -> new LongAdder());
+            if (error) {
+                counter.increment();
+            }
+        }
+
+        LoadResult toResult(String name, Map<String, Object> settings) {
+            double seconds = elapsedNanos / 1e9;
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+            long totalErrors = 0;
+            Map<String, LoadResult.OperationStats> operations = new LinkedHashMap<>();
+            for (Map.Entry<String, Recorder> entry : latencies.entrySet()) {
+                Histogram histogram = entry.getValue().getIntervalHistogram();
+                long operationErrors = errors.get(entry.getKey()).sum();
+                operations.put(entry.getKey(), LoadResult.OperationStats.of(histogram, operationErrors, seconds));
+                total.add(histogram);
+                totalErrors += operationErrors;
+            }
+            return new LoadResult(name, settings, seconds,
+                    LoadResult.OperationStats.of(total, totalErrors, seconds), operations);
+        }
+    }
+}
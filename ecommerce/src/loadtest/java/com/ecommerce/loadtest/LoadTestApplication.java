@@ -0,0 +1,71 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.search.CategorySuggestionIndex;
+import com.ecommerce.snapshot.CategorySnapshots;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the application on a random port against the embedded H2 database of the test
+ * classpath and seeds it with categories named {@code category-1 .. category-n}.
+ */
+final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> properties, int categories) {
+        // devtools would relaunch the calling main method with the Spring arguments instead of ours
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        arguments.put("server.port", 0);
+        arguments.put("logging.level.root", "WARN");
+        arguments.putAll(properties);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EcommerceApplication.class, SimulatedDatabaseLatency.class)
+                .run(arguments.entrySet().stream()
+                        .map(argument -> "--" + argument.getKey() + "=" + argument.getValue())
+                        .toArray(String[]::new));
+        seed(context.getBean(CategoryRepository.class), categories);
+        // both were loaded at startup, before the seed
+        context.getBean(CategorySuggestionIndex.class).rebuild();
+        CategorySnapshots snapshots = context.getBean(CategorySnapshots.class);
+        if (snapshots.current() != null) {
+            snapshots.rebuild();
+        }
+        return context;
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    static String categoryName(int index) {
+        return "category-" + index;
+    }
+
+    static CategoryDTO category(String name) {
+        return CategoryDTO.builder()
+                .categoryName(name)
+                .categoryDescription("Products of " + name)
+                .imageUrl("https://images.example.com/" + name + ".png")
+                .build();
+    }
+
+    private static void seed(CategoryRepository categoryRepository, int categories) {
+        CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+        List<CategoryDTO> rows = IntStream.rangeClosed(1, categories)
+                .mapToObj(index -> category(categoryName(index)))
+                .collect(Collectors.toList());
+        categoryRepository.saveAll(rows.stream().map(categoryMapper::toNewModel).collect(Collectors.toList()));
+    }
+}
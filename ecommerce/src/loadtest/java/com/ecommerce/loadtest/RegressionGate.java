@@ -0,0 +1,74 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a run with a baseline run of the same name, operation by operation. A run regresses
+ * when a latency percentile grows by more than the latency tolerance plus a fixed slack (which
+ * keeps sub-millisecond noise from failing the gate), when throughput drops by more than the
+ * throughput tolerance, or when the error rate grows by more than the error rate tolerance.
+ */
+record RegressionGate(double latencyTolerance, double latencySlackMs, double throughputTolerance,
+                      double errorRateTolerance) {
+
+    static RegressionGate of(LoadTestOptions options) {
+        return new RegressionGate(options.getDouble("latency-tolerance", 0.20),
+                options.getDouble("latency-slack-ms", 1.0),
+                options.getDouble("throughput-tolerance", 0.15),
+                options.getDouble("error-rate-tolerance", 0.01));
+    }
+
+    static List<LoadResult> read(Path file) throws IOException {
+        return new ObjectMapper().readValue(file.toFile(), new TypeReference<>() {
+        });
+    }
+
+    /**
+     * @return one line per regression, empty when the run is as good as the baseline
+     */
+    List<String> check(LoadResult baseline, LoadResult current) {
+        List<String> regressions = new ArrayList<>();
+        // compared as text: numbers read back from JSON may not have the type they were written with
+        if (!baseline.settings().toString().equals(current.settings().toString())) {
+            System.out.printf("WARNING: settings differ from the baseline, %s against %s%n",
+                    current.settings(), baseline.settings());
+        }
+        check("total", baseline.total(), current.total(), regressions);
+        for (Map.Entry<String, LoadResult.OperationStats> operation : current.operations().entrySet()) {
+            LoadResult.OperationStats baselineStats = baseline.operations().get(operation.getKey());
+            if (baselineStats != null) {
+                check(operation.getKey(), baselineStats, operation.getValue(), regressions);
+            }
+        }
+        return regressions;
+    }
+
+    private void check(String operation, LoadResult.OperationStats baseline, LoadResult.OperationStats current,
+                       List<String> regressions) {
+        latency(operation, "p50", baseline.p50Ms(), current.p50Ms(), regressions);
+        latency(operation, "p95", baseline.p95Ms(), current.p95Ms(), regressions);
+        latency(operation, "p99", baseline.p99Ms(), current.p99Ms(), regressions);
+        if (current.throughput() < baseline.throughput() * (1 - throughputTolerance)) {
+            regressions.add(String.format("%s throughput dropped from %.1f to %.1f req/s",
+                    operation, baseline.throughput(), current.throughput()));
+        }
+        if (current.errorRate() > baseline.errorRate() + errorRateTolerance) {
+            regressions.add(String.format("%s error rate grew from %.3f to %.3f",
+                    operation, baseline.errorRate(), current.errorRate()));
+        }
+    }
+
+    private void latency(String operation, String percentile, double baseline, double current, List<String> regressions) {
+        if (current > baseline * (1 + latencyTolerance) + latencySlackMs) {
+            regressions.add(String.format("%s %s latency grew from %.2f to %.2f ms",
+                    operation, percentile, baseline, current));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Adds {@code loadtest.db-latency} to every statement executed against the embedded database,
+ * so that requests block on I/O the way they do against a remote MySQL.
+ * Registered as a source of the load test application only, never component scanned.
+ */
+class SimulatedDatabaseLatency {
+
+    @Bean
+    static BeanPostProcessor databaseLatencyPostProcessor(Environment environment) {
+        Duration latency = DurationStyle.detectAndParse(environment.getProperty("loadtest.db-latency", "0ms"));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !latency.isZero()) {
+                    return new LatencyDataSource(dataSource, latency);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class LatencyDataSource extends DelegatingDataSource {
+
+        private final Duration latency;
+
+        private LatencyDataSource(DataSource target, Duration latency) {
+            super(target);
+            this.latency = latency;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, connection, (method, result) -> switch (method) {
+                case "createStatement" -> withLatency(Statement.class, (Statement) result);
+                case "prepareStatement" -> withLatency(PreparedStatement.class, (PreparedStatement) result);
+                case "prepareCall" -> withLatency(CallableStatement.class, (CallableStatement) result);
+                default -> result;
+            });
+        }
+
+        private <T extends Statement> T withLatency(Class<T> type, T statement) {
+            return proxy(type, statement, (method, result) -> result, latency);
+        }
+    }
+
+    private interface ResultDecorator {
+        Object decorate(String method, Object result);
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultDecorator decorator) {
+        return proxy(type, target, decorator, Duration.ZERO);
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultDecorator decorator, Duration executeLatency) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!executeLatency.isZero() && method.getName().startsWith("execute")) {
+                Thread.sleep(executeLatency.toMillis());
+            }
+            try {
+                return decorator.decorate(method.getName(), method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+}
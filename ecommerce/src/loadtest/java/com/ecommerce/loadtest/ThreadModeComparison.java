@@ -0,0 +1,82 @@
+package com.ecommerce.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the same lookup-by-name load against the application twice, once on the Tomcat platform
+ * thread pool and once with {@code spring.threads.virtual.enabled=true}, and reports throughput
+ * and tail latency of both runs side by side.
+ *
+ * <p>The category cache is disabled and every statement is delayed by {@code --db-latency}, so
+ * that each request holds its thread while blocked on the database: with platform threads the
+ * throughput is capped by {@code --tomcat-threads}, with virtual threads by {@code --pool-size}.
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.args="--duration=30s --concurrency=400"
+ * </pre>
+ */
+public final class ThreadModeComparison {
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (Runtime.version().feature() < 21) {
+            System.out.printf("WARNING: running on Java %d, virtual threads need Java 21 "
+                    + "and the virtual run falls back to platform threads.%n", Runtime.version().feature());
+        }
+
+        int categories = options.getInt("categories", 1000);
+        int concurrency = options.getInt("concurrency", 400);
+        Duration warmup = options.getDuration("warmup", "10s");
+        Duration duration = options.getDuration("duration", "30s");
+
+        List<LoadResult> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("spring.threads.virtual.enabled", virtualThreads);
+            settings.put("server.tomcat.threads.max", options.getInt("tomcat-threads", 50));
+            settings.put("spring.datasource.hikari.maximum-pool-size", options.getInt("pool-size", 100));
+            settings.put("loadtest.db-latency", options.get("db-latency", "10ms"));
+            settings.put("category.cache.enabled", false);
+            settings.put("category.admission.enabled", false);
+
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+            try (ConfigurableApplicationContext context = LoadTestApplication.start(settings, categories)) {
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(clientExecutor)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                String baseUrl = LoadTestApplication.baseUrl(context);
+                LoadRunner.RequestMix lookups = () -> new LoadRunner.Operation("byName", HttpRequest.newBuilder()
+                        .uri(URI.create(baseUrl + "/category/"
+                                + LoadTestApplication.categoryName(ThreadLocalRandom.current().nextInt(1, categories + 1))))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build());
+                String name = virtualThreads ? "virtual-threads" : "platform-threads";
+                System.out.printf("Running %s for %s with %d concurrent users%n", name, duration, concurrency);
+                results.add(new LoadRunner(client).run(name, settings, lookups, concurrency, warmup, duration));
+            } finally {
+                clientExecutor.shutdownNow();
+            }
+        }
+
+        LoadResult.print(System.out, results);
+        LoadResult.write(options.output().resolve("thread-modes.json"), results);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replays a {@link TrafficProfile} against the application and reports throughput, p50/p95/p99
+ * latency and error rate per operation, in {@code traffic-<profile>.json}.
+ *
+ * <p>Given {@code --baseline}, a result file of an earlier run, the run is also checked by the
+ * {@link RegressionGate} and the process exits with status 1 on a regression, which fails the
+ * build. Keep the baseline from the same machine and the same options: only the seed makes the
+ * request sequence reproducible, not the hardware.
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.main=com.ecommerce.loadtest.TrafficMixRun \
+ *     -Dloadtest.args="--profile=production --duration=60s --baseline=loadtest-baseline/traffic-production.json"
+ * </pre>
+ */
+public final class TrafficMixRun {
+
+    private TrafficMixRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        TrafficProfile profile = TrafficProfile.of(options.get("profile", "production"));
+        int categories = options.getInt("categories", 1000);
+        int concurrency = options.getInt("concurrency", 50);
+        long seed = options.getInt("seed", 42);
+        double skew = options.getDouble("skew", 1.0);
+        Duration warmup = options.getDuration("warmup", "10s");
+        Duration duration = options.getDuration("duration", "30s");
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("profile", profile.id());
+        settings.put("categories", categories);
+        settings.put("concurrency", concurrency);
+        settings.put("seed", seed);
+        settings.put("skew", skew);
+        settings.put("duration", duration.toString());
+        settings.put("server.tomcat.threads.max", options.getInt("tomcat-threads", 200));
+        settings.put("spring.datasource.hikari.maximum-pool-size", options.getInt("pool-size", 10));
+        settings.put("loadtest.db-latency", options.get("db-latency", "1ms"));
+
+        LoadResult result;
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(applicationProperties(settings), categories)) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            CategoryTrafficMix mix = new CategoryTrafficMix(LoadTestApplication.baseUrl(context), profile, categories, skew, seed);
+            System.out.printf("Running the %s profile for %s with %d concurrent users%n", profile.id(), duration, concurrency);
+            result = new LoadRunner(client).run(profile.id(), settings, mix, concurrency, warmup, duration);
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+
+        LoadResult.print(System.out, List.of(result));
+        LoadResult.write(options.output().resolve("traffic-" + profile.id() + ".json"), List.of(result));
+        System.exit(passesGate(options, result) ? 0 : 1);
+    }
+
+    private static boolean passesGate(LoadTestOptions options, LoadResult result) throws Exception {
+        String baselineFile = options.get("baseline", null);
+        if (baselineFile == null) {
+            return true;
+        }
+        Path baselinePath = Path.of(baselineFile);
+        if (!Files.exists(baselinePath)) {
+            System.out.printf("No baseline at %s, nothing to compare with%n", baselinePath.toAbsolutePath());
+            return true;
+        }
+        LoadResult baseline = RegressionGate.read(baselinePath).stream()
+                .filter(run -> run.name().equals(result.name()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(baselinePath + " has no " + result.name() + " run"));
+        List<String> regressions = RegressionGate.of(options).check(baseline, result);
+        if (regressions.isEmpty()) {
+            System.out.println("No regression against " + baselinePath);
+            return true;
+        }
+        System.out.println("REGRESSION against " + baselinePath + ":");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        return false;
+    }
+
+    /**
+     * The settings that configure the application, leaving out those of the load generator.
+     */
+    private static Map<String, Object> applicationProperties(Map<String, Object> settings) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        settings.forEach((name, value) -> {
+            if (name.contains(".")) {
+                properties.put(name, value);
+            }
+        });
+        return properties;
+    }
+}
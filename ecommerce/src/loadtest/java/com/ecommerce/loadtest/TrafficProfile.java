@@ -0,0 +1,52 @@
+package com.ecommerce.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Share of each operation in the traffic of the category API, in percent.
+ * <p>
+ * {@link #PRODUCTION} is the mix seen in production: product pages look categories up by name,
+ * navigation menus list the first page now and then, and the back office creates and edits a few
+ * categories. The other profiles stress one side of it.
+ */
+enum TrafficProfile {
+    PRODUCTION(90, 8, 1, 1),
+    BROWSE(60, 40, 0, 0),
+    BACK_OFFICE(50, 10, 20, 20);
+
+    private final int byName;
+
+    private final int list;
+
+    private final int create;
+
+    private final int update;
+
+    TrafficProfile(int byName, int list, int create, int update) {
+        this.byName = byName;
+        this.list = list;
+        this.create = create;
+        this.update = update;
+    }
+
+    static TrafficProfile of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    String id() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @param roll uniformly drawn from 0 to 99
+     */
+    String operation(int roll) {
+        if (roll < byName) {
+            return "byName";
+        }
+        if (roll < byName + list) {
+            return "list";
+        }
+        return roll < byName + list + create ? "create" : "update";
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.admission;
+
+import com.ecommerce.config.CategoryAdmissionProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit, additive increase and multiplicative decrease as in TCP congestion
+ * control.
+ * <p>
+ * Admission is a single compare-and-set on the in-flight count. The limit only grows while it is
+ * actually used (at least half of it in flight), so a quiet period does not leave it inflated for
+ * the next burst. It is cut at most once per round of requests: the slow responses of requests
+ * admitted before the last cut were caused by the old limit and do not cut it again.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private boolean decreased;
+
+    private long lastDecreaseNanos;
+
+    AimdLimit(CategoryAdmissionProperties.Budget budget) {
+        this.minLimit = budget.getMinLimit();
+        this.maxLimit = budget.getMaxLimit();
+        this.latencyThresholdNanos = budget.getLatencyThreshold().toNanos();
+        this.backoffRatio = budget.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, budget.getInitialLimit()));
+    }
+
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()} and adapts the limit to how the request went.
+     *
+     * @param startNanos  {@link System#nanoTime()} when the request was admitted
+     * @param endNanos    {@link System#nanoTime()} when it completed
+     * @param serverError whether the request failed on the server side
+     */
+    void release(long startNanos, long endNanos, boolean serverError) {
+        int wasInFlight = inFlight.getAndDecrement();
+        if (serverError || endNanos - startNanos > latencyThresholdNanos) {
+            decrease(startNanos, endNanos);
+        } else if (wasInFlight * 2 >= limit) {
+            increase();
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+
+    private synchronized void decrease(long startNanos, long endNanos) {
+        if (decreased && startNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        decreased = true;
+        lastDecreaseNanos = endNanos;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.admission;
+
+import com.ecommerce.config.CategoryAdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds category requests beyond what the database currently keeps up with, instead of letting
+ * them queue in Tomcat until they all time out.
+ * <p>
+ * Each route has its own adaptive limit ({@link AimdLimit}): single-name lookups, the paged
+ * listing, the unbounded listing, subtrees, suggestions, writes and imports. A burst of one cannot
+ * starve the others, and the latency of a heavy read or a long import does not cut the limit of
+ * point lookups or writes. A request over its limit is answered at once with 503 and Retry-After,
+ * before any controller code runs. Export is a long-running stream from a single query that would
+ * only skew the latency signal, it is not limited.
+ */
+@Component
+@ConditionalOnProperty(prefix = "category.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CategoryAdmissionFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private static final byte[] REJECTED_BODY = "{\"message\":\"Category API is overloaded, retry later.\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Map<Route, AimdLimit> limits = new EnumMap<>(Route.class);
+
+    private final Map<Route, Counter> rejections = new EnumMap<>(Route.class);
+
+    private final String retryAfterSeconds;
+
+    public CategoryAdmissionFilter(CategoryAdmissionProperties properties) {
+        limits.put(Route.LOOKUP, new AimdLimit(properties.getLookup()));
+        limits.put(Route.LISTING, new AimdLimit(properties.getListing()));
+        limits.put(Route.UNBOUNDED, new AimdLimit(properties.getUnbounded()));
+        limits.put(Route.TREE, new AimdLimit(properties.getTree()));
+        limits.put(Route.SUGGEST, new AimdLimit(properties.getSuggest()));
+        limits.put(Route.WRITE, new AimdLimit(properties.getWrite()));
+        limits.put(Route.IMPORT, new AimdLimit(properties.getBulkImport()));
+        long retryAfterMillis = properties.getRetryAfter().toMillis();
+        retryAfterSeconds = String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Route route = Route.of(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AimdLimit limit = limits.get(route);
+        if (!limit.tryAcquire()) {
+            reject(route, response);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        boolean serverError = true;
+        try {
+            filterChain.doFilter(request, response);
+            serverError = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(startNanos, System.nanoTime(), serverError);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limits.forEach((route, limit) -> {
+            Gauge.builder("category.admission.limit", limit, AimdLimit::getLimit)
+                    .description("Current concurrency limit of a category API route")
+                    .tag("route", route.tag)
+                    .register(registry);
+            Gauge.builder("category.admission.in.flight", limit, AimdLimit::getInFlight)
+                    .tag("route", route.tag)
+                    .register(registry);
+            rejections.put(route, Counter.builder("category.admission.rejected")
+                    .description("Category requests rejected because the limit of their route was reached")
+                    .tag("route", route.tag)
+                    .register(registry));
+        });
+    }
+
+    int currentLimit(Route route) {
+        return limits.get(route).getLimit();
+    }
+
+    private void reject(Route route, HttpServletResponse response) throws IOException {
+        Counter rejected = rejections.get(route);
+        if (rejected != null) {
+            rejected.increment();
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    enum Route {
+        LOOKUP("lookup"),
+        LISTING("listing"),
+        UNBOUNDED("unbounded"),
+        TREE("tree"),
+        SUGGEST("suggest"),
+        WRITE("write"),
+        IMPORT("import");
+
+        private final String tag;
+
+        Route(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * @return the route the request is admitted against, null when it is not limited
+         */
+        static Route of(HttpServletRequest request) {
+            String path = request.getServletPath();
+            if (!path.equals("/category") && !path.startsWith("/category/")) {
+                return null;
+            }
+            if (HttpMethod.POST.matches(request.getMethod())) {
+                if (path.equals("/category/lookup")) {
+                    return LOOKUP;
+                }
+                if (path.equals("/category/import")) {
+                    return IMPORT;
+                }
+                return path.equals("/category/create") || path.equals("/category/move")
+                        || PATH_MATCHER.match("/category/*/update", path) ? WRITE : null;
+            }
+            if (!HttpMethod.GET.matches(request.getMethod()) || path.equals("/category/export")) {
+                return null;
+            }
+            if (path.equals("/category")) {
+                return "true".equals(request.getParameter("unbounded")) ? UNBOUNDED : LISTING;
+            }
+            if (path.equals("/category/suggest")) {
+                return SUGGEST;
+            }
+            return PATH_MATCHER.match("/category/*/subtree", path) ? TREE : LOOKUP;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.ecommerce.audit;
+
+import com.ecommerce.config.CategoryAuditProperties;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.queues.MpscArrayQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind log of every category change, with the category before and after it.
+ * <p>
+ * Request threads only put the change in a bounded lock-free queue; a single writer thread
+ * drains it in batches into {@link CategoryAuditSegments} files, so the log costs a request
+ * no extra I/O. When the writer falls behind and the queue fills up, category.audit.overflow
+ * decides between slowing the requests down and dropping changes. A batch that fails to be
+ * written is retried until the log stops; once it is stopping, each batch gets one more attempt
+ * and what still fails is counted in category.audit.abandoned. A change that cannot be serialized
+ * at all is left out of the log, and counted in category.audit.unwritable.
+ * <p>
+ * Starts before and stops after the web server, so that every change made by a request
+ * reaches the log. The writer closes the segments on its way out.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "category.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CategoryAuditLog implements SmartLifecycle, MeterBinder {
+
+    private static final long OFFER_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final int DROP_WARNING_INTERVAL = 1000;
+
+    private final CategoryAuditProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final MpscArrayQueue<CategoryAuditRecord> queue;
+
+    private final AtomicLong enqueued = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong unwritable = new AtomicLong();
+
+    private final AtomicLong abandoned = new AtomicLong();
+
+    private volatile long written;
+
+    private volatile Timer writeDelay;
+
+    private volatile boolean running;
+
+    private volatile Thread writer;
+
+    private CategoryAuditSegments segments;
+
+    public CategoryAuditLog(CategoryAuditProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.queue = new MpscArrayQueue<>(properties.getQueueCapacity());
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        enqueue(CategoryAuditRecord.builder()
+                .type(event.isCreation() ? CategoryAuditType.CREATED : CategoryAuditType.UPDATED)
+                .recordedAt(Instant.now())
+                .before(event.getBefore())
+                .after(event.getAfter())
+                .build());
+    }
+
+    /**
+     * @return false when the change was dropped because the queue stayed full
+     */
+    boolean enqueue(CategoryAuditRecord record) {
+        if (offer(record)) {
+            return true;
+        }
+        if (properties.getOverflow() == CategoryAuditProperties.Overflow.BLOCK) {
+            long deadline = System.nanoTime() + properties.getOfferTimeout().toNanos();
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(this, OFFER_BACKOFF_NANOS);
+                if (offer(record)) {
+                    return true;
+                }
+            }
+        }
+        long droppedSoFar = dropped.incrementAndGet();
+        if (droppedSoFar % DROP_WARNING_INTERVAL == 1) {
+            log.warn("Category audit queue is full, {} change(s) dropped so far", droppedSoFar);
+        }
+        return false;
+    }
+
+    /**
+     * Reads the written records from the given sequence on.
+     */
+    public void replay(long fromSequence, Consumer<CategoryAuditRecord> consumer) throws IOException {
+        CategoryAuditSegments.replay(properties.getDirectory(), fromSequence,
+                (sequence, payload) -> consumer.accept(objectMapper.readValue(payload, CategoryAuditRecord.class)));
+    }
+
+    /**
+     * Changes accepted but not written to the log yet.
+     */
+    public long lag() {
+        return enqueued.get() - written - unwritable.get() - abandoned.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Changes left out of the log because they could not be serialized.
+     */
+    public long unwritable() {
+        return unwritable.get();
+    }
+
+    /**
+     * Changes left out of the log because it could still not be written when it stopped.
+     */
+    public long abandoned() {
+        return abandoned.get();
+    }
+
+    @Override
+    public void start() {
+        try {
+            segments = CategoryAuditSegments.open(properties.getDirectory(), properties.getSegmentSize().toBytes(),
+                    properties.isFsync());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the category audit log in " + properties.getDirectory(), e);
+        }
+        running = true;
+        writer = new Thread(this::drain, "category-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread stopping = writer;
+        LockSupport.unpark(stopping);
+        try {
+            stopping.join(properties.getOfferTimeout().plus(Duration.ofSeconds(10)).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (stopping.isAlive()) {
+            log.warn("Category audit writer is still writing, the log is closed when it is done");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("category.audit.lag", this, CategoryAuditLog::lag)
+                .description("Category changes accepted but not written to the audit log yet")
+                .register(registry);
+        Gauge.builder("category.audit.queue.size", queue, MpscArrayQueue::size)
+                .register(registry);
+        FunctionCounter.builder("category.audit.dropped", dropped, AtomicLong::get)
+                .description("Category changes dropped because the audit queue was full")
+                .register(registry);
+        FunctionCounter.builder("category.audit.unwritable", unwritable, AtomicLong::get)
+                .description("Category changes left out of the audit log because they could not be serialized")
+                .register(registry);
+        FunctionCounter.builder("category.audit.abandoned", abandoned, AtomicLong::get)
+                .description("Category changes left out of the audit log because it could not be written when it stopped")
+                .register(registry);
+        writeDelay = Timer.builder("category.audit.write.delay")
+                .description("Time from a category change to its audit record being written")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    private boolean offer(CategoryAuditRecord record) {
+        if (!queue.offer(record)) {
+            return false;
+        }
+        enqueued.incrementAndGet();
+        LockSupport.unpark(writer);
+        return true;
+    }
+
+    private void drain() {
+        List<CategoryAuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        long idleNanos = properties.getFlushInterval().toNanos();
+        try {
+            while (running || !queue.isEmpty()) {
+                queue.drain(batch::add, properties.getBatchSize());
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(this, idleNanos);
+                    continue;
+                }
+                List<byte[]> payloads = serialize(batch);
+                while (!write(payloads, batch)) {
+                    if (!running) {
+                        abandoned.addAndGet(payloads.size());
+                        log.error("Category audit log is stopping, leaving {} change(s) it could not write out of it",
+                                payloads.size());
+                        break;
+                    }
+                    LockSupport.parkNanos(this, idleNanos);
+                }
+                batch.clear();
+            }
+        } finally {
+            try {
+                segments.close();
+            } catch (IOException e) {
+                log.warn("Could not close the category audit log", e);
+            }
+        }
+    }
+
+    /**
+     * Numbers the records from the next sequence of the log on, skipping the ones that cannot be
+     * serialized: retrying them would hold every later change back for good.
+     */
+    private List<byte[]> serialize(List<CategoryAuditRecord> batch) {
+        long sequence = segments.nextSequence();
+        List<byte[]> payloads = new ArrayList<>(batch.size());
+        for (CategoryAuditRecord record : batch) {
+            record.setSequence(sequence);
+            try {
+                payloads.add(objectMapper.writeValueAsBytes(record));
+                sequence++;
+            } catch (JsonProcessingException e) {
+                unwritable.incrementAndGet();
+                log.error("Could not serialize the category audit record {}, leaving it out of the log", record, e);
+            }
+        }
+        return payloads;
+    }
+
+    /**
+     * @return false when the payloads were not written; the log is left as it was before, so
+     * the same payloads can be written again
+     */
+    private boolean write(List<byte[]> payloads, List<CategoryAuditRecord> batch) {
+        if (payloads.isEmpty()) {
+            return true;
+        }
+        try {
+            segments.append(payloads);
+        } catch (IOException e) {
+            log.error("Could not write {} category audit record(s), retrying", payloads.size(), e);
+            return false;
+        }
+        written += payloads.size();
+        Timer delay = writeDelay;
+        if (delay != null) {
+            delay.record(Duration.between(batch.get(0).getRecordedAt(), Instant.now()));
+        }
+        return true;
+    }
+}
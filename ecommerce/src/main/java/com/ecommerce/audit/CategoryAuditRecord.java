@@ -0,0 +1,32 @@
+package com.ecommerce.audit;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryAuditRecord {
+
+    /**
+     * Position of the record in the log, contiguous from 0. Assigned when the record is written.
+     */
+    private long sequence;
+
+    private CategoryAuditType type;
+
+    private Instant recordedAt;
+
+    /**
+     * The category before the change, null for a creation.
+     */
+    private CategoryDTO before;
+
+    private CategoryDTO after;
+}
@@ -0,0 +1,232 @@
+package com.ecommerce.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log split in segment files named after the sequence of their first record.
+ * <p>
+ * A record is a 16 byte header (payload length, CRC32C of the payload, sequence) followed by the
+ * payload. A write cut short by a crash leaves a torn record at the end of the last segment; it
+ * is cut off when the log is opened again, and readers stop at it. A write that fails without a
+ * crash is cut off before the next append, so that the records appended after it can be replayed.
+ */
+final class CategoryAuditSegments implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+
+    private final long segmentBytes;
+
+    private final boolean fsync;
+
+    private Path activePath;
+
+    private FileChannel active;
+
+    /**
+     * Length of the active segment up to the end of its last complete record.
+     */
+    private long activeBytes;
+
+    /**
+     * Whether the last append failed and may have left part of its records in the active segment.
+     */
+    private boolean torn;
+
+    private long nextSequence;
+
+    private CategoryAuditSegments(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    static CategoryAuditSegments open(Path directory, long segmentBytes, boolean fsync) throws IOException {
+        Files.createDirectories(directory);
+        CategoryAuditSegments segments = new CategoryAuditSegments(directory, segmentBytes, fsync);
+        List<Path> files = segmentFiles(directory);
+        if (files.isEmpty()) {
+            segments.roll(0L);
+            return segments;
+        }
+        Path last = files.get(files.size() - 1);
+        FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long base = baseSequenceOf(last);
+        ScanResult scan = scan(channel, base, (sequence, payload) -> {
+        });
+        channel.truncate(scan.validBytes());
+        channel.position(scan.validBytes());
+        segments.activePath = last;
+        segments.active = channel;
+        segments.activeBytes = scan.validBytes();
+        segments.nextSequence = scan.nextSequence();
+        return segments;
+    }
+
+    long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Appends the payloads as the records {@code nextSequence()} onwards. When it fails none of
+     * them is appended, and they can be appended again.
+     */
+    void append(List<byte[]> payloads) throws IOException {
+        if (torn) {
+            cutOffFailedAppend();
+        }
+        torn = true;
+        if (activeBytes >= segmentBytes) {
+            roll(nextSequence);
+        }
+        int size = payloads.stream().mapToInt(payload -> HEADER_BYTES + payload.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32C crc = new CRC32C();
+        long sequence = nextSequence;
+        for (byte[] payload : payloads) {
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).putLong(sequence++).put(payload);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        if (fsync) {
+            active.force(false);
+        }
+        activeBytes += size;
+        nextSequence = sequence;
+        torn = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (active != null) {
+            active.close();
+        }
+    }
+
+    /**
+     * Reads the records from {@code fromSequence} on, up to the end of the log or the first torn record.
+     */
+    static void replay(Path directory, long fromSequence, RecordVisitor visitor) throws IOException {
+        List<Path> files = segmentFiles(directory);
+        for (int i = 0; i < files.size(); i++) {
+            boolean hasLaterSegment = i + 1 < files.size();
+            if (hasLaterSegment && baseSequenceOf(files.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                scan(channel, baseSequenceOf(files.get(i)), (sequence, payload) -> {
+                    if (sequence >= fromSequence) {
+                        visitor.visit(sequence, payload);
+                    }
+                });
+            }
+        }
+    }
+
+    private void roll(long baseSequence) throws IOException {
+        close();
+        Path segment = directory.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        activePath = segment;
+        active = channel;
+        activeBytes = 0;
+        nextSequence = baseSequence;
+    }
+
+    /**
+     * Truncates the active segment back to its last complete record. Reopens it, since the failed
+     * write may have closed the channel.
+     */
+    private void cutOffFailedAppend() throws IOException {
+        close();
+        FileChannel channel = FileChannel.open(activePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(activeBytes);
+            channel.position(activeBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        active = channel;
+        torn = false;
+    }
+
+    private static ScanResult scan(FileChannel channel, long baseSequence, RecordVisitor visitor) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long nextSequence = baseSequence;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            long sequence = header.getLong();
+            if (length < 0 || position + HEADER_BYTES + length > size || sequence != nextSequence) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            visitor.visit(sequence, payload.array());
+            position += HEADER_BYTES + length;
+            nextSequence++;
+        }
+        return new ScanResult(position, nextSequence);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long baseSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    interface RecordVisitor {
+        void visit(long sequence, byte[] payload) throws IOException;
+    }
+
+    private record ScanResult(long validBytes, long nextSequence) {
+    }
+}
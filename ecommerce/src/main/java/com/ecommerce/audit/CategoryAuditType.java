@@ -0,0 +1,6 @@
+package com.ecommerce.audit;
+
+public enum CategoryAuditType {
+    CREATED,
+    UPDATED
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.config.CategoryCacheProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of category lookups by name. Names that miss are cached too
+ * (as an empty Optional), with their own shorter time to live.
+ * <p>
+ * Concurrent misses on the same name share one load. The load itself runs outside of
+ * the cache's internal locks, so a blocking database call never pins a virtual thread
+ * to its carrier.
+ */
+@Component
+public class CategoryNameCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "category.byName";
+
+    private final CategoryCacheProperties properties;
+
+    private final AsyncCache<String, Optional<CategoryDTO>> cache;
+
+    public CategoryNameCache(CategoryCacheProperties properties) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new FoundOrMissingExpiry(properties))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<CategoryDTO> get(String name, Function<String, Optional<CategoryDTO>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(name);
+        }
+        String key = normalize(name);
+        CompletableFuture<Optional<CategoryDTO>> cached = cache.getIfPresent(key);
+        if (cached == null) {
+            CompletableFuture<Optional<CategoryDTO>> loading = new CompletableFuture<>();
+            cached = cache.asMap().putIfAbsent(key, loading);
+            if (cached == null) {
+                return load(name, loader, loading);
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Category cached under the name, without ever loading it: null when it is not cached,
+     * still loading or known to be missing.
+     */
+    public CategoryDTO peek(String name) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        CompletableFuture<Optional<CategoryDTO>> cached = cache.getIfPresent(normalize(name));
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return null;
+        }
+        return cached.join().orElse(null);
+    }
+
+    public void invalidate(String name) {
+        if (name != null) {
+            cache.synchronous().invalidate(normalize(name));
+        }
+    }
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, Tags.empty());
+    }
+
+    private static Optional<CategoryDTO> load(String name, Function<String, Optional<CategoryDTO>> loader,
+                                              CompletableFuture<Optional<CategoryDTO>> loading) {
+        try {
+            Optional<CategoryDTO> loaded = loader.apply(name);
+            loading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static final class FoundOrMissingExpiry implements Expiry<String, Optional<CategoryDTO>> {
+
+        private final long ttlNanos;
+
+        private final long negativeTtlNanos;
+
+        private FoundOrMissingExpiry(CategoryCacheProperties properties) {
+            this.ttlNanos = properties.getTtl().toNanos();
+            this.negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<CategoryDTO> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<CategoryDTO> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<CategoryDTO> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.model.Category;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Keeps the Hibernate second-level cache of this instance in line with the changes made by the
+ * other instances. The changes made here need nothing: Hibernate updates or evicts the cached
+ * categories, and drops the cached listings, when the transaction that made them commits.
+ * <p>
+ * A remote change evicts the changed category, the cached name resolutions, since a rename leaves
+ * the old name resolving to the category, and the cached listings. A remote move also rewrote the
+ * paths of the descendants of the category, which the change does not list, so it evicts every
+ * category. Without a second-level cache, evicting does nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategorySecondLevelCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (!event.isRemote()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        CategoryDTO before = event.getBefore();
+        CategoryDTO after = event.getAfter();
+        if (before != null && !Objects.equals(before.getParentId(), after.getParentId())) {
+            cache.evictEntityData(Category.class);
+        } else {
+            cache.evictEntityData(Category.class, after.getId());
+        }
+        cache.evictNaturalIdData(Category.class);
+        cache.evictQueryRegion(Category.QUERY_CACHE_REGION);
+    }
+}
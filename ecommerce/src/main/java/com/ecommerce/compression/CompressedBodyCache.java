@@ -0,0 +1,199 @@
+package com.ecommerce.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.ecommerce.config.CategoryCompressionProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed category listings, cached by the kind of listing, the ETag of the data they hold and
+ * the content coding: a page and the unbounded listing of the same rows have the same ETag but not
+ * the same body. They go out tagged with {@link ContentCoding#eTagOf(String)}, not with the ETag
+ * of the data.
+ * <p>
+ * A listing that has not changed since it was last sent is written from the cache as is: it is
+ * neither serialized nor compressed again. Each entry remembers what producing it cost, which is
+ * counted as CPU time saved every time the entry is reused. Bodies below
+ * category.compression.min-response-size are cached uncompressed.
+ */
+@Slf4j
+@Component
+public class CompressedBodyCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "category.compressedBodies";
+
+    private final CategoryCompressionProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean brotliAvailable;
+
+    private final Cache<Key, Entry> cache;
+
+    private final Map<ContentCoding, Meters> meters = new EnumMap<>(ContentCoding.class);
+
+    public CompressedBodyCache(CategoryCompressionProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.brotliAvailable = properties.isEnabled() && Brotli4jLoader.isAvailable();
+        if (properties.isEnabled() && !brotliAvailable) {
+            Throwable cause = Brotli4jLoader.getUnavailabilityCause();
+            log.info("Brotli is not available on this platform ({}), category listings are only gzipped",
+                    cause == null ? "no native library" : cause.getMessage());
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getCacheSize().toBytes())
+                .weigher((Key key, Entry entry) -> entry.body().bytes().length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the coding to send a listing with, null to send it uncompressed and uncached
+     */
+    public ContentCoding negotiate(String acceptEncoding) {
+        return properties.isEnabled() ? ContentCoding.negotiate(acceptEncoding, brotliAvailable) : null;
+    }
+
+    /**
+     * The listing of that kind tagged {@code eTag}, encoded with {@code coding}; {@code body} is only
+     * called on a cache miss. It returns either the JSON bytes or an object to serialize.
+     */
+    public <E extends Exception> EncodedBody get(Listing listing, String eTag, ContentCoding coding,
+                                                 BodySupplier<E> body) throws E {
+        Key key = new Key(listing, eTag, coding);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            Meters codingMeters = meters.get(coding);
+            if (codingMeters != null) {
+                codingMeters.cpuSaved.increment(cached.costNanos() / 1e9);
+            }
+            return cached.body();
+        }
+        long start = System.nanoTime();
+        byte[] json = serialize(body.get());
+        Entry entry = new Entry(encode(json, coding), System.nanoTime() - start);
+        cache.put(key, entry);
+        return entry.body();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, Tags.empty());
+        for (ContentCoding coding : ContentCoding.values()) {
+            meters.put(coding, new Meters(
+                    DistributionSummary.builder("category.compression.ratio")
+                            .description("Compressed size of a category listing over its uncompressed size")
+                            .tag("coding", coding.getToken())
+                            .register(registry),
+                    Timer.builder("category.compression.time")
+                            .description("Time spent compressing category listings")
+                            .tag("coding", coding.getToken())
+                            .register(registry),
+                    Counter.builder("category.compression.cpu.saved")
+                            .description("Serialization and compression time avoided by reusing cached listings")
+                            .baseUnit("seconds")
+                            .tag("coding", coding.getToken())
+                            .register(registry)));
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        if (body instanceof byte[] json) {
+            return json;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize a category listing", e);
+        }
+    }
+
+    private EncodedBody encode(byte[] json, ContentCoding coding) {
+        if (json.length < properties.getMinResponseSize().toBytes()) {
+            return new EncodedBody(json, null);
+        }
+        long start = System.nanoTime();
+        byte[] compressed = coding == ContentCoding.BROTLI ? brotli(json) : gzip(json);
+        Meters codingMeters = meters.get(coding);
+        if (codingMeters != null) {
+            codingMeters.time.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            codingMeters.ratio.record((double) compressed.length / json.length);
+        }
+        return new EncodedBody(compressed, coding);
+    }
+
+    private byte[] brotli(byte[] json) {
+        try {
+            return Encoder.compress(json, new Encoder.Parameters().setQuality(properties.getBrotliQuality()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new LeveledGZIPOutputStream(compressed, properties.getGzipLevel())) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Produces the body of a listing, may throw what the listing itself throws.
+     */
+    @FunctionalInterface
+    public interface BodySupplier<E extends Exception> {
+        Object get() throws E;
+    }
+
+    public enum Listing {
+        /**
+         * A {@link com.ecommerce.dto.response.CategoryPageDTO}.
+         */
+        PAGE,
+        /**
+         * The unbounded listing, a JSON array of every category.
+         */
+        ALL
+    }
+
+    private record Key(Listing listing, String eTag, ContentCoding coding) {
+    }
+
+    private record Entry(EncodedBody body, long costNanos) {
+    }
+
+    private record Meters(DistributionSummary ratio, Timer time, Counter cpuSaved) {
+    }
+
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        private LeveledGZIPOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.compression;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Content codings the category listings can be compressed with, preferred first.
+ */
+public enum ContentCoding {
+    BROTLI("br"),
+    GZIP("gzip");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * The strong ETag of a listing sent with this coding: the tag of the unencoded listing with the
+     * coding appended, so that each coding of the same data has its own validator.
+     */
+    public String eTagOf(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + token + "\"";
+    }
+
+    /**
+     * The tag of If-None-Match that is {@code eTag} or one of its coded variants.
+     *
+     * @return null when the client holds none of them
+     */
+    public static String heldVariantOf(String ifNoneMatch, String eTag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return null;
+        }
+        for (String held : ifNoneMatch.split(",")) {
+            String tag = held.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return tag;
+            }
+            for (ContentCoding coding : values()) {
+                if (tag.equals(coding.eTagOf(eTag))) {
+                    return tag;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the client takes gzip, by name or through "*", with a q-value other than 0.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        return negotiate(acceptEncoding, false) == GZIP;
+    }
+
+    /**
+     * The preferred coding the client accepts, ignoring q-values other than q=0. A coding refused
+     * with q=0 stays refused when "*" is accepted too.
+     *
+     * @return null when the client accepts none of them
+     */
+    static ContentCoding negotiate(String acceptEncoding, boolean brotliAvailable) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        boolean brotli = false;
+        boolean gzip = false;
+        boolean any = false;
+        boolean gzipRefused = false;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String token = parts[0].trim();
+            if (parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?")) {
+                gzipRefused |= token.equals(GZIP.token);
+                continue;
+            }
+            brotli |= token.equals(BROTLI.token);
+            gzip |= token.equals(GZIP.token);
+            any |= token.equals("*");
+        }
+        if (brotli && brotliAvailable) {
+            return BROTLI;
+        }
+        return gzip || (any && !gzipRefused) ? GZIP : null;
+    }
+}
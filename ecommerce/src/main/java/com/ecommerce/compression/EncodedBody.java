@@ -0,0 +1,9 @@
+package com.ecommerce.compression;
+
+/**
+ * A response body as it goes on the wire.
+ *
+ * @param coding null when the body is not compressed
+ */
+public record EncodedBody(byte[] bytes, ContentCoding coding) {
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "category.admission")
+public class CategoryAdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Sent as Retry-After with every rejected request, rounded up to whole seconds.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Single categories: GET /category/{name}, its breadcrumb, and POST /category/lookup.
+     */
+    private Budget lookup = new Budget(100, 10, 1000, Duration.ofMillis(500));
+
+    private Budget listing = new Budget(50, 5, 500, Duration.ofMillis(500));
+
+    /**
+     * GET /category?unbounded=true, which reads the whole table when its cached copy is stale.
+     */
+    private Budget unbounded = new Budget(4, 1, 16, Duration.ofSeconds(2));
+
+    private Budget tree = new Budget(20, 2, 200, Duration.ofSeconds(1));
+
+    private Budget suggest = new Budget(50, 5, 500, Duration.ofMillis(200));
+
+    private Budget write = new Budget(20, 2, 200, Duration.ofSeconds(1));
+
+    /**
+     * Imports, kept apart from the other writes: one import runs for as long as its body takes,
+     * which would read as a slow write and cut their limit.
+     */
+    private Budget bulkImport = new Budget(2, 1, 4, Duration.ofMinutes(5));
+
+    /**
+     * Concurrency limit of one kind of request. The limit grows by one for every limit's worth of
+     * fast responses and is cut by backoff-ratio when a response is slower than latency-threshold
+     * or fails with a server error.
+     */
+    @Data
+    public static class Budget {
+
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        private Duration latencyThreshold;
+
+        private double backoffRatio = 0.9;
+
+        public Budget() {
+        }
+
+        public Budget(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
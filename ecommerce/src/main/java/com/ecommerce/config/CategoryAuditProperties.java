@@ -0,0 +1,54 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "category.audit")
+public class CategoryAuditProperties {
+
+    private boolean enabled = true;
+
+    private Path directory = Path.of("data", "audit");
+
+    /**
+     * Changes buffered between the request threads and the writer, rounded up to a power of two.
+     */
+    private int queueCapacity = 8192;
+
+    private int batchSize = 256;
+
+    /**
+     * How long the writer sleeps when the queue is empty.
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Force every batch to disk before counting it as written.
+     */
+    private boolean fsync = true;
+
+    private Overflow overflow = Overflow.BLOCK;
+
+    /**
+     * With {@link Overflow#BLOCK}, how long a request waits for room in a full queue before the change is dropped.
+     */
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    public enum Overflow {
+        /**
+         * Wait up to offer-timeout for the writer to catch up, slowing writers down to the disk's pace.
+         */
+        BLOCK,
+        /**
+         * Drop the change at once, never delaying a request.
+         */
+        DROP
+    }
+}
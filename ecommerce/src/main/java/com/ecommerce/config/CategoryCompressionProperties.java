@@ -0,0 +1,29 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "category.compression")
+public class CategoryCompressionProperties {
+
+    /**
+     * Compress category listings in the application and cache the result, see CompressedBodyCache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Smaller bodies are sent as they are, compressing them costs more than it saves.
+     */
+    private DataSize minResponseSize = DataSize.ofKilobytes(1);
+
+    private int gzipLevel = 6;
+
+    private int brotliQuality = 5;
+
+    /**
+     * Total size of the cached bodies.
+     */
+    private DataSize cacheSize = DataSize.ofMegabytes(32);
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "category.idempotency")
+public class CategoryIdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Where the responses are kept: in this instance only, or in the database, shared by every
+     * instance and kept across restarts.
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * How long a response is replayed for its key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Number of responses kept in memory. The database store is only bounded by the ttl.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a duplicate waits for the request executing with the same key before it is
+     * answered with 409. Also the time after which the database store takes over the key of
+     * a request that never completed, such as one of an instance that crashed.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How often the database store deletes the expired keys.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+
+    private int maxKeyLength = 255;
+
+    public enum Store {
+        MEMORY,
+        JDBC
+    }
+}
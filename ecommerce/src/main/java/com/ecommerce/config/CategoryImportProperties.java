@@ -0,0 +1,11 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "category.import")
+public class CategoryImportProperties {
+
+    private int batchSize = 500;
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "category.invalidation")
+public class CategoryInvalidationProperties {
+
+    /**
+     * Broadcast the category changes of this instance to the others and apply theirs to the local
+     * caches, see CategoryInvalidationBus.
+     */
+    private boolean enabled = true;
+
+    /**
+     * jdbc or loopback. Any other value leaves the transport to a CategoryInvalidationTransport
+     * bean of the application.
+     */
+    private String transport = "jdbc";
+
+    /**
+     * Identifies the changes made by this instance, which it does not apply twice. Must differ
+     * between instances.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * How often the jdbc transport writes the changes of this instance and reads those of the others.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private int batchSize = 500;
+
+    /**
+     * How long the jdbc transport keeps looking for a missing change, one whose insert is not
+     * committed yet, once the changes after it have been read. Those are not held back meanwhile.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long the jdbc transport keeps the changes in the table.
+     */
+    private Duration retention = Duration.ofHours(1);
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "category.listing")
+public class CategoryListingProperties {
+
+    private int defaultLimit = 50;
+
+    private int maxLimit = 500;
+
+    private boolean unboundedEnabled = false;
+
+    /**
+     * Write the pages read from the database straight from the rows to JSON, without the DTOs.
+     */
+    private boolean directJson = true;
+
+    public int resolveLimit(Integer requestedLimit) {
+        if (requestedLimit == null || requestedLimit < 1) {
+            return defaultLimit;
+        }
+        return Math.min(requestedLimit, maxLimit);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "category.lookup")
+public class CategoryLookupProperties {
+
+    /**
+     * Most distinct names one batch lookup may ask for.
+     */
+    private int maxNames = 500;
+
+    /**
+     * Names per IN-list query, so that a large lookup never sends one oversized statement.
+     */
+    private int chunkSize = 100;
+
+    private Coalesce coalesce = new Coalesce();
+
+    /**
+     * Single-name lookups that miss the name cache within window of each other are answered by
+     * one IN-list query, at the cost of up to window of added latency for the first of them.
+     */
+    @Data
+    public static class Coalesce {
+
+        private boolean enabled = false;
+
+        private Duration window = Duration.ofMillis(2);
+
+        /**
+         * A batch that reaches this many names is sent at once, without waiting for the window.
+         */
+        private int maxBatch = 100;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "category.replica")
+public class CategoryReplicaProperties {
+
+    /**
+     * Send read-only transactions to the replicas, see ReplicaDataSourceConfiguration.
+     */
+    private boolean enabled = false;
+
+    private List<Source> sources = new ArrayList<>();
+
+    private int maximumPoolSize = 10;
+
+    private Balancing balancing = Balancing.ROUND_ROBIN;
+
+    /**
+     * After a client's write commits, its reads stay on the primary for this long so that they
+     * see it, see ReadYourWrites. Should cover the usual replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * A replica further behind than this is taken out of rotation until it catches up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private LagProbe lagProbe = LagProbe.MYSQL;
+
+    /**
+     * With {@link LagProbe#QUERY}, a query returning the replica's lag in seconds.
+     */
+    private String lagQuery;
+
+    @Data
+    public static class Source {
+
+        private String url;
+
+        /**
+         * Defaults to spring.datasource.username.
+         */
+        private String username;
+
+        /**
+         * Defaults to spring.datasource.password.
+         */
+        private String password;
+    }
+
+    public enum Balancing {
+        ROUND_ROBIN,
+        /**
+         * The replica with the fewest connections in use.
+         */
+        LEAST_CONNECTIONS
+    }
+
+    public enum LagProbe {
+        /**
+         * Seconds_Behind_Source of SHOW REPLICA STATUS, a replica whose replication is stopped is taken out.
+         */
+        MYSQL,
+        QUERY,
+        /**
+         * Only check that the replica answers.
+         */
+        NONE
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "category.snapshot")
+public class CategorySnapshotProperties {
+
+    /**
+     * Serve category reads from an in-memory copy of the whole table, see CategorySnapshots.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often the copy is compared with the table, to pick up changes made outside this instance.
+     */
+    private Duration reconcileInterval = Duration.ofSeconds(30);
+}
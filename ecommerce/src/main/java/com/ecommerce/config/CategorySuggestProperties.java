@@ -0,0 +1,25 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "category.suggest")
+public class CategorySuggestProperties {
+
+    private int defaultLimit = 10;
+
+    private int maxLimit = 50;
+
+    /**
+     * How many matches of a query longer than the precomputed prefixes are walked, at most, to rank.
+     */
+    private int maxScan = 1000;
+
+    public int resolveLimit(Integer requestedLimit) {
+        if (requestedLimit == null || requestedLimit < 1) {
+            return defaultLimit;
+        }
+        return Math.min(requestedLimit, maxLimit);
+    }
+}
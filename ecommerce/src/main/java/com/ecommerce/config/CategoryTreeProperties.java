@@ -0,0 +1,23 @@
+package com.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "category.tree")
+public class CategoryTreeProperties {
+
+    /**
+     * Levels below the requested category a subtree holds when no depth is given.
+     */
+    private int defaultDepth = 1;
+
+    private int maxDepth = 10;
+
+    public int resolveDepth(Integer requestedDepth) {
+        if (requestedDepth == null || requestedDepth < 0) {
+            return defaultDepth;
+        }
+        return Math.min(requestedDepth, maxDepth);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+@Configuration
+public class MetricsConfiguration {
+
+    private static final KeyValue ENDPOINT_NONE = KeyValue.of("endpoint", "none");
+
+    @Bean
+    public DefaultServerRequestObservationConvention endpointObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and(endpoint(context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)));
+            }
+        };
+    }
+
+    @Bean
+    public ObservedExceptionRecorder observedExceptionRecorder() {
+        return new ObservedExceptionRecorder();
+    }
+
+    private static KeyValue endpoint(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of("endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return ENDPOINT_NONE;
+    }
+
+    /**
+     * Exceptions turned into responses by MVC (such as the ones annotated with
+     * {@code @ResponseStatus}) never reach the observation filter. This resolver runs first,
+     * records the exception on the request observation and lets the next resolvers handle it.
+     */
+    static class ObservedExceptionRecorder implements HandlerExceptionResolver, Ordered {
+
+        @Override
+        public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            ServerHttpObservationFilter.findObservationContext(request)
+                    .ifPresent(context -> context.setError(ex));
+            return null;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.config;
+
+import com.ecommerce.datasource.ReadYourWrites;
+import com.ecommerce.datasource.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends read-only transactions to the replicas and everything else to the primary.
+ * <p>
+ * The routing relies on {@link LazyConnectionDataSourceProxy}: the physical connection is only
+ * fetched at the first statement, once the transaction has marked it read-only, and is then taken
+ * from the {@link ReplicaDataSource} instead of the primary. Repository reads run in read-only
+ * transactions by default, so they all go to the replicas unless they join a write transaction.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "category.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(CategoryReplicaProperties replicaProperties) {
+        return new ReadYourWrites(replicaProperties.getReadYourWritesWindow());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+                                               CategoryReplicaProperties replicaProperties, ReadYourWrites readYourWrites) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (CategoryReplicaProperties.Source source : replicaProperties.getSources()) {
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(source.getUrl())
+                    .username(source.getUsername() != null ? source.getUsername() : dataSourceProperties.determineUsername())
+                    .password(source.getPassword() != null ? source.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            pool.setPoolName("replica-" + pools.size());
+            pool.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            pool.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            pool.setReadOnly(true);
+            pools.add(pool);
+        }
+        return new ReplicaDataSource(primaryDataSource, pools, replicaProperties, readYourWrites);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService replicaHealthCheck(ReplicaDataSource replicaDataSource, CategoryReplicaProperties replicaProperties) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("replica-health-"));
+        long intervalMillis = replicaProperties.getHealthCheckInterval().toMillis();
+        executor.scheduleWithFixedDelay(replicaDataSource::checkHealth, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hands Hibernate the JCache manager of its second-level cache regions, configured by ehcache.xml.
+ * <p>
+ * Left to itself, Hibernate would ask the caching provider for the manager of ehcache.xml, which
+ * the provider shares across the JVM: the application contexts of a test run would share their
+ * caches, and the first one closed would close them for all. Each context gets a manager of its
+ * own instead, which Hibernate closes with the session factory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfiguration {
+
+    private static final String CONFIGURATION = "/ehcache.xml";
+
+    @Bean
+    public CacheManager secondLevelCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        XmlConfiguration configuration = new XmlConfiguration(getClass().getResource(CONFIGURATION), getClass().getClassLoader());
+        return provider.getCacheManager(URI.create("urn:ecommerce:second-level-cache:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
@@ -1,11 +1,13 @@
 package com.ecommerce.config;
 
 import io.swagger.v3.oas.annotations.info.Contact;
-import org.springdoc.core.GroupedOpenApi;
+import org.springdoc.core.models.GroupedOpenApi;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
+@Profile("!production")
 public class SwaggerConfiguration{
 
 
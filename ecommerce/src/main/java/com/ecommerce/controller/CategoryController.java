@@ -1,20 +1,49 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.compression.CompressedBodyCache;
+import com.ecommerce.compression.ContentCoding;
+import com.ecommerce.compression.EncodedBody;
 import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.request.CategoryLookupDTO;
+import com.ecommerce.dto.request.CategoryMoveDTO;
+import com.ecommerce.dto.response.CategoryImportResultDTO;
+import com.ecommerce.dto.response.CategoryLookupResultDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.dto.response.CategoryTreeDTO;
 import com.ecommerce.dto.response.MessageResponseDTO;
 import com.ecommerce.exception.CategoryNameAlreadyExistsException;
 import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.exception.InvalidCategoryParentException;
+import com.ecommerce.exception.InvalidCursorException;
+import com.ecommerce.exception.TooManyCategoryNamesException;
+import com.ecommerce.exception.UnboundedListingDisabledException;
+import com.ecommerce.exception.UnsupportedExportFormatException;
+import com.ecommerce.service.CategoryExportFormat;
+import com.ecommerce.service.CategoryExportService;
+import com.ecommerce.service.CategoryImportService;
 import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.CategoryTreeService;
+import com.ecommerce.service.CategoryValidator;
+import com.ecommerce.snapshot.CategoryJson;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/category")
@@ -24,6 +53,14 @@ public class CategoryController{
 
     private final CategoryService categoryService;
 
+    private final CategoryImportService categoryImportService;
+
+    private final CategoryExportService categoryExportService;
+
+    private final CompressedBodyCache compressedBodyCache;
+
+    private final CategoryTreeService categoryTreeService;
+
     @Operation(summary = "Create category by given name.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "500", description = "Internal server error."),
@@ -31,20 +68,152 @@ public class CategoryController{
     })
     @PostMapping("/create")
     @ResponseStatus(HttpStatus.CREATED)
-    public CategoryDTO createCategory(@RequestBody @Valid CategoryDTO categoryDTO) throws CategoryNameAlreadyExistsException {
+    public CategoryDTO createCategory(@RequestBody @Valid CategoryDTO categoryDTO) throws CategoryNameAlreadyExistsException, CategoryNotFoundException, InvalidCategoryParentException {
         return categoryService.createCategory(categoryDTO);
     }
 
-    @Operation(summary = "List all categories.")
+    @Operation(summary = "Import categories in bulk from a JSON array or an NDJSON stream.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, the outcome of every row is reported.")
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public CategoryImportResultDTO importCategories(InputStream body) throws IOException {
+        return categoryImportService.importCategories(body);
+    }
+
+    @Operation(summary = "List categories page by page, ordered by id. Answers 304 to a matching If-None-Match or If-Modified-Since.")
     @GetMapping()
-    public List<CategoryDTO> listAllCategories(){
-        return categoryService.listAll();
+    public ResponseEntity<?> listCategories(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            WebRequest request) throws InvalidCursorException {
+        ContentCoding coding = compressedBodyCache.negotiate(acceptEncoding);
+        if (coding != null) {
+            CategoryValidator validator = categoryService.pageValidatorOf(cursor, limit);
+            if (notModified(request, validator, coding)) {
+                return null;
+            }
+            return encoded(compressedBodyCache.get(CompressedBodyCache.Listing.PAGE, validator.getETag(), coding, () -> {
+                CategoryJson json = categoryService.listPageJson(cursor, limit);
+                return json != null ? json.body() : categoryService.listPage(cursor, limit);
+            }));
+        }
+        if (isConditional(request) && notModified(request, categoryService.pageValidatorOf(cursor, limit))) {
+            return null;
+        }
+        CategoryJson json = categoryService.listPageJson(cursor, limit);
+        if (json != null) {
+            notModified(request, json.validator());
+            return json(json.body());
+        }
+        CategoryPageDTO page = categoryService.listPage(cursor, limit);
+        notModified(request, CategoryValidator.ofPage(page));
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "List all categories at once. Only available when category.listing.unbounded-enabled is set. Answers 304 to a matching If-None-Match or If-Modified-Since.")
+    @GetMapping(params = "unbounded=true")
+    public ResponseEntity<?> listAllCategories(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                               WebRequest request) throws UnboundedListingDisabledException {
+        ContentCoding coding = compressedBodyCache.negotiate(acceptEncoding);
+        if (coding != null) {
+            CategoryValidator validator = categoryService.listAllValidator();
+            if (notModified(request, validator, coding)) {
+                return null;
+            }
+            return encoded(compressedBodyCache.get(CompressedBodyCache.Listing.ALL, validator.getETag(), coding, () -> {
+                CategoryJson json = categoryService.listAllJson();
+                return json != null ? json.body() : categoryService.listAll();
+            }));
+        }
+        if (isConditional(request) && notModified(request, categoryService.listAllValidator())) {
+            return null;
+        }
+        CategoryJson json = categoryService.listAllJson();
+        if (json != null) {
+            notModified(request, json.validator());
+            return json(json.body());
+        }
+        List<CategoryDTO> categories = categoryService.listAll();
+        notModified(request, CategoryValidator.ofAll(categories));
+        return ResponseEntity.ok(categories);
+    }
+
+    @Operation(summary = "Suggest categories whose name, or a word of it, starts with the query. Case and accents are ignored.")
+    @GetMapping("/suggest")
+    public List<CategorySuggestionDTO> suggestCategories(@RequestParam("q") String query,
+                                                         @RequestParam(required = false) Integer limit) {
+        return categoryService.suggest(query, limit);
+    }
+
+    @Operation(summary = "Export categories as NDJSON or CSV, streamed row by row.")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCategories(@RequestParam(defaultValue = "ndjson") String format,
+                                                                  @RequestParam(defaultValue = "0") long since,
+                                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws UnsupportedExportFormatException {
+        CategoryExportFormat exportFormat = CategoryExportFormat.of(format);
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        if (!gzip) {
+            return response.body(output -> categoryExportService.export(exportFormat, since, output));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(output -> {
+                    GZIPOutputStream gzipOutput = new GZIPOutputStream(output, 64 * 1024);
+                    categoryExportService.export(exportFormat, since, gzipOutput);
+                    gzipOutput.finish();
+                });
     }
 
-    @Operation(summary = "Get category by name.")
+    @Operation(summary = "Get category by name. Answers 304 to a matching If-None-Match or If-Modified-Since.")
     @GetMapping("/{name}")
-    public CategoryDTO listCategoryByName(@PathVariable String name) throws CategoryNotFoundException {
-        return categoryService.listCategoryByName(name);
+    public ResponseEntity<?> listCategoryByName(@PathVariable String name, WebRequest request) throws CategoryNotFoundException {
+        if (isConditional(request) && notModified(request, categoryService.validatorOf(name))) {
+            return null;
+        }
+        CategoryJson json = categoryService.categoryJson(name);
+        if (json != null) {
+            notModified(request, json.validator());
+            return json(json.body());
+        }
+        CategoryDTO category = categoryService.listCategoryByName(name);
+        notModified(request, CategoryValidator.of(category));
+        return ResponseEntity.ok(category);
+    }
+
+    @Operation(summary = "Get several categories by name at once. Names without a category are listed as missing.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The categories found, and the names that were not."),
+            @ApiResponse(responseCode = "400", description = "More names than category.lookup.max-names were asked for.")
+    })
+    @PostMapping("/lookup")
+    @ResponseStatus(HttpStatus.OK)
+    public CategoryLookupResultDTO lookupCategories(@RequestBody @Valid CategoryLookupDTO categoryLookupDTO) throws TooManyCategoryNamesException {
+        return categoryService.lookup(categoryLookupDTO.getCategoryNames());
+    }
+
+    @Operation(summary = "Get a category with its descendants, down to the given depth below it.")
+    @GetMapping("/{name}/subtree")
+    public CategoryTreeDTO getSubtree(@PathVariable String name, @RequestParam(required = false) Integer depth) throws CategoryNotFoundException {
+        return categoryTreeService.subtree(name, depth);
+    }
+
+    @Operation(summary = "Get the ancestors of a category, top-level first, followed by the category itself.")
+    @GetMapping("/{name}/breadcrumb")
+    public List<CategoryDTO> getBreadcrumb(@PathVariable String name) throws CategoryNotFoundException {
+        return categoryTreeService.breadcrumb(name);
+    }
+
+    @Operation(summary = "Move categories, with their subtrees, under a new parent or to the top level.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Every category was moved."),
+            @ApiResponse(responseCode = "400", description = "A category would be moved into its own subtree, nothing was moved.")
+    })
+    @PostMapping("/move")
+    @ResponseStatus(HttpStatus.OK)
+    public MessageResponseDTO moveCategories(@RequestBody @Valid CategoryMoveDTO categoryMoveDTO) throws CategoryNotFoundException, InvalidCategoryParentException {
+        return categoryTreeService.move(categoryMoveDTO);
     }
 
     @Operation(summary = "Update category by ID.")
@@ -54,7 +223,55 @@ public class CategoryController{
         return categoryService.update(name, categoryDTO);
     }
 
+    /**
+     * A conditional GET is first answered from the validator alone, so an unchanged category is
+     * neither loaded in full nor serialized.
+     */
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
 
-}
+    /**
+     * A body serialized ahead of time by the snapshot, written as is.
+     */
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
 
+    /**
+     * A listing compressed, or found compressed, by the {@link CompressedBodyCache}. Tomcat leaves
+     * a response that already has a Content-Encoding alone.
+     */
+    private static ResponseEntity<byte[]> encoded(EncodedBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.coding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, body.coding().getToken());
+        }
+        return response.body(body.bytes());
+    }
 
+    /**
+     * Sets ETag and Last-Modified on the response and tells whether the client copy is still current.
+     */
+    private static boolean notModified(WebRequest request, CategoryValidator validator) {
+        return notModified(request, validator, null);
+    }
+
+    /**
+     * Same as {@link #notModified(WebRequest, CategoryValidator)} for a listing sent with
+     * {@code coding}, which has its own ETag. A client holding the listing in any coding is told
+     * that it is still current.
+     */
+    private static boolean notModified(WebRequest request, CategoryValidator validator, ContentCoding coding) {
+        String eTag = ContentCoding.heldVariantOf(request.getHeader(HttpHeaders.IF_NONE_MATCH), validator.getETag());
+        if (eTag == null) {
+            eTag = coding == null ? validator.getETag() : coding.eTagOf(validator.getETag());
+        }
+        return request.checkNotModified(eTag, validator.getLastModifiedMillis());
+    }
+}
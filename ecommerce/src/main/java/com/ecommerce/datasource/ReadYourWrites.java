@@ -0,0 +1,94 @@
+package com.ecommerce.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Remembers when a client last committed a write, so that its reads that follow it can be kept on
+ * the primary until the replicas have caught up. Other clients keep reading from the replicas.
+ * <p>
+ * Within a web request the commit time goes in a request attribute, and in the
+ * {@value #COOKIE} cookie for the client's next requests, which may reach another instance: the
+ * time is taken from the wall clock so that instances agree on it, as long as their clocks do.
+ * Outside a web request it is kept per thread.
+ */
+public class ReadYourWrites implements TransactionExecutionListener {
+
+    public static final String COOKIE = "category-written-at";
+
+    static final String WRITTEN_AT = ReadYourWrites.class.getName() + ".writtenAt";
+
+    private final long windowMillis;
+
+    private final ThreadLocal<Long> threadWrittenAt = new ThreadLocal<>();
+
+    public ReadYourWrites(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || windowMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        ServletRequestAttributes request = currentRequest();
+        if (request == null) {
+            threadWrittenAt.set(now);
+            return;
+        }
+        request.setAttribute(WRITTEN_AT, now, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = request.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, Duration.ofMillis(windowMillis).toSeconds()));
+            response.addCookie(cookie);
+        }
+    }
+
+    /**
+     * Whether the client of the current request, or the current thread outside a request, wrote
+     * recently enough that the replicas may not have its write yet.
+     */
+    public boolean inWindow() {
+        ServletRequestAttributes request = currentRequest();
+        Long writtenAt = request != null ? writtenAt(request) : threadWrittenAt.get();
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < windowMillis;
+    }
+
+    private static Long writtenAt(ServletRequestAttributes attributes) {
+        Object written = attributes.getAttribute(WRITTEN_AT, RequestAttributes.SCOPE_REQUEST);
+        if (written instanceof Long writtenAt) {
+            return writtenAt;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request ? request : null;
+    }
+}
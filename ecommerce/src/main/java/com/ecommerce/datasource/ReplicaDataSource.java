@@ -0,0 +1,200 @@
+package com.ecommerce.datasource;
+
+import com.ecommerce.config.CategoryReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions, spread over the healthy replicas.
+ * <p>
+ * Falls back to the primary within the read-your-writes window after the client's own write,
+ * when no replica is healthy, and for connections asked for with other credentials. {@link #checkHealth()} takes a replica out of rotation when it does not
+ * answer or lags more than category.replica.max-lag, and puts it back once it has caught up.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, Closeable {
+
+    private static final long UNKNOWN_LAG = -1;
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final CategoryReplicaProperties properties;
+
+    private final ReadYourWrites readYourWrites;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private volatile Counter routedToReplica;
+
+    private volatile Counter routedToPrimary;
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, CategoryReplicaProperties properties,
+                             ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.properties = properties;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = readYourWrites.inWindow() ? null : choose();
+        if (replica == null) {
+            increment(routedToPrimary);
+            return primary.getConnection();
+        }
+        increment(routedToReplica);
+        return replica.pool.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // the replica pools are opened with their configured credentials, other ones need the primary
+        increment(routedToPrimary);
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probes every replica and updates whether it is in rotation.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                replica.lagSeconds = lagSeconds(connection);
+                healthy = replica.lagSeconds != UNKNOWN_LAG
+                        && replica.lagSeconds <= properties.getMaxLag().toSeconds();
+            } catch (SQLException e) {
+                log.debug("Health check of replica {} failed", replica.name(), e);
+                replica.lagSeconds = UNKNOWN_LAG;
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} is {} rotation, lag {}s", replica.name(), healthy ? "back in" : "taken out of",
+                        replica.lagSeconds == UNKNOWN_LAG ? "unknown" : replica.lagSeconds);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("category.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is in rotation for reads")
+                    .tag("replica", replica.name())
+                    .register(registry);
+            Gauge.builder("category.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag seen by the last health check, -1 when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name())
+                    .register(registry);
+        }
+        routedToReplica = routed(registry, "replica");
+        routedToPrimary = routed(registry, "primary");
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Replica choose() {
+        int size = replicas.size();
+        if (properties.getBalancing() == CategoryReplicaProperties.Balancing.LEAST_CONNECTIONS) {
+            Replica least = null;
+            for (Replica replica : replicas) {
+                if (replica.healthy && (least == null || replica.activeConnections() < least.activeConnections())) {
+                    least = replica;
+                }
+            }
+            return least;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private long lagSeconds(Connection connection) throws SQLException {
+        switch (properties.getLagProbe()) {
+            case MYSQL:
+                try (Statement statement = connection.createStatement();
+                     ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    // not replicating at all, so nothing to lag behind
+                    return status.next() ? mysqlLagSeconds(status) : 0;
+                }
+            case QUERY:
+                try (Statement statement = connection.createStatement();
+                     ResultSet lag = statement.executeQuery(properties.getLagQuery())) {
+                    return lag.next() ? lag.getLong(1) : UNKNOWN_LAG;
+                }
+            default:
+                return connection.isValid((int) Math.max(1, properties.getHealthCheckInterval().toSeconds())) ? 0 : UNKNOWN_LAG;
+        }
+    }
+
+    /**
+     * Seconds_Behind_Source is NULL while replication is stopped. Needs MySQL 8.0.22 or later.
+     */
+    private static long mysqlLagSeconds(ResultSet status) throws SQLException {
+        long lag = status.getLong("Seconds_Behind_Source");
+        return status.wasNull() ? UNKNOWN_LAG : lag;
+    }
+
+    private static Counter routed(MeterRegistry registry, String target) {
+        return Counter.builder("category.replica.routed")
+                .description("Connections handed out for read-only transactions, by where they were sent")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+
+        private volatile boolean healthy = true;
+
+        private volatile long lagSeconds;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+
+        private int activeConnections() {
+            HikariPoolMXBean pool = this.pool.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+    }
+}
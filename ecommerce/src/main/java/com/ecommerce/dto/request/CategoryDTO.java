@@ -3,9 +3,10 @@ package com.ecommerce.dto.request;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
-import javax.validation.constraints.NotEmpty;
-import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Size;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
 
 @Data
 @Builder
@@ -30,4 +31,15 @@ public class CategoryDTO {
     @Schema(description = "Product category url's image.")
     private String imageUrl;
 
+    @Schema(description = "Id of the parent category, null for a top-level category. Set on creation, changed by a move.")
+    private Long parentId;
+
+    @Schema(description = "Version of the category, incremented on every update.")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Schema(description = "Last time the category was created or updated.")
+    @Setter(AccessLevel.NONE)
+    private Instant updatedAt;
+
 }
@@ -0,0 +1,22 @@
+package com.ecommerce.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryLookupDTO {
+
+    @NotEmpty
+    @Schema(description = "Names of the categories to get. Case is ignored and repeated names are looked up once.")
+    private List<@NotBlank String> categoryNames;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryMoveDTO {
+
+    @NotEmpty
+    @Schema(description = "Names of the categories to move, each with its whole subtree.")
+    private List<String> categoryNames;
+
+    @Schema(description = "Name of the new parent, null to move the categories to the top level.")
+    private String parentName;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CategoryImportResultDTO {
+
+    @Schema(description = "Number of created categories.")
+    private long created;
+
+    @Schema(description = "Number of rows that were not created.")
+    private long rejected;
+
+    @Schema(description = "Outcome of every row, in payload order.")
+    private List<CategoryImportRowDTO> rows;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CategoryImportRowDTO {
+
+    @Schema(description = "Position of the row in the imported payload, starting at 1.")
+    private int row;
+
+    @Schema(description = "Products category name of the row.")
+    private String categoryName;
+
+    @Schema(description = "Outcome of the row.")
+    private CategoryImportStatus status;
+
+    @Schema(description = "Id of the created category.")
+    private Long id;
+
+    @Schema(description = "Reason why the row was not created.")
+    private String message;
+}
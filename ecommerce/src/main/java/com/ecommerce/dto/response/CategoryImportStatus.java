@@ -0,0 +1,8 @@
+package com.ecommerce.dto.response;
+
+public enum CategoryImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CategoryLookupResultDTO {
+
+    @Schema(description = "Categories found, in the order their names were asked for.")
+    private List<CategoryDTO> categories;
+
+    @Schema(description = "Names asked for that no category has, as they were given.")
+    private List<String> missing;
+}
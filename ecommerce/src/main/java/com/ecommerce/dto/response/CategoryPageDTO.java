@@ -0,0 +1,19 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CategoryPageDTO {
+
+    @Schema(description = "Categories of the page, ordered by id.")
+    private List<CategoryDTO> content;
+
+    @Schema(description = "Cursor to request the next page. Absent on the last page.")
+    private String nextCursor;
+}
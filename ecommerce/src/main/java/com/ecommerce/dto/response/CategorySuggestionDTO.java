@@ -0,0 +1,20 @@
+package com.ecommerce.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySuggestionDTO {
+
+    @Schema(description = "Products category Id.")
+    private Long id;
+
+    @Schema(description = "Products category name.")
+    private String categoryName;
+}
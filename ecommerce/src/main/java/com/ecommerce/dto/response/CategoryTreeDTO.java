@@ -0,0 +1,31 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A category with its children, ordered by id, down to the requested depth.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTreeDTO {
+
+    @JsonUnwrapped
+    private CategoryDTO category;
+
+    @Builder.Default
+    private List<CategoryTreeDTO> children = new ArrayList<>();
+
+    public static CategoryTreeDTO of(CategoryDTO category) {
+        return CategoryTreeDTO.builder().category(category).build();
+    }
+}
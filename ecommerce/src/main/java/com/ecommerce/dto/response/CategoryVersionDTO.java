@@ -0,0 +1,30 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The columns a conditional GET needs to decide whether a category changed, read without
+ * loading the rest of the row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryVersionDTO {
+
+    private Long id;
+
+    private Long version;
+
+    private Instant updatedAt;
+
+    public static CategoryVersionDTO of(CategoryDTO categoryDTO) {
+        return new CategoryVersionDTO(categoryDTO.getId(), categoryDTO.getVersion(), categoryDTO.getUpdatedAt());
+    }
+}
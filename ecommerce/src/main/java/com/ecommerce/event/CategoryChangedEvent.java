@@ -0,0 +1,47 @@
+package com.ecommerce.event;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published once a category was created or updated and the change is committed, by this instance
+ * or, when it is remote, by another one (see CategoryInvalidationBus).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CategoryChangedEvent {
+
+    /**
+     * The category before the change, null when the category was just created.
+     */
+    private final CategoryDTO before;
+
+    /**
+     * The category after the change.
+     */
+    private final CategoryDTO after;
+
+    /**
+     * Whether the change was made by another instance. Caches follow remote changes too, but only
+     * the instance that made a change records it.
+     */
+    private final boolean remote;
+
+    public static CategoryChangedEvent created(CategoryDTO category) {
+        return new CategoryChangedEvent(null, category, false);
+    }
+
+    public static CategoryChangedEvent updated(CategoryDTO before, CategoryDTO after) {
+        return new CategoryChangedEvent(before, after, false);
+    }
+
+    public static CategoryChangedEvent remote(CategoryDTO before, CategoryDTO after) {
+        return new CategoryChangedEvent(before, after, true);
+    }
+
+    public boolean isCreation() {
+        return before == null;
+    }
+}
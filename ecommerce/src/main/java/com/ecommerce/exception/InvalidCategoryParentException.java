@@ -0,0 +1,22 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCategoryParentException extends Exception {
+
+    public InvalidCategoryParentException(String message){
+        super(message);
+    }
+
+    public static InvalidCategoryParentException cycle(String name, String parentName) {
+        return new InvalidCategoryParentException(
+                String.format("Category %s cannot be moved under %s, which is in its own subtree.", name, parentName));
+    }
+
+    public static InvalidCategoryParentException tooDeep(String parentName) {
+        return new InvalidCategoryParentException(
+                String.format("Category tree is too deep under %s.", parentName));
+    }
+}
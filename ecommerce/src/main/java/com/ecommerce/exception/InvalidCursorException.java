@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends Exception {
+
+    public InvalidCursorException(String cursor){
+        super(String.format("Cursor %s is not valid.", cursor));
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyCategoryNamesException extends Exception {
+
+    public TooManyCategoryNamesException(int requested, int maxNames){
+        super(String.format("%d category names were asked for at once, at most %d are allowed.", requested, maxNames));
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnboundedListingDisabledException extends Exception {
+
+    public UnboundedListingDisabledException(){
+        super("Listing all categories at once is disabled. Use the paginated listing instead.");
+    }
+}
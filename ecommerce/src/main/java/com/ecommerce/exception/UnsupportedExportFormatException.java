@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedExportFormatException extends Exception {
+
+    public UnsupportedExportFormatException(String format){
+        super(String.format("Export format %s is not supported.", format));
+    }
+}
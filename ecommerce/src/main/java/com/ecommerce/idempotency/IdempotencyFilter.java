@@ -0,0 +1,311 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.config.CategoryIdempotencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes the retries of a create or update sent with an Idempotency-Key header safe: the first
+ * request with the key is executed and its response stored, the retries get that response back,
+ * with an Idempotent-Replayed header, without reaching the controller.
+ * <p>
+ * A duplicate that arrives while the first request is still executing in this instance waits for
+ * its response instead of racing it to the database. Only successful responses are stored: a
+ * request that failed changed nothing, so its retry is executed again.
+ * <p>
+ * A key reused with another method, path or body is answered with 422, a duplicate that waited
+ * longer than category.idempotency.wait-timeout, or that the database store finds executing on
+ * another instance, with 409.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(prefix = "category.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final IdempotencyStore store;
+
+    private final CategoryIdempotencyProperties properties;
+
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> executing = new ConcurrentHashMap<>();
+
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    public IdempotencyFilter(IdempotencyStore store, CategoryIdempotencyProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !path.equals("/category/create") && !PATH_MATCHER.match("/category/*/update", path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            reject(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must have 1 to " + properties.getMaxKeyLength() + " characters.");
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        HttpServletRequest bufferedRequest = new BufferedBodyRequest(request, body);
+        String fingerprint = fingerprint(request, body);
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        while (true) {
+            IdempotentResponse stored = store.find(key);
+            if (stored != null) {
+                replay(stored, fingerprint, response, Outcome.REPLAYED);
+                return;
+            }
+            CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = executing.putIfAbsent(key, execution);
+            if (running == null) {
+                try {
+                    execute(key, fingerprint, bufferedRequest, response, filterChain, execution);
+                } finally {
+                    executing.remove(key, execution);
+                }
+                return;
+            }
+            IdempotentResponse completed;
+            try {
+                completed = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                conflict(response);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for the request with the same Idempotency-Key", e);
+            } catch (ExecutionException e) {
+                completed = null;
+            }
+            if (completed != null) {
+                replay(completed, fingerprint, response, Outcome.WAITED);
+                return;
+            }
+            // the request failed, this one is executed in turn
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("category.idempotency.requests")
+                    .description("Requests sent with an Idempotency-Key, by what was done with them")
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Runs the request, this instance holding the key. The store is checked once more: the request
+     * that held the key before may have completed between the first check and now.
+     */
+    private void execute(String key, String fingerprint, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain, CompletableFuture<IdempotentResponse> execution) throws ServletException, IOException {
+        IdempotentResponse result = null;
+        try {
+            IdempotentResponse stored = store.find(key);
+            if (stored == null && !store.claim(key, fingerprint)) {
+                stored = store.find(key);
+                if (stored == null) {
+                    conflict(response);
+                    return;
+                }
+            }
+            if (stored != null) {
+                result = stored;
+                replay(stored, fingerprint, response, Outcome.REPLAYED);
+                return;
+            }
+            ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+            try {
+                filterChain.doFilter(request, cachingResponse);
+            } catch (ServletException | IOException | RuntimeException e) {
+                store.release(key);
+                throw e;
+            }
+            if (HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful()) {
+                result = new IdempotentResponse(fingerprint, cachingResponse.getStatus(),
+                        cachingResponse.getContentType(), cachingResponse.getContentAsByteArray());
+                store.complete(key, result);
+            } else {
+                store.release(key);
+            }
+            count(Outcome.EXECUTED);
+            cachingResponse.copyBodyToResponse();
+        } finally {
+            execution.complete(result);
+        }
+    }
+
+    private void replay(IdempotentResponse stored, String fingerprint, HttpServletResponse response, Outcome outcome) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            count(Outcome.MISMATCH);
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used by another request.");
+            return;
+        }
+        count(outcome);
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void conflict(HttpServletResponse response) throws IOException {
+        count(Outcome.CONFLICT);
+        reject(response, HttpStatus.CONFLICT, "A request with the same Idempotency-Key is still in progress, retry later.");
+    }
+
+    private void count(Outcome outcome) {
+        Counter counter = outcomes.get(outcome);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = ("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getServletPath() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    enum Outcome {
+        EXECUTED("executed"),
+        REPLAYED("replayed"),
+        WAITED("waited"),
+        CONFLICT("conflict"),
+        MISMATCH("mismatch");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * The request with its body read ahead, to fingerprint it, and read again by the controller.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
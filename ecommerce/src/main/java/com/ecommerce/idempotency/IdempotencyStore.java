@@ -0,0 +1,26 @@
+package com.ecommerce.idempotency;
+
+/**
+ * Responses of the requests sent with an Idempotency-Key, by key, until they expire.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * @return the response stored under the key, null when there is none or it expired
+     */
+    IdempotentResponse find(String key);
+
+    /**
+     * Reserves the key for a request about to be executed.
+     *
+     * @return false when a request with the key is executing on another instance
+     */
+    boolean claim(String key, String fingerprint);
+
+    void complete(String key, IdempotentResponse response);
+
+    /**
+     * Gives up a claimed key without a response, so that the next request with it is executed.
+     */
+    void release(String key);
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.idempotency;
+
+/**
+ * Response of a request sent with an Idempotency-Key, as replayed to its retries.
+ *
+ * @param fingerprint hash of the method, path and body of the request, a retry must have the same
+ */
+public record IdempotentResponse(String fingerprint, int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.config.CategoryIdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the responses in this instance, bounded by category.idempotency.maximum-size. A retry
+ * that lands on another instance, or after a restart, is executed again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "category.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore, MeterBinder {
+
+    private static final String CACHE_NAME = "category.idempotency";
+
+    private final Cache<String, IdempotentResponse> responses;
+
+    public InMemoryIdempotencyStore(CategoryIdempotencyProperties properties) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public IdempotentResponse find(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Always granted: the requests executing in this instance are already coordinated by the
+     * {@link IdempotencyFilter}.
+     */
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        return true;
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        responses.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME, Tags.empty());
+    }
+}
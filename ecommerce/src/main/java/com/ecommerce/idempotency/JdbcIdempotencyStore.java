@@ -0,0 +1,97 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.config.CategoryIdempotencyProperties;
+import com.ecommerce.model.IdempotencyKey;
+import com.ecommerce.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the responses in the idempotency_key table, so that a retry is replayed whichever
+ * instance it lands on. A key is claimed by inserting its row, which the primary key makes
+ * exclusive across instances. Expired rows are deleted now and then by the request that claims
+ * a key, every category.idempotency.purge-interval.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "category.idempotency", name = "store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository repository;
+
+    private final CategoryIdempotencyProperties properties;
+
+    private final Clock clock;
+
+    private final AtomicLong nextPurgeMillis = new AtomicLong();
+
+    @Autowired
+    public JdbcIdempotencyStore(IdempotencyKeyRepository repository, CategoryIdempotencyProperties properties) {
+        this(repository, properties, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyStore(IdempotencyKeyRepository repository, CategoryIdempotencyProperties properties, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public IdempotentResponse find(String key) {
+        Instant expiredBefore = clock.instant().minus(properties.getTtl());
+        return repository.findById(key)
+                .filter(row -> row.getStatus() != null && !row.getClaimedAt().isBefore(expiredBefore))
+                .map(row -> new IdempotentResponse(row.getFingerprint(), row.getStatus(), row.getContentType(),
+                        row.getBody()))
+                .orElse(null);
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        Instant now = clock.instant();
+        purgeExpired(now);
+        try {
+            repository.insertClaim(key, fingerprint, now);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return repository.takeOver(key, fingerprint, now, now.minus(properties.getWaitTimeout()),
+                    now.minus(properties.getTtl())) == 1;
+        }
+    }
+
+    /**
+     * A response too large for the body column is not kept, its retries are executed again.
+     */
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        if (response.body().length > IdempotencyKey.MAX_BODY_SIZE) {
+            release(key);
+            return;
+        }
+        repository.complete(key, response.fingerprint(), response.status(), response.contentType(), response.body());
+    }
+
+    @Override
+    public void release(String key) {
+        repository.release(key);
+    }
+
+    private void purgeExpired(Instant now) {
+        long nextPurge = nextPurgeMillis.get();
+        if (now.toEpochMilli() < nextPurge
+                || !nextPurgeMillis.compareAndSet(nextPurge, now.plus(properties.getPurgeInterval()).toEpochMilli())) {
+            return;
+        }
+        int purged = repository.deleteExpired(now.minus(properties.getTtl()));
+        if (purged > 0) {
+            log.debug("Deleted {} expired idempotency key(s)", purged);
+        }
+    }
+}
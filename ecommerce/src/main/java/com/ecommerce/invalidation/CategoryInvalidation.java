@@ -0,0 +1,23 @@
+package com.ecommerce.invalidation;
+
+import com.ecommerce.dto.request.CategoryDTO;
+
+import java.time.Instant;
+
+/**
+ * A category change as broadcast between instances.
+ *
+ * @param sequence  position of the change among all the changes of every instance, given by the
+ *                  transport; 0 until the change is published
+ * @param origin    node id of the instance that made the change
+ * @param changedAt when the change was committed
+ * @param before    the category before the change, null when it was created
+ * @param after     the category after the change, with its new version
+ */
+public record CategoryInvalidation(long sequence, String origin, Instant changedAt, CategoryDTO before,
+                                   CategoryDTO after) {
+
+    public CategoryInvalidation withSequence(long sequence) {
+        return new CategoryInvalidation(sequence, origin, changedAt, before, after);
+    }
+}
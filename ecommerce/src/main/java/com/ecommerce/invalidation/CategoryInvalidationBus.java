@@ -0,0 +1,157 @@
+package com.ecommerce.invalidation;
+
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryInvalidationProperties;
+import com.ecommerce.event.CategoryChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the category caches of this instance coherent with the changes made by the others, so
+ * that they can live for as long as category.cache.ttl instead of expiring early to bound
+ * staleness.
+ * <p>
+ * Every change committed here is published on the {@link CategoryInvalidationTransport}. The
+ * changes of the other instances come back, mostly in sequence order, and are applied one at a
+ * time: the names they touch are evicted from the {@link CategoryNameCache} and the change is
+ * republished as a remote {@link CategoryChangedEvent}, which the snapshot and the suggestion index
+ * follow; they ignore a change older than the version they hold. The last
+ * {@value #REMEMBERED_SEQUENCES} sequences applied are remembered and a change with one of them is
+ * skipped, so a redelivery is harmless while a change that comes late is still applied. The time
+ * from the commit on the other instance to the change being applied here is recorded as
+ * category.invalidation.lag.
+ */
+@Component
+@ConditionalOnProperty(prefix = "category.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CategoryInvalidationBus implements MeterBinder {
+
+    static final int REMEMBERED_SEQUENCES = 4096;
+
+    private final CategoryInvalidationTransport transport;
+
+    private final CategoryNameCache categoryNameCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String nodeId;
+
+    private final Clock clock;
+
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    private volatile long lastSequence;
+
+    private final NavigableSet<Long> appliedSequences = new TreeSet<>();
+
+    /**
+     * Sequences at or below this one are no longer remembered and taken as applied.
+     */
+    private long forgottenUpTo;
+
+    private volatile Timer lag;
+
+    @Autowired
+    public CategoryInvalidationBus(CategoryInvalidationTransport transport, CategoryNameCache categoryNameCache,
+                                   ApplicationEventPublisher eventPublisher, CategoryInvalidationProperties properties) {
+        this(transport, categoryNameCache, eventPublisher, properties.getNodeId(), Clock.systemUTC());
+    }
+
+    CategoryInvalidationBus(CategoryInvalidationTransport transport, CategoryNameCache categoryNameCache,
+                            ApplicationEventPublisher eventPublisher, String nodeId, Clock clock) {
+        this.transport = transport;
+        this.categoryNameCache = categoryNameCache;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId;
+        this.clock = clock;
+        transport.subscribe(this::receive);
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        transport.publish(new CategoryInvalidation(0, nodeId, clock.instant(), event.getBefore(), event.getAfter()));
+    }
+
+    synchronized void receive(CategoryInvalidation invalidation) {
+        if (invalidation.sequence() <= forgottenUpTo || !appliedSequences.add(invalidation.sequence())) {
+            count(Outcome.DUPLICATE);
+            return;
+        }
+        if (appliedSequences.size() > REMEMBERED_SEQUENCES) {
+            forgottenUpTo = appliedSequences.pollFirst();
+        }
+        lastSequence = Math.max(lastSequence, invalidation.sequence());
+        if (nodeId.equals(invalidation.origin())) {
+            // applied when it was made
+            count(Outcome.OWN);
+            return;
+        }
+        if (invalidation.before() != null) {
+            categoryNameCache.invalidate(invalidation.before().getCategoryName());
+        }
+        categoryNameCache.invalidate(invalidation.after().getCategoryName());
+        eventPublisher.publishEvent(CategoryChangedEvent.remote(invalidation.before(), invalidation.after()));
+        count(Outcome.APPLIED);
+        Timer convergence = lag;
+        if (convergence != null) {
+            convergence.record(Duration.between(invalidation.changedAt(), clock.instant()));
+        }
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("category.invalidation.received")
+                    .description("Category changes received from the transport, by what was done with them")
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+        }
+        lag = Timer.builder("category.invalidation.lag")
+                .description("Time from a change committed by another instance to its caches being invalidated here")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        Gauge.builder("category.invalidation.sequence", this, CategoryInvalidationBus::lastSequence)
+                .description("Highest sequence of the category changes received")
+                .register(registry);
+    }
+
+    private void count(Outcome outcome) {
+        Counter counter = outcomes.get(outcome);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    enum Outcome {
+        APPLIED("applied"),
+        OWN("own"),
+        DUPLICATE("duplicate");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+}
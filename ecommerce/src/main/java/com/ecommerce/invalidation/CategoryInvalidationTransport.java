@@ -0,0 +1,25 @@
+package com.ecommerce.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries the category changes between the instances. Built in are the jdbc transport, which goes
+ * through a table every instance polls, and the loopback transport, which links the buses of one
+ * JVM; other transports, such as a message broker, are beans implementing this interface with
+ * category.invalidation.transport set to their name.
+ */
+public interface CategoryInvalidationTransport {
+
+    /**
+     * Sends a change of this instance to every instance, this one included. May return before the
+     * change is sent.
+     */
+    void publish(CategoryInvalidation invalidation);
+
+    /**
+     * Delivers the changes published from now on, by every instance, with their sequence set and
+     * mostly in sequence order: a change may come after changes with a higher sequence, and may be
+     * delivered more than once.
+     */
+    void subscribe(Consumer<CategoryInvalidation> receiver);
+}
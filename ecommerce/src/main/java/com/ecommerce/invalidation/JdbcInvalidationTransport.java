@@ -0,0 +1,298 @@
+package com.ecommerce.invalidation;
+
+import com.ecommerce.config.CategoryInvalidationProperties;
+import com.ecommerce.model.CategoryChange;
+import com.ecommerce.repository.CategoryChangeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Carries the category changes through the category_change table, which every instance polls.
+ * <p>
+ * Publishing only queues the change: every category.invalidation.poll-interval, one thread inserts
+ * the queued changes in a batch, so that a bulk import does not pay an extra statement per row,
+ * then reads the changes inserted since its last read. The auto-increment id is the sequence.
+ * <p>
+ * Ids are given out before the inserts commit, and rolled back inserts or auto-increment jumps
+ * leave ids that never show up, so the ids read are not contiguous. Every change is delivered as
+ * soon as it is read; a missing id is read again on every poll until it shows up, and delivered
+ * late, or until the changes after it have been visible for category.invalidation.gap-timeout,
+ * after which it is taken for a rolled back insert. A change whose payload cannot be read is
+ * logged, counted in category.invalidation.unreadable and passed over as if delivered, so that it
+ * does not hold back the changes after it. Changes older than category.invalidation.retention are
+ * deleted.
+ * <p>
+ * Changes still queued when an instance dies are lost; the other instances then see them when
+ * category.cache.ttl expires the cached categories, or the snapshot is reconciled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "category.invalidation", name = "transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationTransport implements CategoryInvalidationTransport, SmartLifecycle, MeterBinder {
+
+    private static final String INSERT = "insert into category_change (origin, changed_at, payload) values (?, ?, ?)";
+
+    private final CategoryChangeRepository repository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final CategoryInvalidationProperties properties;
+
+    private final Clock clock;
+
+    private final Queue<CategoryInvalidation> outgoing = new ConcurrentLinkedQueue<>();
+
+    private final List<Consumer<CategoryInvalidation>> receivers = new ArrayList<>();
+
+    /**
+     * Every change up to this id has been delivered or given up.
+     */
+    private volatile long lastId;
+
+    /**
+     * Changes after {@link #lastId} delivered ahead of a missing one, with when they were read.
+     */
+    private final NavigableMap<Long, Instant> deliveredAhead = new TreeMap<>();
+
+    private final AtomicLong unreadable = new AtomicLong();
+
+    private Instant nextPurge = Instant.MIN;
+
+    private volatile ScheduledExecutorService poller;
+
+    @Autowired
+    public JdbcInvalidationTransport(CategoryChangeRepository repository, JdbcTemplate jdbcTemplate,
+                                     ObjectMapper objectMapper, CategoryInvalidationProperties properties) {
+        this(repository, jdbcTemplate, objectMapper, properties, Clock.systemUTC());
+    }
+
+    JdbcInvalidationTransport(CategoryChangeRepository repository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              CategoryInvalidationProperties properties, Clock clock) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public void publish(CategoryInvalidation invalidation) {
+        outgoing.add(invalidation);
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<CategoryInvalidation> receiver) {
+        receivers.add(receiver);
+    }
+
+    /**
+     * Starts from the last change in the table: the caches of an instance that just started hold
+     * nothing older.
+     */
+    @Override
+    public void start() {
+        lastId = repository.findLastId();
+        long intervalMillis = properties.getPollInterval().toMillis();
+        poller = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("category-invalidation-"));
+        poller.scheduleWithFixedDelay(this::exchange, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService stopping = poller;
+        poller = null;
+        stopping.shutdown();
+        try {
+            stopping.awaitTermination(properties.getPollInterval().toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not write the last {} category change(s) to the change table", outgoing.size(), e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+
+    /**
+     * Starts before and stops after the web server, so that the changes made by the last requests
+     * are still written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("category.invalidation.outgoing", outgoing, Queue::size)
+                .description("Category changes of this instance not written to the change table yet")
+                .register(registry);
+        FunctionCounter.builder("category.invalidation.unreadable", unreadable, AtomicLong::get)
+                .description("Category changes read from the change table whose payload could not be read")
+                .register(registry);
+    }
+
+    /**
+     * Changes passed over because their payload could not be read.
+     */
+    long unreadable() {
+        return unreadable.get();
+    }
+
+    private void exchange() {
+        try {
+            flush();
+            poll();
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Could not exchange category changes with the change table, retrying in {}", properties.getPollInterval(), e);
+        }
+    }
+
+    /**
+     * Inserts the queued changes. A batch that fails goes back to the queue.
+     */
+    synchronized void flush() {
+        List<CategoryInvalidation> batch = new ArrayList<>(properties.getBatchSize());
+        CategoryInvalidation next;
+        while ((next = outgoing.poll()) != null) {
+            batch.add(next);
+            if (batch.size() == properties.getBatchSize() || outgoing.isEmpty()) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<CategoryInvalidation> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (CategoryInvalidation invalidation : batch) {
+            rows.add(new Object[]{invalidation.origin(), Timestamp.from(invalidation.changedAt()), serialize(invalidation)});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        } catch (RuntimeException e) {
+            outgoing.addAll(batch);
+            throw e;
+        }
+    }
+
+    /**
+     * Delivers the changes inserted since the last poll, and the ones that were missing from the
+     * last polls and have shown up since, in id order.
+     */
+    synchronized void poll() {
+        Instant now = clock.instant();
+        long afterId = lastId;
+        List<CategoryChange> changes;
+        do {
+            changes = repository.findAfter(afterId, PageRequest.of(0, properties.getBatchSize()));
+            for (CategoryChange change : changes) {
+                afterId = change.getId();
+                // the changes delivered ahead are read again behind a missing one that just showed up
+                if (change.getId() <= lastId || deliveredAhead.containsKey(change.getId())) {
+                    continue;
+                }
+                CategoryInvalidation invalidation = deserialize(change);
+                if (invalidation != null) {
+                    receivers.forEach(receiver -> receiver.accept(invalidation));
+                }
+                deliveredAhead.put(change.getId(), now);
+                advanceOverDelivered();
+            }
+        } while (changes.size() == properties.getBatchSize());
+        skipExpiredGaps(now);
+    }
+
+    private void advanceOverDelivered() {
+        while (deliveredAhead.remove(lastId + 1) != null) {
+            lastId++;
+        }
+    }
+
+    /**
+     * Gives up on the ids missing before a change that has been read for longer than the gap timeout.
+     */
+    private void skipExpiredGaps(Instant now) {
+        Long expired = null;
+        for (Map.Entry<Long, Instant> delivered : deliveredAhead.entrySet()) {
+            if (!now.isBefore(delivered.getValue().plus(properties.getGapTimeout()))) {
+                expired = delivered.getKey();
+            }
+        }
+        if (expired == null) {
+            return;
+        }
+        log.warn("Category changes missing between {} and {} never showed up in the change table, skipping them",
+                lastId, expired);
+        deliveredAhead.headMap(expired, true).clear();
+        lastId = expired;
+        advanceOverDelivered();
+    }
+
+    private void purge() {
+        Instant now = clock.instant();
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(properties.getRetention().dividedBy(10));
+        repository.deleteChangedBefore(now.minus(properties.getRetention()));
+    }
+
+    private String serialize(CategoryInvalidation invalidation) {
+        try {
+            return objectMapper.writeValueAsString(invalidation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return null when the payload cannot be read: reading it again would fail the same way
+     */
+    private CategoryInvalidation deserialize(CategoryChange change) {
+        try {
+            return objectMapper.readValue(change.getPayload(), CategoryInvalidation.class).withSequence(change.getId());
+        } catch (JsonProcessingException e) {
+            unreadable.incrementAndGet();
+            log.error("Could not read category change {}, passing over it", change.getId(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers every change at once, in the publishing thread, to the buses subscribed to this
+ * instance of the transport. Several buses sharing one loopback stand for several instances of the
+ * application in a test; a single bus only gets its own changes back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "category.invalidation", name = "transport", havingValue = "loopback")
+public class LoopbackInvalidationTransport implements CategoryInvalidationTransport {
+
+    private final List<Consumer<CategoryInvalidation>> receivers = new CopyOnWriteArrayList<>();
+
+    private long sequence;
+
+    @Override
+    public synchronized void publish(CategoryInvalidation invalidation) {
+        CategoryInvalidation sequenced = invalidation.withSequence(++sequence);
+        receivers.forEach(receiver -> receiver.accept(sequenced));
+    }
+
+    @Override
+    public void subscribe(Consumer<CategoryInvalidation> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.json;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * Writes categories and pages of categories as the JSON of {@code CategoryDTO} and
+ * {@code CategoryPageDTO}, straight from the column values as JDBC returns them, with every field
+ * name and delimiter encoded once. Fields come in the order Jackson writes them, nulls included.
+ */
+public final class CategoryJsonWriter {
+
+    private static final byte[] ID = ascii("{\"id\":");
+
+    private static final byte[] CATEGORY_NAME = ascii(",\"categoryName\":");
+
+    private static final byte[] CATEGORY_DESCRIPTION = ascii(",\"categoryDescription\":");
+
+    private static final byte[] IMAGE_URL = ascii(",\"imageUrl\":");
+
+    private static final byte[] PARENT_ID = ascii(",\"parentId\":");
+
+    private static final byte[] VERSION = ascii(",\"version\":");
+
+    private static final byte[] UPDATED_AT = ascii(",\"updatedAt\":");
+
+    private static final byte[] PAGE_START = ascii("{\"content\":[");
+
+    private static final byte[] PAGE_NEXT_CURSOR = ascii("],\"nextCursor\":");
+
+    private CategoryJsonWriter() {
+    }
+
+    public static void writeCategory(JsonOutput output, long id, String categoryName, String categoryDescription,
+                                     String imageUrl, Long parentId, Long version, Timestamp updatedAt) {
+        output.writeRaw(ID);
+        output.writeLong(id);
+        output.writeRaw(CATEGORY_NAME);
+        output.writeString(categoryName);
+        output.writeRaw(CATEGORY_DESCRIPTION);
+        output.writeString(categoryDescription);
+        output.writeRaw(IMAGE_URL);
+        output.writeString(imageUrl);
+        output.writeRaw(PARENT_ID);
+        output.writeLong(parentId);
+        output.writeRaw(VERSION);
+        output.writeLong(version);
+        output.writeRaw(UPDATED_AT);
+        if (updatedAt == null) {
+            output.writeNull();
+        } else {
+            output.writeInstant(Math.floorDiv(updatedAt.getTime(), 1000), updatedAt.getNanos());
+        }
+        output.writeRaw((byte) '}');
+    }
+
+    public static void startPage(JsonOutput output) {
+        output.writeRaw(PAGE_START);
+    }
+
+    /**
+     * Goes before every category of a page but the first.
+     */
+    public static void separate(JsonOutput output) {
+        output.writeRaw((byte) ',');
+    }
+
+    /**
+     * @param nextCursor null on the last page
+     */
+    public static void endPage(JsonOutput output, String nextCursor) {
+        output.writeRaw(PAGE_NEXT_CURSOR);
+        output.writeString(nextCursor);
+        output.writeRaw((byte) '}');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
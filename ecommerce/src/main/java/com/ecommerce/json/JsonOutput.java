@@ -0,0 +1,242 @@
+package com.ecommerce.json;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Growable buffer that JSON is written into token by token, with the escaping and the number and
+ * date formats of the Jackson configuration of the HTTP responses, so that its output is byte for
+ * byte what Jackson writes. Strings are encoded to UTF-8 in place and numbers and instants are
+ * written digit by digit: writing allocates nothing once the buffer is large enough.
+ * <p>
+ * Not thread safe. Buffers are meant to be reused through a {@link JsonOutputPool}.
+ */
+public final class JsonOutput {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Days from 0000-03-01 to 1970-01-01, the epoch of {@link #writeInstant(long, int)}'s calendar math.
+     */
+    private static final long DAYS_0000_TO_1970 = 719_468;
+
+    private static final long MAX_FOUR_DIGIT_YEAR_SECOND = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+
+    private byte[] bytes;
+
+    private int size;
+
+    public JsonOutput(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return bytes.length;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    public void writeRaw(byte[] raw) {
+        ensure(raw.length);
+        System.arraycopy(raw, 0, bytes, size, raw.length);
+        size += raw.length;
+    }
+
+    public void writeRaw(byte b) {
+        ensure(1);
+        bytes[size++] = b;
+    }
+
+    public void writeNull() {
+        writeRaw(NULL);
+    }
+
+    /**
+     * A JSON string, quoted and escaped, or null.
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        int length = value.length();
+        // 6 bytes per char is the worst case, an escaped control character
+        ensure(length * 6 + 2);
+        byte[] out = bytes;
+        int position = size;
+        out[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    out[position++] = (byte) c;
+                } else {
+                    position = escape(c, out, position);
+                }
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // a lone surrogate has no UTF-8 encoding
+                out[position++] = '?';
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        out[position++] = '"';
+        size = position;
+    }
+
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(MIN_LONG);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int digits = digits(value);
+        int position = size + digits;
+        do {
+            bytes[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        size += digits;
+    }
+
+    public void writeLong(Long value) {
+        if (value == null) {
+            writeNull();
+        } else {
+            writeLong(value.longValue());
+        }
+    }
+
+    /**
+     * An instant as a quoted ISO-8601 string in UTC, as {@link java.time.format.DateTimeFormatter#ISO_INSTANT}
+     * formats it: the fraction of second has 0, 3, 6 or 9 digits.
+     */
+    public void writeInstant(long epochSecond, int nanos) {
+        if (epochSecond < 0 || epochSecond > MAX_FOUR_DIGIT_YEAR_SECOND) {
+            writeRaw((byte) '"');
+            writeRaw(Instant.ofEpochSecond(epochSecond, nanos).toString().getBytes(StandardCharsets.US_ASCII));
+            writeRaw((byte) '"');
+            return;
+        }
+        long days = epochSecond / SECONDS_PER_DAY;
+        int secondOfDay = (int) (epochSecond % SECONDS_PER_DAY);
+        // civil date from days, counted from a 0000-03-01 epoch so that leap days end the year
+        long shifted = days + DAYS_0000_TO_1970;
+        long era = shifted / 146_097;
+        long dayOfEra = shifted - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        ensure(32);
+        bytes[size++] = '"';
+        writeDigits(year, 4);
+        bytes[size++] = '-';
+        writeDigits(month, 2);
+        bytes[size++] = '-';
+        writeDigits(day, 2);
+        bytes[size++] = 'T';
+        writeDigits(secondOfDay / 3600, 2);
+        bytes[size++] = ':';
+        writeDigits(secondOfDay / 60 % 60, 2);
+        bytes[size++] = ':';
+        writeDigits(secondOfDay % 60, 2);
+        if (nanos > 0) {
+            bytes[size++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(nanos / 1_000_000, 3);
+            } else if (nanos % 1000 == 0) {
+                writeDigits(nanos / 1000, 6);
+            } else {
+                writeDigits(nanos, 9);
+            }
+        }
+        bytes[size++] = 'Z';
+        bytes[size++] = '"';
+    }
+
+    public void writeInstant(Instant value) {
+        if (value == null) {
+            writeNull();
+        } else {
+            writeInstant(value.getEpochSecond(), value.getNano());
+        }
+    }
+
+    private void writeDigits(int value, int width) {
+        for (int position = size + width - 1; position >= size; position--) {
+            bytes[position] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += width;
+    }
+
+    private static int escape(char c, byte[] out, int position) {
+        out[position++] = '\\';
+        switch (c) {
+            case '"', '\\' -> out[position++] = (byte) c;
+            case '\b' -> out[position++] = 'b';
+            case '\t' -> out[position++] = 't';
+            case '\n' -> out[position++] = 'n';
+            case '\f' -> out[position++] = 'f';
+            case '\r' -> out[position++] = 'r';
+            default -> {
+                out[position++] = 'u';
+                out[position++] = '0';
+                out[position++] = '0';
+                out[position++] = HEX[c >> 4];
+                out[position++] = HEX[c & 0xF];
+            }
+        }
+        return position;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private void ensure(int additional) {
+        if (size + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.json;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reuses {@link JsonOutput} buffers between requests, so that a response is written into a buffer
+ * that already has the room for it. Bounded on both sides: at most {@link #MAX_POOLED} buffers are
+ * kept, and a buffer that grew past {@link #MAX_RETAINED_CAPACITY} for an unusually large response
+ * is left to the garbage collector rather than pinned. A buffer that is never released is simply
+ * not reused.
+ */
+@Component
+public class JsonOutputPool {
+
+    static final int INITIAL_CAPACITY = 16 * 1024;
+
+    static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    static final int MAX_POOLED = 64;
+
+    private final BlockingQueue<JsonOutput> pooled = new ArrayBlockingQueue<>(MAX_POOLED);
+
+    public JsonOutput acquire() {
+        JsonOutput output = pooled.poll();
+        return output != null ? output : new JsonOutput(INITIAL_CAPACITY);
+    }
+
+    public void release(JsonOutput output) {
+        if (output.capacity() <= MAX_RETAINED_CAPACITY) {
+            output.reset();
+            pooled.offer(output);
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.ecommerce.mapper;
 
 import com.ecommerce.dto.request.CategoryDTO;
 import com.ecommerce.model.Category;
+import com.ecommerce.reactive.CategoryRecord;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -10,7 +12,23 @@ public interface CategoryMapper {
 
     CategoryMapper INSTANCE = Mappers.getMapper(CategoryMapper.class);
 
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "depth", ignore = true)
     Category toModel(CategoryDTO categoryDTO);
 
+    /**
+     * A top-level category: placing it under a parent takes the parent's path, see CategoryService
+     * and CategoryImportService.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "parentId", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "depth", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Category toNewModel(CategoryDTO categoryDTO);
+
     CategoryDTO toDTO(Category category);
+
+    CategoryDTO toDTO(CategoryRecord categoryRecord);
 }
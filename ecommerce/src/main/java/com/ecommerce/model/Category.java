@@ -2,24 +2,57 @@ package com.ecommerce.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
+import java.time.Instant;
 
 @Entity
 @Data
-@Table(name = "category")
+@Table(name = "category", uniqueConstraints = {
+        @UniqueConstraint(name = Category.UNIQUE_CATEGORY_NAME, columnNames = "category_name"),
+        @UniqueConstraint(name = "uk_category_image_url", columnNames = "image_url")
+}, indexes = {
+        @Index(name = "idx_category_path", columnList = "path"),
+        @Index(name = "idx_category_parent_id", columnList = "parent_id"),
+        @Index(name = "idx_category_version", columnList = "id, version, updated_at")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
+@NaturalIdCache(region = Category.NATURAL_ID_CACHE_REGION)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Category {
 
+    public static final String CACHE_REGION = "category";
+
+    public static final String NATURAL_ID_CACHE_REGION = "category-natural-id";
+
+    public static final String QUERY_CACHE_REGION = "category-queries";
+
+    public static final String UNIQUE_CATEGORY_NAME = "uk_category_name";
+
+    public static final String ROOT_PATH = "/";
+
+    public static final int PATH_LENGTH = 512;
+
     @Id
     @Setter(AccessLevel.NONE)
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Products category Id.")
     private Long id;
 
-    @Column(name = "category_name", unique = true, nullable = false)
+    /**
+     * Natural id, so that a lookup by name is resolved from the second-level cache. Mutable: a
+     * category can be renamed. Unique and compared regardless of case, see the migrations.
+     */
+    @NaturalId(mutable = true)
+    @Column(name = "category_name", nullable = false)
     @Schema(description = "Products category name.")
     private  String categoryName;
 
@@ -27,10 +60,54 @@ public class Category {
     @Schema(description = "Product category description.")
     private String categoryDescription;
 
-    @Column(name = "image_url", unique = true, nullable = false)
+    @Column(name = "image_url", nullable = false)
     @Schema(description = "Product category url's image.")
     private String imageUrl;
 
+    @Column(name = "parent_id")
+    @Schema(description = "Id of the parent category, null for a top-level category.")
+    private Long parentId;
+
+    /**
+     * Materialized path: the ids of the ancestors, root first, as in /1/5/. A top-level category
+     * has the path /. The descendants of a category are the rows whose path starts with its path
+     * followed by its own id, a range scan on idx_category_path.
+     */
+    @Builder.Default
+    @ColumnDefault("'" + ROOT_PATH + "'")
+    @Column(name = "path", nullable = false, length = PATH_LENGTH)
+    @Schema(description = "Ids of the ancestors of the category, root first.")
+    private String path = ROOT_PATH;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "depth", nullable = false)
+    @Schema(description = "Number of ancestors of the category.")
+    private int depth = 0;
+
+    @Version
+    @Schema(description = "Version of the category, incremented on every update.")
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @Schema(description = "Last time the category was created or updated.")
+    private Instant updatedAt;
+
+    /**
+     * Makes this category a child of {@code parent}, or a top-level category when it is null.
+     */
+    public void placeUnder(Category parent) {
+        parentId = parent == null ? null : parent.getId();
+        path = parent == null ? ROOT_PATH : parent.subtreePath();
+        depth = parent == null ? 0 : parent.getDepth() + 1;
+    }
 
+    /**
+     * Prefix of the paths of every descendant.
+     */
+    public String subtreePath() {
+        return path + id + "/";
+    }
 
 }
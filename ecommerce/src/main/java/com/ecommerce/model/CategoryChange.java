@@ -0,0 +1,37 @@
+package com.ecommerce.model;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A category change in the table of the jdbc invalidation transport. The id orders the changes of
+ * every instance; the payload is the change itself, as JSON.
+ */
+@Entity
+@Data
+@Table(name = "category_change", indexes = {
+        @Index(name = "idx_category_change_changed_at", columnList = "changed_at")
+})
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryChange {
+
+    public static final int PAYLOAD_LENGTH = 8192;
+
+    @Id
+    @Setter(AccessLevel.NONE)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "origin", nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Column(name = "payload", nullable = false, length = PAYLOAD_LENGTH)
+    private String payload;
+}
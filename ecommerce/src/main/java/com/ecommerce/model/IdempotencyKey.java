@@ -0,0 +1,45 @@
+package com.ecommerce.model;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A key of the database idempotency store. The row is inserted when a request claims the key and
+ * gets the response when the request completes: a row without status is a request still executing.
+ */
+@Entity
+@Data
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_claimed_at", columnList = "claimed_at")
+})
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyKey {
+
+    public static final int KEY_LENGTH = 255;
+
+    public static final int MAX_BODY_SIZE = 1024 * 1024;
+
+    @Id
+    @Column(name = "idempotency_key", length = KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "claimed_at", nullable = false)
+    private Instant claimedAt;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    @Column(name = "body", length = MAX_BODY_SIZE)
+    private byte[] body;
+}
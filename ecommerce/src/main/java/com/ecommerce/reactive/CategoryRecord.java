@@ -0,0 +1,14 @@
+package com.ecommerce.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC view of the {@code category} table owned by the JPA {@code Category} entity.
+ */
+@Table("category")
+public record CategoryRecord(@Id Long id, String categoryName, String categoryDescription, String imageUrl,
+                             Long parentId, Long version, Instant updatedAt) {
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.config.CategoryListingProperties;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * Read-only category API on WebFlux and R2DBC, started next to the servlet application with
+ * the {@code reactive} profile (see application-reactive.properties). It serves the same
+ * {@code CategoryDTO} payloads from a handful of event-loop threads.
+ *
+ * <p>Only active in a reactive web application, so the servlet application ignores it when it
+ * scans {@code com.ecommerce}.
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(CategoryListingProperties.class)
+public class ReactiveCategoryApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveCategoryApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.profiles("reactive")
+				.run(args);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/category")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveCategoryController {
+
+    private final ReactiveCategoryService categoryService;
+
+    @Operation(summary = "List categories page by page, ordered by id.")
+    @GetMapping()
+    public Mono<CategoryPageDTO> listCategories(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return categoryService.listPage(cursor, limit);
+    }
+
+    @Operation(summary = "List all categories at once. Only available when category.listing.unbounded-enabled is set.")
+    @GetMapping(params = "unbounded=true")
+    public Flux<CategoryDTO> listAllCategories() {
+        return categoryService.listAll();
+    }
+
+    @Operation(summary = "Stream all categories as server-sent events. Send Last-Event-ID to resume after a category id.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CategoryDTO>> streamCategories(
+            @RequestHeader(value = "Last-Event-ID", defaultValue = "0") long lastEventId) {
+        return categoryService.streamAfter(lastEventId)
+                .map(category -> ServerSentEvent.builder(category)
+                        .id(String.valueOf(category.getId()))
+                        .event("category")
+                        .build());
+    }
+
+    @Operation(summary = "Get category by name.")
+    @GetMapping("/{name}")
+    public Mono<CategoryDTO> listCategoryByName(@PathVariable String name) {
+        return categoryService.listCategoryByName(name);
+    }
+}
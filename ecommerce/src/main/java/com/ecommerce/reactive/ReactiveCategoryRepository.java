@@ -0,0 +1,23 @@
+package com.ecommerce.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCategoryRepository extends ReactiveCrudRepository<CategoryRecord, Long> {
+
+    Mono<CategoryRecord> findByCategoryName(String categoryName);
+
+    @Query("SELECT id, category_name, category_description, image_url, parent_id, version, updated_at FROM category "
+            + "WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<CategoryRecord> findPageAfter(long afterId, int limit);
+
+    /**
+     * Rows are emitted as the subscriber requests them, so a slow client holds back the cursor
+     * instead of buffering the table.
+     */
+    @Query("SELECT id, category_name, category_description, image_url, parent_id, version, updated_at FROM category "
+            + "WHERE id > :sinceId ORDER BY id")
+    Flux<CategoryRecord> streamAfter(long sinceId);
+}
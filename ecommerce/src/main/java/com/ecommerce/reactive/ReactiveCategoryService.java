@@ -0,0 +1,63 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.config.CategoryListingProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.exception.InvalidCursorException;
+import com.ecommerce.exception.UnboundedListingDisabledException;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.service.CategoryCursor;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveCategoryService {
+
+    static final int STREAM_PREFETCH = 256;
+
+    private final ReactiveCategoryRepository categoryRepository;
+
+    private final CategoryListingProperties listingProperties;
+
+    private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    public Mono<CategoryPageDTO> listPage(String cursor, Integer limit) {
+        long afterId;
+        try {
+            afterId = CategoryCursor.decode(cursor);
+        } catch (InvalidCursorException e) {
+            return Mono.error(e);
+        }
+        int pageSize = listingProperties.resolveLimit(limit);
+        return categoryRepository.findPageAfter(afterId, pageSize + 1)
+                .map(categoryMapper::toDTO)
+                .collectList()
+                .map(rows -> CategoryCursor.toPage(rows, pageSize));
+    }
+
+    public Flux<CategoryDTO> listAll() {
+        if (!listingProperties.isUnboundedEnabled()) {
+            return Flux.error(new UnboundedListingDisabledException());
+        }
+        return streamAfter(0L);
+    }
+
+    public Flux<CategoryDTO> streamAfter(long sinceId) {
+        return categoryRepository.streamAfter(sinceId)
+                .limitRate(STREAM_PREFETCH)
+                .map(categoryMapper::toDTO);
+    }
+
+    public Mono<CategoryDTO> listCategoryByName(String name) {
+        return categoryRepository.findByCategoryName(name)
+                .map(categoryMapper::toDTO)
+                .switchIfEmpty(Mono.error(() -> new CategoryNotFoundException(name)));
+    }
+}
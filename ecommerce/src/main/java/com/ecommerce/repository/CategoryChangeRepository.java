@@ -0,0 +1,30 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.CategoryChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Every method runs in a read-write transaction, on the primary: a replica would hold back the
+ * changes it has not replicated yet, and the jdbc transport would take them for missing.
+ */
+@Transactional
+public interface CategoryChangeRepository extends JpaRepository<CategoryChange, Long> {
+
+    @Query("select c from CategoryChange c where c.id > :afterId order by c.id asc")
+    List<CategoryChange> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select coalesce(max(c.id), 0) from CategoryChange c")
+    long findLastId();
+
+    @Modifying
+    @Query("delete from CategoryChange c where c.changedAt < :changedBefore")
+    int deleteChangedBefore(@Param("changedBefore") Instant changedBefore);
+}
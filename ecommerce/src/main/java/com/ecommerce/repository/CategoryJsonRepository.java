@@ -0,0 +1,113 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.json.CategoryJsonWriter;
+import com.ecommerce.json.JsonOutput;
+import com.ecommerce.json.JsonOutputPool;
+import com.ecommerce.service.CategoryCursor;
+import com.ecommerce.service.CategoryValidator;
+import com.ecommerce.snapshot.CategoryJson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Reads pages of categories as the JSON of {@code CategoryPageDTO}, written from the result set
+ * into a pooled buffer: no entity, DTO or Jackson tree is built on the way.
+ * <p>
+ * updated_at is read in UTC, as Hibernate writes and reads it, so that the instants are the ones
+ * {@link CategoryRepository#findPageAfter} returns.
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryJsonRepository {
+
+    private static final String PAGE_AFTER = "select id, category_name, category_description, image_url, parent_id, version, updated_at " +
+            "from category where id > ? order by id asc limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JsonOutputPool outputPool;
+
+    /**
+     * The page of up to {@code pageSize} categories after {@code afterId}, with its validator.
+     */
+    public CategoryJson findPageJsonAfter(long afterId, int pageSize) {
+        JsonOutput output = outputPool.acquire();
+        try {
+            PageWriter page = new PageWriter(output, pageSize);
+            CategoryJsonWriter.startPage(output);
+            jdbcTemplate.query(PAGE_AFTER, page, afterId, pageSize + 1);
+            CategoryJsonWriter.endPage(output, page.hasNext ? CategoryCursor.encode(page.lastId) : null);
+            Timestamp lastModified = page.lastModified;
+            return new CategoryJson(output.toByteArray(),
+                    page.validator.build(page.hasNext, lastModified == null ? null : lastModified.toInstant()));
+        } finally {
+            outputPool.release(output);
+        }
+    }
+
+    /**
+     * Writes the rows of a page as they are read. The extra row asked for only tells that there is
+     * a next page.
+     */
+    private static final class PageWriter implements RowCallbackHandler {
+
+        private final JsonOutput output;
+
+        private final int pageSize;
+
+        private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        private final CategoryValidator.PageBuilder validator = CategoryValidator.pageBuilder();
+
+        private int written;
+
+        private long lastId;
+
+        private Timestamp lastModified;
+
+        private boolean hasNext;
+
+        private PageWriter(JsonOutput output, int pageSize) {
+            this.output = output;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (written == pageSize) {
+                hasNext = true;
+                return;
+            }
+            long id = rs.getLong(1);
+            String categoryName = rs.getString(2);
+            String categoryDescription = rs.getString(3);
+            String imageUrl = rs.getString(4);
+            long parentId = rs.getLong(5);
+            boolean hasParent = !rs.wasNull();
+            long version = rs.getLong(6);
+            boolean hasVersion = !rs.wasNull();
+            Timestamp updatedAt = rs.getTimestamp(7, utc);
+            if (written > 0) {
+                CategoryJsonWriter.separate(output);
+            }
+            CategoryJsonWriter.writeCategory(output, id, categoryName, categoryDescription, imageUrl,
+                    hasParent ? parentId : null, hasVersion ? version : null, updatedAt);
+            validator.add(id, version);
+            if (updatedAt != null && (lastModified == null || updatedAt.after(lastModified))) {
+                lastModified = updatedAt;
+            }
+            lastId = id;
+            written++;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Category;
+
+import java.util.Optional;
+
+/**
+ * Lookups of categories by their natural id, the name.
+ */
+public interface CategoryNaturalIdRepository {
+
+    /**
+     * Resolved from the second-level cache when the name and the category are cached, without
+     * reaching the database.
+     */
+    Optional<Category> findByCategoryName(String name);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class CategoryNaturalIdRepositoryImpl implements CategoryNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Category> findByCategoryName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Category.class)
+                .loadOptional(name);
+    }
+}
@@ -1,11 +1,166 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryVersionDTO;
 import com.ecommerce.model.Category;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Query methods run in read-only transactions, which the replica routing sends to a replica when
+ * replicas are configured. Methods that write, or must see the latest committed row, override it.
+ * <p>
+ * The page queries are cached in the {@link Category#QUERY_CACHE_REGION}. Hibernate drops their
+ * cached results whenever a transaction that changed a category commits. The queries over the
+ * whole table are not cached: one result would hold every id of the table, and is dropped by the
+ * next change anyway.
+ */
+@Transactional(readOnly = true)
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryNaturalIdRepository {
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-    Optional<Category> findByCategoryName(String name);
+    String EXPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Same as {@link #findByCategoryName(String)} but in a read-write transaction and bypassing the
+     * caches, so that it is answered by the primary and not by a replica that may lag behind. The
+     * row is locked ({@code select ... for update}) until the transaction ends: called in the
+     * transaction of an update, nothing else changes it between this read and the update.
+     */
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Category c where c.categoryName = :name")
+    Optional<Category> findForUpdateByCategoryName(@Param("name") String name);
+
+    /**
+     * Read from the primary, like {@link #findForUpdateByCategoryName(String)}, without the lock.
+     */
+    @Transactional
+    @Query("select c from Category c where c.id = :id")
+    Optional<Category> findCurrentById(@Param("id") Long id);
+
+    /**
+     * Like {@link #findCurrentById(Long)}, for the parents of a batch of imported categories.
+     */
+    @Transactional
+    @Query("select c from Category c where c.id in :ids")
+    List<Category> findCurrentByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.ecommerce.dto.response.CategoryVersionDTO(c.id, c.version, c.updatedAt) " +
+            "from Category c where c.categoryName = :name")
+    Optional<CategoryVersionDTO> findVersionByCategoryName(@Param("name") String name);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Category.QUERY_CACHE_REGION)
+    })
+    @Query("select new com.ecommerce.dto.response.CategoryVersionDTO(c.id, c.version, c.updatedAt) " +
+            "from Category c where c.id > :afterId order by c.id asc")
+    List<CategoryVersionDTO> findPageVersionsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select new com.ecommerce.dto.response.CategoryVersionDTO(c.id, c.version, c.updatedAt) " +
+            "from Category c order by c.id asc")
+    List<CategoryVersionDTO> findAllVersions();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Category.QUERY_CACHE_REGION)
+    })
+    @Query("select new com.ecommerce.dto.request.CategoryDTO(c.id, c.categoryName, c.categoryDescription, c.imageUrl, " +
+            "c.parentId, c.version, c.updatedAt) " +
+            "from Category c where c.id > :afterId order by c.id asc")
+    List<CategoryDTO> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select new com.ecommerce.dto.request.CategoryDTO(c.id, c.categoryName, c.categoryDescription, c.imageUrl, " +
+            "c.parentId, c.version, c.updatedAt) " +
+            "from Category c order by c.id asc")
+    List<CategoryDTO> findAllProjected();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new com.ecommerce.dto.request.CategoryDTO(c.id, c.categoryName, c.categoryDescription, c.imageUrl, " +
+            "c.parentId, c.version, c.updatedAt) " +
+            "from Category c where c.id > :sinceId order by c.id asc")
+    Stream<CategoryDTO> streamAfter(@Param("sinceId") long sinceId);
+
+    /**
+     * Descendants of a category down to {@code maxDepth}, parents before their children: the
+     * ordering by path puts a path before every path it prefixes.
+     *
+     * @param subtreePath the {@link Category#subtreePath()} of the category
+     */
+    @Query("select new com.ecommerce.dto.request.CategoryDTO(c.id, c.categoryName, c.categoryDescription, c.imageUrl, " +
+            "c.parentId, c.version, c.updatedAt) " +
+            "from Category c where c.path like concat(:subtreePath, '%') and c.depth <= :maxDepth " +
+            "order by c.path asc, c.id asc")
+    List<CategoryDTO> findDescendants(@Param("subtreePath") String subtreePath, @Param("maxDepth") int maxDepth);
+
+    @Query("select max(length(c.path)) from Category c where c.path like concat(:subtreePath, '%')")
+    Optional<Integer> findLongestDescendantPath(@Param("subtreePath") String subtreePath);
+
+    @Query("select new com.ecommerce.dto.request.CategoryDTO(c.id, c.categoryName, c.categoryDescription, c.imageUrl, " +
+            "c.parentId, c.version, c.updatedAt) " +
+            "from Category c where c.id in :ids")
+    List<CategoryDTO> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Categories whose name is one of {@code names}, compared as the unique name index compares
+     * them, ignoring case.
+     */
+    @Query("select new com.ecommerce.dto.request.CategoryDTO(c.id, c.categoryName, c.categoryDescription, c.imageUrl, " +
+            "c.parentId, c.version, c.updatedAt) " +
+            "from Category c where c.categoryName in :names")
+    List<CategoryDTO> findProjectedByCategoryNameIn(@Param("names") Collection<String> names);
+
+    @Query("select c.categoryName from Category c where c.categoryName in :names")
+    List<String> findExistingCategoryNames(@Param("names") Collection<String> names);
+
+    @Transactional
+    @Modifying
+    @Query("update Category c set c.categoryName = :categoryName, c.categoryDescription = :categoryDescription, " +
+            "c.imageUrl = :imageUrl, c.version = coalesce(c.version, 0) + 1, c.updatedAt = :updatedAt " +
+            "where c.categoryName = :currentName")
+    int updateByCategoryName(@Param("currentName") String currentName,
+                             @Param("categoryName") String categoryName,
+                             @Param("categoryDescription") String categoryDescription,
+                             @Param("imageUrl") String imageUrl,
+                             @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Moves a category under a new parent, or to the top level when {@code parentId} is null.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Category c set c.parentId = :parentId, c.path = :path, c.depth = :depth, " +
+            "c.version = coalesce(c.version, 0) + 1, c.updatedAt = :updatedAt where c.id = :id")
+    int updateParent(@Param("id") Long id,
+                     @Param("parentId") Long parentId,
+                     @Param("path") String path,
+                     @Param("depth") int depth,
+                     @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Rewrites the paths of the descendants of a moved category in one statement. Their parent
+     * does not change, so neither does what the API shows of them, nor their version.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Category c set c.path = concat(:newSubtreePath, substring(c.path, length(:oldSubtreePath) + 1)), " +
+            "c.depth = c.depth + :depthDelta where c.path like concat(:oldSubtreePath, '%')")
+    int moveDescendants(@Param("oldSubtreePath") String oldSubtreePath,
+                        @Param("newSubtreePath") String newSubtreePath,
+                        @Param("depthDelta") int depthDelta);
 }
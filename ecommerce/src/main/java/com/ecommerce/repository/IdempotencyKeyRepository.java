@@ -0,0 +1,56 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Every method runs in a read-write transaction: a key must be read from the primary, a replica
+ * may not have the response of a request that just completed.
+ */
+@Transactional
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Fails with a DataIntegrityViolationException when the key exists.
+     */
+    @Modifying
+    @Query(value = "insert into idempotency_key (idempotency_key, fingerprint, claimed_at) " +
+            "values (:key, :fingerprint, :claimedAt)", nativeQuery = true)
+    void insertClaim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                     @Param("claimedAt") Instant claimedAt);
+
+    /**
+     * Claims an existing key whose request was abandoned, claimed before {@code staleBefore} and
+     * never completed, or whose response expired.
+     *
+     * @return 1 when the key was taken over
+     */
+    @Modifying
+    @Query("update IdempotencyKey k set k.fingerprint = :fingerprint, k.claimedAt = :claimedAt, " +
+            "k.status = null, k.contentType = null, k.body = null " +
+            "where k.idempotencyKey = :key " +
+            "and ((k.status is null and k.claimedAt < :staleBefore) or k.claimedAt < :expiredBefore)")
+    int takeOver(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                 @Param("claimedAt") Instant claimedAt, @Param("staleBefore") Instant staleBefore,
+                 @Param("expiredBefore") Instant expiredBefore);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.status = :status, k.contentType = :contentType, k.body = :body " +
+            "where k.idempotencyKey = :key and k.fingerprint = :fingerprint and k.status is null")
+    int complete(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.idempotencyKey = :key and k.status is null")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.claimedAt < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") Instant expiredBefore);
+}
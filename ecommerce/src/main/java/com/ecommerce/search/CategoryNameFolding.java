@@ -0,0 +1,24 @@
+package com.ecommerce.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds category names and queries to the form the suggestion index compares: accents
+ * stripped, lower case, runs of white space collapsed to one space.
+ */
+public final class CategoryNameFolding {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITE_SPACE = Pattern.compile("\\s+");
+
+    private CategoryNameFolding() {
+    }
+
+    public static String fold(String text) {
+        String withoutAccents = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITE_SPACE.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
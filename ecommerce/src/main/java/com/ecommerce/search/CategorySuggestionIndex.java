@@ -0,0 +1,325 @@
+package com.ecommerce.search;
+
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategorySuggestProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.repository.CategoryRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory prefix index over category names for type-ahead suggestions.
+ * <p>
+ * Every word of a folded name starts a key in a sorted map, so a query matches a name that
+ * starts with it as well as a name with a word that starts with it, and all matches of a
+ * query are one contiguous range of the map. The best matches of every query of up to
+ * {@value #PRECOMPUTED_PREFIX_LENGTH} characters, the ones matching most names, are kept ranked
+ * as names are indexed, so such a query reads a list instead of walking its range; a longer
+ * query walks at most {@code category.suggest.max-scan} matches of its range and ranks those.
+ * The index is loaded before the application takes traffic and then follows
+ * {@link CategoryChangedEvent}s; readers never lock.
+ * {@link #rebuild()} loads a new index next to the one in use and swaps it in, so suggestions
+ * never come from a half-loaded index.
+ */
+@Component
+public class CategorySuggestionIndex implements SmartInitializingSingleton {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    static final int PRECOMPUTED_PREFIX_LENGTH = 3;
+
+    private static final Candidate[] NO_CANDIDATES = new Candidate[0];
+
+    private static final Comparator<Candidate> RANKING = Comparator.comparingInt(Candidate::rank)
+            .thenComparingInt(candidate -> candidate.name().folded().length())
+            .thenComparing(candidate -> candidate.name().folded())
+            .thenComparing(candidate -> candidate.name().key());
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategorySuggestProperties suggestProperties;
+
+    private volatile Index index;
+
+    /**
+     * Changes seen while a rebuild is loading, applied to the new index before it is swapped in.
+     */
+    private List<CategoryChangedEvent> changesDuringRebuild;
+
+    @Autowired
+    public CategorySuggestionIndex(CategoryRepository categoryRepository, CategorySuggestProperties suggestProperties) {
+        this.categoryRepository = categoryRepository;
+        this.suggestProperties = suggestProperties;
+        this.index = new Index(suggestProperties.getMaxLimit());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the index from the category table.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        Index rebuilt = new Index(suggestProperties.getMaxLimit());
+        try {
+            categoryRepository.findAllProjected().forEach(category -> rebuilt.add(category.getId(), category.getCategoryName(),
+                    category.getVersion()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // a change the table already had is no newer than the version loaded, and is ignored
+            changesDuringRebuild.forEach(rebuilt::apply);
+            changesDuringRebuild = null;
+            index = rebuilt;
+        }
+    }
+
+    @EventListener
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        index.apply(event);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+    }
+
+    /**
+     * Names matching the query, best first: the exact name, then names starting with the query,
+     * then names with a later word starting with it; shorter names first within each group.
+     * A query longer than {@value #PRECOMPUTED_PREFIX_LENGTH} characters that matches more than
+     * {@code category.suggest.max-scan} names is answered from the first of them in index order.
+     */
+    public List<CategorySuggestionDTO> suggest(String query, int limit) {
+        String prefix = CategoryNameFolding.fold(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Index current = index;
+        List<Candidate> ranked = prefix.length() <= PRECOMPUTED_PREFIX_LENGTH
+                ? current.bestOf(prefix, limit)
+                : current.scan(prefix, limit, suggestProperties.getMaxScan());
+        return ranked.stream()
+                .map(candidate -> new CategorySuggestionDTO(candidate.name().id(), candidate.name().name()))
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return index.names.size();
+    }
+
+    private static final class Index {
+
+        private final ConcurrentSkipListMap<String, WordStart> wordStarts = new ConcurrentSkipListMap<>();
+
+        private final Map<Long, IndexedName> names = new ConcurrentHashMap<>();
+
+        /**
+         * The best matches of each query of up to {@value #PRECOMPUTED_PREFIX_LENGTH} characters,
+         * ranked; an array is replaced, never changed, so readers need no lock.
+         */
+        private final Map<String, Candidate[]> bestByShortPrefix = new ConcurrentHashMap<>();
+
+        private final int bestKept;
+
+        private Index(int bestKept) {
+            this.bestKept = Math.max(1, bestKept);
+        }
+
+        /**
+         * Ignores a change older than the version indexed, such as one another instance sent late.
+         */
+        private void apply(CategoryChangedEvent event) {
+            CategoryDTO category = event.getAfter();
+            IndexedName indexed = names.get(category.getId());
+            if (indexed != null && indexed.version() != null && category.getVersion() != null
+                    && indexed.version() > category.getVersion()) {
+                return;
+            }
+            add(category.getId(), category.getCategoryName(), category.getVersion());
+        }
+
+        /**
+         * Indexes the name of the category, in place of its former name.
+         */
+        private void add(Long id, String name, Long version) {
+            String folded = CategoryNameFolding.fold(name);
+            IndexedName indexed = new IndexedName(id, name, CategoryNameCache.normalize(name), folded,
+                    wordStartOffsets(folded), version);
+            IndexedName replaced = names.put(id, indexed);
+            if (replaced != null) {
+                for (int offset : replaced.wordStarts()) {
+                    wordStarts.remove(keyOf(replaced, offset));
+                }
+            }
+            for (int offset : indexed.wordStarts()) {
+                wordStarts.put(keyOf(indexed, offset), new WordStart(indexed, offset));
+            }
+            Set<String> shortPrefixes = new LinkedHashSet<>();
+            if (replaced != null) {
+                shortPrefixes.addAll(shortPrefixesOf(replaced));
+            }
+            shortPrefixes.addAll(shortPrefixesOf(indexed));
+            for (String prefix : shortPrefixes) {
+                updateBest(prefix, id, candidate(indexed, prefix));
+            }
+        }
+
+        /**
+         * Takes the category out of the best matches of the prefix and puts the candidate in
+         * its place, if it ranks among them. Only when the category leaves a full list is the
+         * range walked again, to find the match that moves up into it.
+         */
+        private void updateBest(String prefix, Long id, Candidate added) {
+            Candidate[] best = bestByShortPrefix.getOrDefault(prefix, NO_CANDIDATES);
+            List<Candidate> updated = new ArrayList<>(best.length + 1);
+            boolean removed = false;
+            for (Candidate candidate : best) {
+                if (candidate.name().id().equals(id)) {
+                    removed = true;
+                } else {
+                    updated.add(candidate);
+                }
+            }
+            if (removed && best.length >= bestKept) {
+                store(prefix, scan(prefix, bestKept, Integer.MAX_VALUE));
+                return;
+            }
+            if (added != null) {
+                int at = Collections.binarySearch(updated, added, RANKING);
+                at = at < 0 ? -at - 1 : at;
+                if (at < bestKept) {
+                    updated.add(at, added);
+                    if (updated.size() > bestKept) {
+                        updated.remove(bestKept);
+                    }
+                } else if (!removed) {
+                    return;
+                }
+            } else if (!removed) {
+                return;
+            }
+            store(prefix, updated);
+        }
+
+        private void store(String prefix, List<Candidate> best) {
+            if (best.isEmpty()) {
+                bestByShortPrefix.remove(prefix);
+            } else {
+                bestByShortPrefix.put(prefix, best.toArray(NO_CANDIDATES));
+            }
+        }
+
+        private List<Candidate> bestOf(String prefix, int limit) {
+            Candidate[] best = bestByShortPrefix.getOrDefault(prefix, NO_CANDIDATES);
+            return List.of(best).subList(0, Math.min(limit, best.length));
+        }
+
+        /**
+         * Ranks the matches of the prefix, walking at most {@code maxScan} of them. Only the
+         * best {@code limit} are kept during the walk, so a query matching many names costs no
+         * sort of all of them.
+         */
+        private List<Candidate> scan(String prefix, int limit, int maxScan) {
+            PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            int scanned = 0;
+            for (WordStart match : wordStarts.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                if (scanned++ >= maxScan) {
+                    break;
+                }
+                // a name with several words starting with the query is counted at the first of them
+                if (match.name().firstWordStartingWith(prefix) != match.offset()) {
+                    continue;
+                }
+                best.offer(candidate(match.name(), prefix));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Candidate> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            return ranked;
+        }
+    }
+
+    /**
+     * The name as a match of the prefix, or {@code null} if none of its words starts with it.
+     */
+    private static Candidate candidate(IndexedName name, String prefix) {
+        int offset = name.firstWordStartingWith(prefix);
+        if (offset < 0) {
+            return null;
+        }
+        return new Candidate(name, offset > 0 ? 2 : name.folded().equals(prefix) ? 0 : 1);
+    }
+
+    private static Set<String> shortPrefixesOf(IndexedName name) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (int offset : name.wordStarts()) {
+            int end = Math.min(name.folded().length(), offset + PRECOMPUTED_PREFIX_LENGTH);
+            for (int i = offset + 1; i <= end; i++) {
+                prefixes.add(name.folded().substring(offset, i));
+            }
+        }
+        return prefixes;
+    }
+
+    private static String keyOf(IndexedName name, int offset) {
+        return name.folded().substring(offset) + KEY_SEPARATOR + name.key();
+    }
+
+    private static int[] wordStartOffsets(String folded) {
+        if (folded.isEmpty()) {
+            return new int[0];
+        }
+        List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        for (int i = 1; i < folded.length(); i++) {
+            if (!Character.isLetterOrDigit(folded.charAt(i - 1)) && Character.isLetterOrDigit(folded.charAt(i))) {
+                offsets.add(i);
+            }
+        }
+        return offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private record IndexedName(Long id, String name, String key, String folded, int[] wordStarts, Long version) {
+
+        private int firstWordStartingWith(String prefix) {
+            for (int offset : wordStarts) {
+                if (folded.startsWith(prefix, offset)) {
+                    return offset;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private record WordStart(IndexedName name, int offset) {
+    }
+
+    private record Candidate(IndexedName name, int rank) {
+    }
+}
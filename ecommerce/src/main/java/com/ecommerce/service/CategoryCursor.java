@@ -0,0 +1,59 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor for the keyset pagination of categories. It wraps the id of the last
+ * category of a page, so the next page starts right after it.
+ */
+public final class CategoryCursor {
+
+    private static final long FIRST_PAGE = 0L;
+
+    private CategoryCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < FIRST_PAGE) {
+                throw new InvalidCursorException(cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Builds a page out of up to {@code pageSize + 1} rows: the extra row only tells that
+     * there is a next page, and is left out of the content.
+     */
+    public static CategoryPageDTO toPage(List<CategoryDTO> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return CategoryPageDTO.builder()
+                    .content(rows)
+                    .build();
+        }
+        List<CategoryDTO> content = rows.subList(0, pageSize);
+        return CategoryPageDTO.builder()
+                .content(content)
+                .nextCursor(encode(content.get(pageSize - 1).getId()))
+                .build();
+    }
+}
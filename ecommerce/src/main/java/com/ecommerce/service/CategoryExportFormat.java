@@ -0,0 +1,29 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.UnsupportedExportFormatException;
+
+import java.util.Locale;
+
+public enum CategoryExportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    CategoryExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static CategoryExportFormat of(String format) throws UnsupportedExportFormatException {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedExportFormatException(format);
+        }
+    }
+}
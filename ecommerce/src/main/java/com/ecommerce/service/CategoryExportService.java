@@ -0,0 +1,88 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the category catalogue straight to an output stream. Rows come from a
+ * forward-only cursor and are written as soon as they are read, so memory use does
+ * not depend on the size of the table.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class CategoryExportService {
+
+    private static final String CSV_HEADER = "id,categoryName,categoryDescription,imageUrl";
+
+    private final CategoryRepository categoryRepository;
+
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(CategoryExportFormat format, long sinceId, OutputStream output) throws IOException {
+        try (Stream<CategoryDTO> rows = categoryRepository.streamAfter(sinceId)) {
+            if (format == CategoryExportFormat.CSV) {
+                writeCsv(rows.iterator(), output);
+            } else {
+                writeNdjson(rows.iterator(), output);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<CategoryDTO> rows, OutputStream output) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writerFor(CategoryDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<CategoryDTO> rows, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            CategoryDTO category = rows.next();
+            writer.write(String.valueOf(category.getId()));
+            writer.write(',');
+            writeCsvField(writer, category.getCategoryName());
+            writer.write(',');
+            writeCsvField(writer, category.getCategoryDescription());
+            writer.write(',');
+            writeCsvField(writer, category.getImageUrl());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
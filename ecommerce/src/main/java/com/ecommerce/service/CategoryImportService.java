@@ -0,0 +1,231 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryImportProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryImportResultDTO;
+import com.ecommerce.dto.response.CategoryImportRowDTO;
+import com.ecommerce.dto.response.CategoryImportStatus;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.exception.InvalidCategoryParentException;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports categories from a JSON array or an NDJSON stream. Rows are read one by one,
+ * validated, checked for duplicates with one query per batch and inserted in batches.
+ * <p>
+ * A row with a parentId is placed under that category like a created one. The parent has to
+ * exist before the import: ids are only assigned as rows are inserted, so a row cannot name
+ * another row of the same payload. A row whose parent is missing is rejected on its own.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class CategoryImportService {
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategoryNameCache categoryNameCache;
+
+    private final CategoryImportProperties importProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    public CategoryImportResultDTO importCategories(InputStream body) throws IOException {
+        List<CategoryImportRowDTO> report = new ArrayList<>();
+        List<PendingRow> batch = new ArrayList<>(importProperties.getBatchSize());
+        Set<String> namesInPayload = new HashSet<>();
+        int rowNumber = 0;
+        try (MappingIterator<CategoryDTO> rows = objectMapper.readerFor(CategoryDTO.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                CategoryDTO categoryDTO = rows.nextValue();
+                rowNumber++;
+                Optional<CategoryImportRowDTO> rejected = validate(rowNumber, categoryDTO, namesInPayload);
+                if (rejected.isPresent()) {
+                    report.add(rejected.get());
+                    continue;
+                }
+                batch.add(new PendingRow(rowNumber, categoryDTO));
+                if (batch.size() == importProperties.getBatchSize()) {
+                    report.addAll(writeBatch(batch));
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            report.add(rejectedRow(rowNumber + 1, null, CategoryImportStatus.INVALID,
+                    "Malformed row, import stopped: " + e.getOriginalMessage()));
+        }
+        report.addAll(writeBatch(batch));
+        report.sort(Comparator.comparingInt(CategoryImportRowDTO::getRow));
+        long created = report.stream().filter(row -> row.getStatus() == CategoryImportStatus.CREATED).count();
+        return CategoryImportResultDTO.builder()
+                .created(created)
+                .rejected(report.size() - created)
+                .rows(report)
+                .build();
+    }
+
+    private Optional<CategoryImportRowDTO> validate(int rowNumber, CategoryDTO categoryDTO, Set<String> namesInPayload) {
+        if (categoryDTO == null) {
+            return Optional.of(rejectedRow(rowNumber, null, CategoryImportStatus.INVALID, "Empty row."));
+        }
+        Set<ConstraintViolation<CategoryDTO>> violations = validator.validate(categoryDTO);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return Optional.of(rejectedRow(rowNumber, categoryDTO.getCategoryName(), CategoryImportStatus.INVALID, message));
+        }
+        if (!namesInPayload.add(CategoryNameCache.normalize(categoryDTO.getCategoryName()))) {
+            return Optional.of(rejectedRow(rowNumber, categoryDTO.getCategoryName(), CategoryImportStatus.DUPLICATE,
+                    "Category name repeated in the payload."));
+        }
+        return Optional.empty();
+    }
+
+    private List<CategoryImportRowDTO> writeBatch(List<PendingRow> batch) {
+        if (batch.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> existingNames = categoryRepository.findExistingCategoryNames(
+                        batch.stream().map(row -> row.categoryDTO().getCategoryName()).collect(Collectors.toList()))
+                .stream()
+                .map(CategoryNameCache::normalize)
+                .collect(Collectors.toSet());
+
+        Map<Long, Category> parents = findParents(batch);
+
+        List<CategoryImportRowDTO> results = new ArrayList<>(batch.size());
+        List<PendingRow> newRows = new ArrayList<>(batch.size());
+        List<Category> newCategories = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            String categoryName = row.categoryDTO().getCategoryName();
+            if (existingNames.contains(CategoryNameCache.normalize(categoryName))) {
+                results.add(rejectedRow(row.rowNumber(), categoryName, CategoryImportStatus.DUPLICATE,
+                        "Category already exists in the system."));
+                continue;
+            }
+            try {
+                newCategories.add(toNewCategory(row, parents));
+                newRows.add(row);
+            } catch (CategoryNotFoundException | InvalidCategoryParentException e) {
+                results.add(rejectedRow(row.rowNumber(), categoryName, CategoryImportStatus.INVALID,
+                        "Invalid parent: " + e.getMessage()));
+            }
+        }
+
+        try {
+            List<Category> saved = transactionTemplate.execute(status -> {
+                List<Category> categories = categoryRepository.saveAll(newCategories);
+                categoryRepository.flush();
+                return categories;
+            });
+            for (int i = 0; i < newRows.size(); i++) {
+                results.add(createdRow(newRows.get(i).rowNumber(), saved.get(i)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            newRows.forEach(row -> results.add(writeSingleRow(row, parents)));
+        }
+        return results;
+    }
+
+    /**
+     * The parents the rows of the batch name, read with one query.
+     */
+    private Map<Long, Category> findParents(List<PendingRow> batch) {
+        Set<Long> parentIds = batch.stream()
+                .map(row -> row.categoryDTO().getParentId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (parentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return categoryRepository.findCurrentByIdIn(parentIds).stream()
+                .collect(Collectors.toMap(Category::getId, parent -> parent));
+    }
+
+    /**
+     * A new category for the row, placed under its parent like {@link CategoryService#createCategory} does.
+     * Built again for every attempt, since a failed insert leaves its id on the entity.
+     */
+    private Category toNewCategory(PendingRow row, Map<Long, Category> parents) throws CategoryNotFoundException, InvalidCategoryParentException {
+        Category category = categoryMapper.toNewModel(row.categoryDTO());
+        Long parentId = row.categoryDTO().getParentId();
+        if (parentId != null) {
+            Category parent = parents.get(parentId);
+            if (parent == null) {
+                throw new CategoryNotFoundException(parentId);
+            }
+            CategoryService.placeUnder(category, parent);
+        }
+        return category;
+    }
+
+    private CategoryImportRowDTO writeSingleRow(PendingRow row, Map<Long, Category> parents) {
+        String categoryName = row.categoryDTO().getCategoryName();
+        try {
+            Category saved = categoryRepository.saveAndFlush(toNewCategory(row, parents));
+            return createdRow(row.rowNumber(), saved);
+        } catch (CategoryNotFoundException | InvalidCategoryParentException e) {
+            return rejectedRow(row.rowNumber(), categoryName, CategoryImportStatus.INVALID,
+                    "Invalid parent: " + e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            if (CategoryService.violatesUniqueCategoryName(e)) {
+                return rejectedRow(row.rowNumber(), categoryName, CategoryImportStatus.DUPLICATE,
+                        "Category already exists in the system.");
+            }
+            return rejectedRow(row.rowNumber(), categoryName, CategoryImportStatus.FAILED,
+                    e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private CategoryImportRowDTO createdRow(int rowNumber, Category category) {
+        categoryNameCache.invalidate(category.getCategoryName());
+        eventPublisher.publishEvent(CategoryChangedEvent.created(categoryMapper.toDTO(category)));
+        return CategoryImportRowDTO.builder()
+                .row(rowNumber)
+                .categoryName(category.getCategoryName())
+                .status(CategoryImportStatus.CREATED)
+                .id(category.getId())
+                .build();
+    }
+
+    private static CategoryImportRowDTO rejectedRow(int rowNumber, String categoryName, CategoryImportStatus status, String message) {
+        return CategoryImportRowDTO.builder()
+                .row(rowNumber)
+                .categoryName(categoryName)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private record PendingRow(int rowNumber, CategoryDTO categoryDTO) {
+    }
+}
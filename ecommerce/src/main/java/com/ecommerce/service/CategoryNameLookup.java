@@ -0,0 +1,174 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryLookupProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.repository.CategoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves category names with IN-list queries of at most category.lookup.chunk-size names each.
+ * <p>
+ * With category.lookup.coalesce.enabled, single names are resolved in batches too: the first name
+ * opens a batch and waits for the window, the names that arrive meanwhile join it, and the first
+ * caller then sends one query for all of them. A batch that fills up is sent by the caller that
+ * filled it, which wakes the first caller. No thread of its own is involved, the callers wait on
+ * the result of their batch.
+ */
+@Component
+public class CategoryNameLookup implements MeterBinder {
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategoryLookupProperties properties;
+
+    private final Object lock = new Object();
+
+    private Batch pending;
+
+    private volatile DistributionSummary coalesced;
+
+    public CategoryNameLookup(CategoryRepository categoryRepository, CategoryLookupProperties properties) {
+        this.categoryRepository = categoryRepository;
+        this.properties = properties;
+    }
+
+    public boolean isCoalescing() {
+        return properties.getCoalesce().isEnabled();
+    }
+
+    /**
+     * Categories found for the names, keyed by {@link CategoryNameCache#normalize(String) normalized}
+     * name. Names without a category are left out.
+     */
+    public Map<String, CategoryDTO> findAll(Collection<String> names) {
+        List<String> listed = new ArrayList<>(names);
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        Map<String, CategoryDTO> found = new HashMap<>(listed.size() * 2);
+        for (int from = 0; from < listed.size(); from += chunkSize) {
+            List<String> chunk = listed.subList(from, Math.min(from + chunkSize, listed.size()));
+            for (CategoryDTO category : categoryRepository.findProjectedByCategoryNameIn(chunk)) {
+                found.put(CategoryNameCache.normalize(category.getCategoryName()), category);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Category of the name, looked up together with the other names asked for within the window.
+     */
+    public Optional<CategoryDTO> find(String name) {
+        String key = CategoryNameCache.normalize(name);
+        Batch batch;
+        boolean opened = false;
+        boolean full = false;
+        CompletableFuture<Optional<CategoryDTO>> result;
+        synchronized (lock) {
+            if (pending == null) {
+                pending = new Batch();
+                opened = true;
+            }
+            batch = pending;
+            result = batch.join(key, name);
+            if (batch.size() >= properties.getCoalesce().getMaxBatch()) {
+                pending = null;
+                full = true;
+            }
+        }
+        if (opened && !full) {
+            batch.awaitFilled(properties.getCoalesce().getWindow().toNanos());
+            synchronized (lock) {
+                if (pending == batch) {
+                    pending = null;
+                }
+            }
+            send(batch);
+        } else if (full) {
+            send(batch);
+            batch.filled.countDown();
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        coalesced = DistributionSummary.builder("category.lookup.coalesced")
+                .description("Names resolved by each query of coalesced single-name lookups")
+                .register(registry);
+    }
+
+    /**
+     * Sends the batch, unless its window closed while it was being filled and its first caller
+     * already sent it, or the other way round.
+     */
+    private void send(Batch batch) {
+        if (!batch.sent.compareAndSet(false, true)) {
+            return;
+        }
+        DistributionSummary summary = coalesced;
+        if (summary != null) {
+            summary.record(batch.size());
+        }
+        try {
+            Map<String, CategoryDTO> found = findAll(batch.names.values());
+            batch.results.forEach((key, result) -> result.complete(Optional.ofNullable(found.get(key))));
+        } catch (RuntimeException e) {
+            batch.results.values().forEach(result -> result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Names waiting for the same query. Only read once it has been taken out of {@link #pending}.
+     */
+    private static final class Batch {
+
+        private final Map<String, String> names = new LinkedHashMap<>();
+
+        private final Map<String, CompletableFuture<Optional<CategoryDTO>>> results = new HashMap<>();
+
+        private final AtomicBoolean sent = new AtomicBoolean();
+
+        /**
+         * Released when the batch fills up, to end the window of its first caller early. Owned by
+         * the batch, so a release that comes late cannot shorten the caller's next window.
+         */
+        private final CountDownLatch filled = new CountDownLatch(1);
+
+        private CompletableFuture<Optional<CategoryDTO>> join(String key, String name) {
+            names.putIfAbsent(key, name);
+            return results.computeIfAbsent(key, k -> new CompletableFuture<>());
+        }
+
+        private int size() {
+            return names.size();
+        }
+
+        private void awaitFilled(long windowNanos) {
+            try {
+                filled.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,19 +1,50 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryListingProperties;
+import com.ecommerce.config.CategoryLookupProperties;
+import com.ecommerce.config.CategorySuggestProperties;
+import com.ecommerce.event.CategoryChangedEvent;
 import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryLookupResultDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.dto.response.CategoryVersionDTO;
 import com.ecommerce.dto.response.MessageResponseDTO;
 import com.ecommerce.exception.CategoryNameAlreadyExistsException;
 import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.exception.InvalidCategoryParentException;
+import com.ecommerce.exception.InvalidCursorException;
+import com.ecommerce.exception.TooManyCategoryNamesException;
+import com.ecommerce.exception.UnboundedListingDisabledException;
 import com.ecommerce.mapper.CategoryMapper;
 import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryJsonRepository;
 import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.search.CategorySuggestionIndex;
+import com.ecommerce.snapshot.CategoryJson;
+import com.ecommerce.snapshot.CategorySnapshot;
+import com.ecommerce.snapshot.CategorySnapshots;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor= @__(@Autowired))
@@ -21,51 +52,303 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
+    private final CategoryJsonRepository categoryJsonRepository;
+
+    private final CategoryListingProperties listingProperties;
+
+    private final CategoryNameCache categoryNameCache;
+
+    private final CategoryNameLookup categoryNameLookup;
+
+    private final CategoryLookupProperties lookupProperties;
+
+    private final CategorySuggestionIndex suggestionIndex;
+
+    private final CategorySuggestProperties suggestProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CategorySnapshots snapshots;
+
     private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
 
-    public CategoryDTO createCategory(CategoryDTO categoryDTO) throws CategoryNameAlreadyExistsException {
-        verifyIfIsAlreadyRegistered(categoryDTO.getCategoryName());
-        Category category = categoryMapper.toModel(categoryDTO);
-        Category categorySaved = categoryRepository.save(category);
-        return categoryMapper.toDTO(categorySaved);
+    public CategoryDTO createCategory(CategoryDTO categoryDTO) throws CategoryNameAlreadyExistsException, CategoryNotFoundException, InvalidCategoryParentException {
+        Category category = categoryMapper.toNewModel(categoryDTO);
+        if (categoryDTO.getParentId() != null) {
+            placeUnderParent(category, categoryDTO.getParentId());
+        }
+        Category categorySaved;
+        try {
+            categorySaved = categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException e) {
+            throw categoryNameAlreadyExists(e, categoryDTO.getCategoryName());
+        }
+        categoryNameCache.invalidate(categorySaved.getCategoryName());
+        CategoryDTO created = categoryMapper.toDTO(categorySaved);
+        eventPublisher.publishEvent(CategoryChangedEvent.created(created));
+        return created;
     }
 
-    public List<CategoryDTO> listAll(){
-        return categoryRepository.findAll()
-                .stream()
-                .map(categoryMapper::toDTO)
-                .collect(Collectors.toList());
+    private void placeUnderParent(Category category, Long parentId) throws CategoryNotFoundException, InvalidCategoryParentException {
+        Category parent = categoryRepository.findCurrentById(parentId)
+                .orElseThrow(() -> new CategoryNotFoundException(parentId));
+        placeUnder(category, parent);
+    }
+
+    /**
+     * Places a new category under its parent, also for the rows of an import, unless its path
+     * would no longer fit the column.
+     */
+    static void placeUnder(Category category, Category parent) throws InvalidCategoryParentException {
+        category.placeUnder(parent);
+        if (category.getPath().length() > Category.PATH_LENGTH) {
+            throw InvalidCategoryParentException.tooDeep(parent.getCategoryName());
+        }
+    }
+
+    public CategoryPageDTO listPage(String cursor, Integer limit) throws InvalidCursorException {
+        long afterId = CategoryCursor.decode(cursor);
+        int pageSize = listingProperties.resolveLimit(limit);
+        CategorySnapshot snapshot = snapshots.current();
+        if (snapshot != null) {
+            return snapshot.page(afterId, pageSize);
+        }
+        List<CategoryDTO> rows = categoryRepository.findPageAfter(afterId, PageRequest.of(0, pageSize + 1));
+        return CategoryCursor.toPage(rows, pageSize);
+    }
+
+    /**
+     * The page already serialized: taken from the snapshot in snapshot mode, written straight from
+     * the rows when category.listing.direct-json is set; otherwise null.
+     */
+    public CategoryJson listPageJson(String cursor, Integer limit) throws InvalidCursorException {
+        long afterId = CategoryCursor.decode(cursor);
+        int pageSize = listingProperties.resolveLimit(limit);
+        CategorySnapshot snapshot = snapshots.current();
+        if (snapshot != null) {
+            return snapshot.pageJson(afterId, pageSize);
+        }
+        return listingProperties.isDirectJson() ? categoryJsonRepository.findPageJsonAfter(afterId, pageSize) : null;
+    }
+
+    /**
+     * Validator of a page, read from ids and versions only.
+     */
+    public CategoryValidator pageValidatorOf(String cursor, Integer limit) throws InvalidCursorException {
+        long afterId = CategoryCursor.decode(cursor);
+        int pageSize = listingProperties.resolveLimit(limit);
+        CategorySnapshot snapshot = snapshots.current();
+        if (snapshot != null) {
+            return snapshot.pageValidator(afterId, pageSize);
+        }
+        List<CategoryVersionDTO> rows = categoryRepository.findPageVersionsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        return CategoryValidator.ofPage(hasNext ? rows.subList(0, pageSize) : rows, hasNext);
+    }
+
+    public List<CategoryDTO> listAll() throws UnboundedListingDisabledException {
+        if (!listingProperties.isUnboundedEnabled()) {
+            throw new UnboundedListingDisabledException();
+        }
+        CategorySnapshot snapshot = snapshots.current();
+        return snapshot != null ? snapshot.all() : categoryRepository.findAllProjected();
+    }
+
+    /**
+     * In snapshot mode, all categories already serialized, with their validator; otherwise null.
+     */
+    public CategoryJson listAllJson() throws UnboundedListingDisabledException {
+        if (!listingProperties.isUnboundedEnabled()) {
+            throw new UnboundedListingDisabledException();
+        }
+        CategorySnapshot snapshot = snapshots.current();
+        return snapshot == null ? null : new CategoryJson(snapshot.allJson(), snapshot.allValidator());
+    }
+
+    /**
+     * Validator of the unbounded listing, from the ids and versions of every category.
+     */
+    public CategoryValidator listAllValidator() throws UnboundedListingDisabledException {
+        if (!listingProperties.isUnboundedEnabled()) {
+            throw new UnboundedListingDisabledException();
+        }
+        CategorySnapshot snapshot = snapshots.current();
+        return snapshot != null ? snapshot.allValidator() : CategoryValidator.ofPage(categoryRepository.findAllVersions(), false);
     }
 
     public CategoryDTO listCategoryByName(String name) throws CategoryNotFoundException {
-        Category foundCategory = categoryRepository.findByCategoryName(name)
+        CategorySnapshot snapshot = snapshots.current();
+        if (snapshot != null) {
+            return Optional.ofNullable(snapshot.get(name))
+                    .orElseThrow(() -> new CategoryNotFoundException(name));
+        }
+        return categoryNameCache.get(name, this::findByName)
                 .orElseThrow(() -> new CategoryNotFoundException(name));
-        return categoryMapper.toDTO(foundCategory);
     }
 
-    private void verifyIfIsAlreadyRegistered(String name) throws CategoryNameAlreadyExistsException {
-        Optional<Category> optSavedCategory = categoryRepository.findByCategoryName(name);
-        if (optSavedCategory.isPresent()) {
-            throw new CategoryNameAlreadyExistsException(name);
+    /**
+     * Categories of several names at once. Names without a category are reported as missing rather
+     * than failing the lookup. Categories in the name cache are taken from it, the others are read
+     * with IN-list queries.
+     */
+    public CategoryLookupResultDTO lookup(Collection<String> names) throws TooManyCategoryNamesException {
+        Map<String, String> requested = new LinkedHashMap<>();
+        for (String name : names) {
+            requested.putIfAbsent(CategoryNameCache.normalize(name), name);
+        }
+        if (requested.size() > lookupProperties.getMaxNames()) {
+            throw new TooManyCategoryNamesException(requested.size(), lookupProperties.getMaxNames());
         }
+        CategorySnapshot snapshot = snapshots.current();
+        Map<String, CategoryDTO> found = new HashMap<>(requested.size() * 2);
+        List<String> toLoad = new ArrayList<>();
+        requested.forEach((key, name) -> {
+            CategoryDTO category = snapshot != null ? snapshot.get(name) : categoryNameCache.peek(name);
+            if (category != null) {
+                found.put(key, category);
+            } else if (snapshot == null) {
+                toLoad.add(name);
+            }
+        });
+        if (!toLoad.isEmpty()) {
+            found.putAll(categoryNameLookup.findAll(toLoad));
+        }
+        List<CategoryDTO> categories = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        requested.forEach((key, name) -> {
+            CategoryDTO category = found.get(key);
+            if (category != null) {
+                categories.add(category);
+            } else {
+                missing.add(name);
+            }
+        });
+        return CategoryLookupResultDTO.builder()
+                .categories(categories)
+                .missing(missing)
+                .build();
     }
 
-    private Category verifyIfExists(String name) throws CategoryNotFoundException {
-        return categoryRepository.findByCategoryName(name)
+    /**
+     * In snapshot mode, the category already serialized; otherwise null.
+     */
+    public CategoryJson categoryJson(String name) throws CategoryNotFoundException {
+        CategorySnapshot snapshot = snapshots.current();
+        if (snapshot == null) {
+            return null;
+        }
+        return Optional.ofNullable(snapshot.json(name))
+                .orElseThrow(() -> new CategoryNotFoundException(name));
+    }
+
+    /**
+     * Validator of a category, taken from the cache when the category is there, otherwise read
+     * without loading the full row.
+     */
+    public CategoryValidator validatorOf(String name) throws CategoryNotFoundException {
+        CategorySnapshot snapshot = snapshots.current();
+        if (snapshot != null) {
+            return CategoryValidator.of(listCategoryByName(name));
+        }
+        CategoryDTO cached = categoryNameCache.peek(name);
+        if (cached != null) {
+            return CategoryValidator.of(cached);
+        }
+        return categoryRepository.findVersionByCategoryName(name)
+                .map(CategoryValidator::of)
                 .orElseThrow(() -> new CategoryNotFoundException(name));
     }
 
+    private Optional<CategoryDTO> findByName(String name) {
+        if (categoryNameLookup.isCoalescing()) {
+            return categoryNameLookup.find(name);
+        }
+        return categoryRepository.findByCategoryName(name)
+                .map(categoryMapper::toDTO);
+    }
+
+    public List<CategorySuggestionDTO> suggest(String query, Integer limit) {
+        return suggestionIndex.suggest(query, suggestProperties.resolveLimit(limit));
+    }
+
+    /**
+     * Reads the category and updates it in one transaction, holding the row lock in between, so
+     * that the change event carries the row as it was right before this update. The caches are
+     * invalidated and the event published once the update is committed.
+     */
+    @Transactional(rollbackFor = Exception.class)
     public MessageResponseDTO update(String name, CategoryDTO categoryDTO) throws CategoryNotFoundException, CategoryNameAlreadyExistsException {
-        verifyIfExists(name);
-        verifyIfIsAlreadyRegistered(categoryDTO.getCategoryName());
-        Category updatedCategory = categoryMapper.toModel(categoryDTO);
-        Category savedCategory = categoryRepository.save(updatedCategory);
-        return createMessageResponse("Category successfully updated with ID ", savedCategory.getId());
+        // read from the primary, not the cache or a replica: the change event must carry the row as it was
+        CategoryDTO before = categoryRepository.findForUpdateByCategoryName(name)
+                .map(categoryMapper::toDTO)
+                .orElseThrow(() -> new CategoryNotFoundException(name));
+        Instant updatedAt = Instant.now();
+        int updatedRows;
+        try {
+            updatedRows = categoryRepository.updateByCategoryName(name,
+                    categoryDTO.getCategoryName(),
+                    categoryDTO.getCategoryDescription(),
+                    categoryDTO.getImageUrl(),
+                    updatedAt);
+        } catch (DataIntegrityViolationException e) {
+            throw categoryNameAlreadyExists(e, categoryDTO.getCategoryName());
+        }
+        if (updatedRows == 0) {
+            throw new CategoryNotFoundException(name);
+        }
+        CategoryChangedEvent event = CategoryChangedEvent.updated(before, afterUpdate(before, categoryDTO, updatedAt));
+        afterCommit(() -> {
+            categoryNameCache.invalidate(name);
+            categoryNameCache.invalidate(categoryDTO.getCategoryName());
+            eventPublisher.publishEvent(event);
+        });
+        return createMessageResponse("Category successfully updated with name ", categoryDTO.getCategoryName());
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or at once when there is none.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static CategoryDTO afterUpdate(CategoryDTO before, CategoryDTO changes, Instant updatedAt) {
+        return CategoryDTO.builder()
+                .id(before.getId())
+                .categoryName(changes.getCategoryName())
+                .categoryDescription(changes.getCategoryDescription())
+                .imageUrl(changes.getImageUrl())
+                .parentId(before.getParentId())
+                .version(before.getVersion() == null ? 1L : before.getVersion() + 1)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private CategoryNameAlreadyExistsException categoryNameAlreadyExists(DataIntegrityViolationException e, String name) {
+        if (!violatesUniqueCategoryName(e)) {
+            throw e;
+        }
+        return new CategoryNameAlreadyExistsException(name);
+    }
+
+    static boolean violatesUniqueCategoryName(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException constraintViolation
+                && constraintViolation.getConstraintName() != null
+                && constraintViolation.getConstraintName().toLowerCase(Locale.ROOT).contains(Category.UNIQUE_CATEGORY_NAME);
     }
 
-    private MessageResponseDTO createMessageResponse(String s, Long id2) {
+    private MessageResponseDTO createMessageResponse(String s, String name) {
         return MessageResponseDTO.builder()
-                .message(s + id2)
+                .message(s + name)
                 .build();
     }
 }
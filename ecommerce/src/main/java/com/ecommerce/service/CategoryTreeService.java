@@ -0,0 +1,166 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryTreeProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.request.CategoryMoveDTO;
+import com.ecommerce.dto.response.CategoryTreeDTO;
+import com.ecommerce.dto.response.MessageResponseDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.exception.InvalidCategoryParentException;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parent/child operations on the category tree, kept as materialized paths (see
+ * {@link Category#getPath()}). A subtree is read with one range scan on the path and a breadcrumb
+ * with one primary key lookup, whatever their size; a move rewrites a whole branch in one statement.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategoryTreeProperties treeProperties;
+
+    private final CategoryNameCache categoryNameCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    /**
+     * The category and its descendants down to {@code depth} levels below it.
+     */
+    @Transactional(readOnly = true)
+    public CategoryTreeDTO subtree(String name, Integer depth) throws CategoryNotFoundException {
+        Category root = categoryRepository.findByCategoryName(name)
+                .orElseThrow(() -> new CategoryNotFoundException(name));
+        CategoryTreeDTO tree = CategoryTreeDTO.of(categoryMapper.toDTO(root));
+        int levels = treeProperties.resolveDepth(depth);
+        if (levels == 0) {
+            return tree;
+        }
+        Map<Long, CategoryTreeDTO> nodes = new HashMap<>();
+        nodes.put(root.getId(), tree);
+        for (CategoryDTO row : categoryRepository.findDescendants(root.subtreePath(), root.getDepth() + levels)) {
+            CategoryTreeDTO node = CategoryTreeDTO.of(row);
+            nodes.put(row.getId(), node);
+            nodes.get(row.getParentId()).getChildren().add(node);
+        }
+        return tree;
+    }
+
+    /**
+     * The ancestors of the category, top-level first, followed by the category itself.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryDTO> breadcrumb(String name) throws CategoryNotFoundException {
+        Category category = categoryRepository.findByCategoryName(name)
+                .orElseThrow(() -> new CategoryNotFoundException(name));
+        List<Long> ancestorIds = ancestorIds(category.getPath());
+        List<CategoryDTO> breadcrumb = new ArrayList<>(ancestorIds.size() + 1);
+        if (!ancestorIds.isEmpty()) {
+            breadcrumb.addAll(categoryRepository.findProjectedByIdIn(ancestorIds));
+            breadcrumb.sort(Comparator.comparingInt(ancestor -> ancestorIds.indexOf(ancestor.getId())));
+        }
+        breadcrumb.add(categoryMapper.toDTO(category));
+        return breadcrumb;
+    }
+
+    /**
+     * Re-parents every named category, with its subtree, under the given parent. Either all of them
+     * move or none does; the change events go out once the move is committed.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public MessageResponseDTO move(CategoryMoveDTO move) throws CategoryNotFoundException, InvalidCategoryParentException {
+        Instant updatedAt = Instant.now();
+        List<CategoryChangedEvent> events = new ArrayList<>();
+        for (String name : move.getCategoryNames()) {
+            // read again for every category: moving the previous one may have moved these too
+            Category category = categoryRepository.findByCategoryName(name)
+                    .orElseThrow(() -> new CategoryNotFoundException(name));
+            Category parent = move.getParentName() == null ? null : categoryRepository.findByCategoryName(move.getParentName())
+                    .orElseThrow(() -> new CategoryNotFoundException(move.getParentName()));
+            CategoryDTO before = categoryMapper.toDTO(category);
+            if (moveUnder(category, parent, updatedAt)) {
+                events.add(CategoryChangedEvent.updated(before, afterMove(before, parent, updatedAt)));
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (CategoryChangedEvent event : events) {
+                    categoryNameCache.invalidate(event.getAfter().getCategoryName());
+                    eventPublisher.publishEvent(event);
+                }
+            }
+        });
+        return MessageResponseDTO.builder()
+                .message(String.format("%d categories successfully moved under %s", events.size(),
+                        move.getParentName() == null ? "the top level" : move.getParentName()))
+                .build();
+    }
+
+    /**
+     * @return false when the category already is a child of the parent
+     */
+    private boolean moveUnder(Category category, Category parent, Instant updatedAt) throws InvalidCategoryParentException {
+        Long parentId = parent == null ? null : parent.getId();
+        if (Objects.equals(category.getParentId(), parentId)) {
+            return false;
+        }
+        String oldSubtreePath = category.subtreePath();
+        String path = parent == null ? Category.ROOT_PATH : parent.subtreePath();
+        if (path.startsWith(oldSubtreePath) || Objects.equals(parentId, category.getId())) {
+            throw InvalidCategoryParentException.cycle(category.getCategoryName(), parent.getCategoryName());
+        }
+        int pathDelta = path.length() - category.getPath().length();
+        int longestPath = categoryRepository.findLongestDescendantPath(oldSubtreePath).orElse(category.getPath().length());
+        if (Math.max(longestPath, category.getPath().length()) + pathDelta > Category.PATH_LENGTH) {
+            throw InvalidCategoryParentException.tooDeep(parent.getCategoryName());
+        }
+        int depth = parent == null ? 0 : parent.getDepth() + 1;
+        categoryRepository.updateParent(category.getId(), parentId, path, depth, updatedAt);
+        categoryRepository.moveDescendants(oldSubtreePath, path + category.getId() + "/", depth - category.getDepth());
+        return true;
+    }
+
+    private static CategoryDTO afterMove(CategoryDTO before, Category parent, Instant updatedAt) {
+        return CategoryDTO.builder()
+                .id(before.getId())
+                .categoryName(before.getCategoryName())
+                .categoryDescription(before.getCategoryDescription())
+                .imageUrl(before.getImageUrl())
+                .parentId(parent == null ? null : parent.getId())
+                .version(before.getVersion() == null ? 1L : before.getVersion() + 1)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    static List<Long> ancestorIds(String path) {
+        return Arrays.stream(path.split("/"))
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .toList();
+    }
+}
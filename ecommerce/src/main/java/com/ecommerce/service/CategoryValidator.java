@@ -0,0 +1,141 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategoryVersionDTO;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Strong ETag and Last-Modified of a category, or of a page of categories, for conditional GETs.
+ * Both are derived from ids and versions only, so they can be computed from the full rows or from
+ * the narrow {@link CategoryVersionDTO} projection and still agree.
+ */
+@Value
+public class CategoryValidator {
+
+    private static final int PAGE_TAG_BYTES = 12;
+
+    String eTag;
+
+    Instant lastModified;
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    public static CategoryValidator of(CategoryVersionDTO category) {
+        return new CategoryValidator("\"" + category.getId() + "-" + versionOf(category) + "\"", category.getUpdatedAt());
+    }
+
+    public static CategoryValidator of(CategoryDTO category) {
+        return of(CategoryVersionDTO.of(category));
+    }
+
+    public static CategoryValidator ofPage(CategoryPageDTO page) {
+        return ofPage(page.getContent().stream().map(CategoryVersionDTO::of).toList(), page.getNextCursor() != null);
+    }
+
+    /**
+     * Validator of the unbounded listing, equal to {@code ofPage(rows, false)} of the same rows.
+     */
+    public static CategoryValidator ofAll(List<CategoryDTO> categories) {
+        return ofPage(categories.stream().map(CategoryVersionDTO::of).toList(), false);
+    }
+
+    /**
+     * @param rows    the categories of the page, in page order
+     * @param hasNext whether a next page exists, so the tag changes when the last page stops being the last
+     */
+    public static CategoryValidator ofPage(List<CategoryVersionDTO> rows, boolean hasNext) {
+        PageBuilder page = new PageBuilder();
+        for (CategoryVersionDTO row : rows) {
+            page.add(row.getId(), versionOf(row));
+        }
+        Instant lastModified = rows.stream()
+                .map(CategoryVersionDTO::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .orElse(null);
+        return page.build(hasNext, lastModified);
+    }
+
+    /**
+     * Validator of a page, computed row by row as the page is read, without keeping the rows.
+     */
+    public static PageBuilder pageBuilder() {
+        return new PageBuilder();
+    }
+
+    public static final class PageBuilder {
+
+        private final MessageDigest digest = sha256();
+
+        private final byte[] entry = new byte[42];
+
+        private PageBuilder() {
+        }
+
+        /**
+         * @param version 0 for a category without version
+         */
+        public void add(long id, long version) {
+            int length = put(id, 0);
+            entry[length++] = ':';
+            length = put(version, length);
+            entry[length++] = ';';
+            digest.update(entry, 0, length);
+        }
+
+        /**
+         * @param hasNext      whether a next page exists
+         * @param lastModified the latest update of the categories added, null if none has one
+         */
+        public CategoryValidator build(boolean hasNext, Instant lastModified) {
+            digest.update((byte) (hasNext ? 1 : 0));
+            byte[] hash = digest.digest();
+            String tag = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, PAGE_TAG_BYTES));
+            return new CategoryValidator("\"p-" + tag + "\"", lastModified);
+        }
+
+        /**
+         * Writes the decimal digits of a value into the entry, as {@link Long#toString(long)} would.
+         */
+        private int put(long value, int position) {
+            if (value < 0) {
+                byte[] digits = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(digits, 0, entry, position, digits.length);
+                return position + digits.length;
+            }
+            int end = position;
+            for (long rest = value; rest >= 10; rest /= 10) {
+                end++;
+            }
+            for (int i = end; i >= position; i--) {
+                entry[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            return end + 1;
+        }
+    }
+
+    private static long versionOf(CategoryVersionDTO category) {
+        return category.getVersion() == null ? 0L : category.getVersion();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.snapshot;
+
+import com.ecommerce.service.CategoryValidator;
+
+/**
+ * A response body already serialized to JSON, with the validator of the categories it holds.
+ */
+public record CategoryJson(byte[] body, CategoryValidator validator) {
+}
@@ -0,0 +1,445 @@
+package com.ecommerce.snapshot;
+
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategoryVersionDTO;
+import com.ecommerce.service.CategoryCursor;
+import com.ecommerce.service.CategoryValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the whole category table, ordered by id, with every category already
+ * serialized to JSON.
+ * <p>
+ * A page body is put together by copying the JSON of its categories between the fixed parts of
+ * the {@link CategoryPageDTO} JSON, so nothing is serialized per request; the default first page
+ * and the unbounded listing are kept whole once they have been asked for.
+ * <p>
+ * The categories are held in blocks of consecutive ids and the name index in a fixed number of
+ * shards. A change produces a new snapshot that copies the one block and the one or two name
+ * shards it touches and shares the rest, so its cost does not grow with the table. The whole
+ * listings it makes stale are put together again the next time they are read.
+ */
+public final class CategorySnapshot {
+
+    /**
+     * A block that grows past this size is split in two.
+     */
+    static final int MAX_BLOCK_SIZE = 512;
+
+    private static final int NAME_SHARDS = 256;
+
+    private static final Comparator<CategoryDTO> BY_ID = Comparator.comparing(CategoryDTO::getId);
+
+    private static final byte[] PAGE_START = ascii("{\"content\":");
+
+    private static final byte[] PAGE_NEXT_CURSOR = ascii(",\"nextCursor\":");
+
+    private static final byte[] PAGE_END = ascii("}");
+
+    private static final byte[] NULL = ascii("null");
+
+    private final ObjectWriter writer;
+
+    private final int defaultPageSize;
+
+    private final Block[] blocks;
+
+    private final long[] firstIds;
+
+    private final Map<String, Row>[] names;
+
+    private final int size;
+
+    private volatile CategoryJson firstPage;
+
+    private volatile List<CategoryDTO> all;
+
+    private volatile byte[] allJson;
+
+    private volatile CategoryValidator allValidator;
+
+    private CategorySnapshot(ObjectWriter writer, int defaultPageSize, Block[] blocks, long[] firstIds,
+                             Map<String, Row>[] names, int size, CategoryJson firstPage) {
+        this.writer = writer;
+        this.defaultPageSize = defaultPageSize;
+        this.blocks = blocks;
+        this.firstIds = firstIds;
+        this.names = names;
+        this.size = size;
+        this.firstPage = firstPage;
+    }
+
+    /**
+     * @param categories      every category of the table
+     * @param writer          writer of a {@link CategoryDTO}, configured as the one of the HTTP responses
+     * @param defaultPageSize page size of a listing requested without a limit
+     */
+    public static CategorySnapshot of(List<CategoryDTO> categories, ObjectWriter writer, int defaultPageSize) {
+        List<CategoryDTO> byId = new ArrayList<>(categories);
+        byId.sort(BY_ID);
+        int blockSize = MAX_BLOCK_SIZE / 2;
+        Block[] blocks = new Block[(byId.size() + blockSize - 1) / blockSize];
+        long[] firstIds = new long[blocks.length];
+        Map<String, Row>[] names = emptyNames();
+        for (int b = 0; b < blocks.length; b++) {
+            int from = b * blockSize;
+            int to = Math.min(byId.size(), from + blockSize);
+            long[] ids = new long[to - from];
+            Row[] rows = new Row[to - from];
+            for (int i = from; i < to; i++) {
+                CategoryDTO category = byId.get(i);
+                ids[i - from] = category.getId();
+                rows[i - from] = new Row(category, serialize(writer, category));
+                String key = CategoryNameCache.normalize(category.getCategoryName());
+                shardOf(names, key).put(key, rows[i - from]);
+            }
+            blocks[b] = new Block(ids, rows);
+            firstIds[b] = ids[0];
+        }
+        return new CategorySnapshot(writer, defaultPageSize, blocks, firstIds, names, byId.size(), null);
+    }
+
+    /**
+     * Copy of this snapshot with one category created or changed.
+     *
+     * @param before the category before the change, null for a creation
+     */
+    public CategorySnapshot with(CategoryDTO before, CategoryDTO after) {
+        long id = after.getId();
+        Row row = new Row(after, serialize(writer, after));
+        if (blocks.length == 0) {
+            return new CategorySnapshot(writer, defaultPageSize, new Block[]{new Block(new long[]{id}, new Row[]{row})},
+                    new long[]{id}, withName(null, row), 1, null);
+        }
+        int b = blockOf(id);
+        Block block = blocks[b];
+        int position = Arrays.binarySearch(block.ids(), id);
+        CategoryDTO existing = position >= 0 ? block.rows()[position].category() : null;
+        if (existing != null && isNewer(existing, after)) {
+            // the snapshot was rebuilt after a later change of the category
+            return this;
+        }
+        CategoryJson keptFirstPage = firstPage == null || changesFirstPage(id) ? null : firstPage;
+        if (existing != null) {
+            Row[] rows = block.rows().clone();
+            rows[position] = row;
+            Block[] changed = blocks.clone();
+            changed[b] = new Block(block.ids(), rows);
+            return new CategorySnapshot(writer, defaultPageSize, changed, firstIds, withName(existing, row), size, keptFirstPage);
+        }
+        int insertAt = -position - 1;
+        long[] ids = new long[block.ids().length + 1];
+        Row[] rows = new Row[ids.length];
+        System.arraycopy(block.ids(), 0, ids, 0, insertAt);
+        System.arraycopy(block.rows(), 0, rows, 0, insertAt);
+        ids[insertAt] = id;
+        rows[insertAt] = row;
+        System.arraycopy(block.ids(), insertAt, ids, insertAt + 1, ids.length - insertAt - 1);
+        System.arraycopy(block.rows(), insertAt, rows, insertAt + 1, rows.length - insertAt - 1);
+        Block[] changed;
+        long[] changedFirstIds;
+        if (ids.length <= MAX_BLOCK_SIZE) {
+            changed = blocks.clone();
+            changed[b] = new Block(ids, rows);
+            changedFirstIds = firstIds;
+            if (ids[0] != firstIds[b]) {
+                changedFirstIds = firstIds.clone();
+                changedFirstIds[b] = ids[0];
+            }
+        } else {
+            int half = ids.length / 2;
+            changed = new Block[blocks.length + 1];
+            changedFirstIds = new long[changed.length];
+            System.arraycopy(blocks, 0, changed, 0, b);
+            System.arraycopy(firstIds, 0, changedFirstIds, 0, b);
+            changed[b] = new Block(Arrays.copyOfRange(ids, 0, half), Arrays.copyOfRange(rows, 0, half));
+            changed[b + 1] = new Block(Arrays.copyOfRange(ids, half, ids.length), Arrays.copyOfRange(rows, half, rows.length));
+            changedFirstIds[b] = ids[0];
+            changedFirstIds[b + 1] = ids[half];
+            System.arraycopy(blocks, b + 1, changed, b + 2, blocks.length - b - 1);
+            System.arraycopy(firstIds, b + 1, changedFirstIds, b + 2, firstIds.length - b - 1);
+        }
+        return new CategorySnapshot(writer, defaultPageSize, changed, changedFirstIds, withName(null, row), size + 1, keptFirstPage);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<CategoryDTO> all() {
+        List<CategoryDTO> categories = all;
+        if (categories == null) {
+            List<CategoryDTO> collected = new ArrayList<>(size);
+            for (Block block : blocks) {
+                for (Row row : block.rows()) {
+                    collected.add(row.category());
+                }
+            }
+            categories = Collections.unmodifiableList(collected);
+            all = categories;
+        }
+        return categories;
+    }
+
+    public byte[] allJson() {
+        byte[] json = allJson;
+        if (json == null) {
+            json = serializeArray(rowsAfter(0, size));
+            allJson = json;
+        }
+        return json;
+    }
+
+    public CategoryValidator allValidator() {
+        CategoryValidator validator = allValidator;
+        if (validator == null) {
+            validator = validatorOf(rowsAfter(0, size), false);
+            allValidator = validator;
+        }
+        return validator;
+    }
+
+    /**
+     * @return null when no category has the name
+     */
+    public CategoryDTO get(String name) {
+        Row row = rowNamed(name);
+        return row == null ? null : row.category();
+    }
+
+    /**
+     * @return null when no category has the name
+     */
+    public CategoryJson json(String name) {
+        Row row = rowNamed(name);
+        return row == null ? null : new CategoryJson(row.json(), CategoryValidator.of(row.category()));
+    }
+
+    public CategoryPageDTO page(long afterId, int pageSize) {
+        List<Row> rows = rowsAfter(afterId, pageSize + 1);
+        List<CategoryDTO> categories = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            categories.add(row.category());
+        }
+        return CategoryCursor.toPage(categories, pageSize);
+    }
+
+    public CategoryJson pageJson(long afterId, int pageSize) {
+        if (afterId == 0 && pageSize == defaultPageSize) {
+            return firstPage();
+        }
+        return serializePage(rowsAfter(afterId, pageSize + 1), pageSize);
+    }
+
+    public CategoryValidator pageValidator(long afterId, int pageSize) {
+        if (afterId == 0 && pageSize == defaultPageSize) {
+            return firstPage().validator();
+        }
+        List<Row> rows = rowsAfter(afterId, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        return validatorOf(hasNext ? rows.subList(0, pageSize) : rows, hasNext);
+    }
+
+    /**
+     * Whether the snapshot holds the same categories, in the same versions, as the given rows.
+     */
+    public boolean matches(List<CategoryVersionDTO> rows) {
+        if (rows.size() != size) {
+            return false;
+        }
+        int i = 0;
+        for (Block block : blocks) {
+            for (Row row : block.rows()) {
+                CategoryVersionDTO version = rows.get(i++);
+                CategoryDTO category = row.category();
+                if (!version.getId().equals(category.getId()) || !Objects.equals(version.getVersion(), category.getVersion())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private CategoryJson firstPage() {
+        CategoryJson page = firstPage;
+        if (page == null) {
+            page = serializePage(rowsAfter(0, defaultPageSize + 1), defaultPageSize);
+            firstPage = page;
+        }
+        return page;
+    }
+
+    /**
+     * Whether a change of the category would change the default first page: it does unless the
+     * category comes after the first category past that page.
+     */
+    private boolean changesFirstPage(long id) {
+        List<Row> firstRows = rowsAfter(0, defaultPageSize + 1);
+        return firstRows.size() <= defaultPageSize || id <= firstRows.get(defaultPageSize).category().getId();
+    }
+
+    /**
+     * The index of the block that holds the id, or would hold it.
+     */
+    private int blockOf(long id) {
+        int index = Arrays.binarySearch(firstIds, id);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    /**
+     * Up to {@code count} categories following {@code afterId}, in id order.
+     */
+    private List<Row> rowsAfter(long afterId, int count) {
+        List<Row> rows = new ArrayList<>(Math.min(count, size));
+        if (blocks.length == 0) {
+            return rows;
+        }
+        int b = blockOf(afterId);
+        int index = Arrays.binarySearch(blocks[b].ids(), afterId);
+        for (int i = index >= 0 ? index + 1 : -index - 1; b < blocks.length && rows.size() < count; b++, i = 0) {
+            Row[] blockRows = blocks[b].rows();
+            for (; i < blockRows.length && rows.size() < count; i++) {
+                rows.add(blockRows[i]);
+            }
+        }
+        return rows;
+    }
+
+    private Row rowNamed(String name) {
+        String key = CategoryNameCache.normalize(name);
+        return shardOf(names, key).get(key);
+    }
+
+    /**
+     * Copy of the name index with the category of {@code row} under its name, and without the
+     * former name of the category when it is replacing {@code replaced}. Only the shards that
+     * change are copied.
+     */
+    private Map<String, Row>[] withName(CategoryDTO replaced, Row row) {
+        Map<String, Row>[] changed = names.clone();
+        if (replaced != null) {
+            String formerKey = CategoryNameCache.normalize(replaced.getCategoryName());
+            int shard = shardIndex(formerKey);
+            changed[shard] = new HashMap<>(names[shard]);
+            changed[shard].remove(formerKey);
+        }
+        String key = CategoryNameCache.normalize(row.category().getCategoryName());
+        int shard = shardIndex(key);
+        if (changed[shard] == names[shard]) {
+            changed[shard] = new HashMap<>(names[shard]);
+        }
+        changed[shard].put(key, row);
+        return changed;
+    }
+
+    private CategoryJson serializePage(List<Row> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Row> content = hasNext ? rows.subList(0, pageSize) : rows;
+        byte[] nextCursor = hasNext
+                ? ascii("\"" + CategoryCursor.encode(content.get(content.size() - 1).category().getId()) + "\"")
+                : NULL;
+        byte[] array = serializeArray(content);
+        byte[] body = new byte[PAGE_START.length + array.length + PAGE_NEXT_CURSOR.length + nextCursor.length + PAGE_END.length];
+        int position = copy(PAGE_START, body, 0);
+        position = copy(array, body, position);
+        position = copy(PAGE_NEXT_CURSOR, body, position);
+        position = copy(nextCursor, body, position);
+        copy(PAGE_END, body, position);
+        return new CategoryJson(body, validatorOf(content, hasNext));
+    }
+
+    private static CategoryValidator validatorOf(List<Row> rows, boolean hasNext) {
+        CategoryValidator.PageBuilder page = CategoryValidator.pageBuilder();
+        Instant lastModified = null;
+        for (Row row : rows) {
+            CategoryDTO category = row.category();
+            page.add(category.getId(), category.getVersion() == null ? 0L : category.getVersion());
+            if (category.getUpdatedAt() != null && (lastModified == null || category.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = category.getUpdatedAt();
+            }
+        }
+        return page.build(hasNext, lastModified);
+    }
+
+    private static byte[] serializeArray(List<Row> rows) {
+        int length = 2 + Math.max(0, rows.size() - 1);
+        for (Row row : rows) {
+            length += row.json().length;
+        }
+        byte[] array = new byte[length];
+        array[0] = '[';
+        int position = 1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                array[position++] = ',';
+            }
+            position = copy(rows.get(i).json(), array, position);
+        }
+        array[position] = ']';
+        return array;
+    }
+
+    private static boolean isNewer(CategoryDTO category, CategoryDTO than) {
+        return category.getVersion() != null && than.getVersion() != null && category.getVersion() > than.getVersion();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Row>[] emptyNames() {
+        Map<String, Row>[] names = new Map[NAME_SHARDS];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new HashMap<>();
+        }
+        return names;
+    }
+
+    private static Map<String, Row> shardOf(Map<String, Row>[] names, String key) {
+        return names[shardIndex(key)];
+    }
+
+    private static int shardIndex(String key) {
+        return Math.floorMod(key.hashCode(), NAME_SHARDS);
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static byte[] serialize(ObjectWriter writer, CategoryDTO category) {
+        try {
+            return writer.writeValueAsBytes(category);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize category " + category.getId(), e);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A category with its JSON.
+     */
+    private record Row(CategoryDTO category, byte[] json) {
+    }
+
+    /**
+     * Categories of consecutive ids, in id order.
+     */
+    private record Block(long[] ids, Row[] rows) {
+    }
+}
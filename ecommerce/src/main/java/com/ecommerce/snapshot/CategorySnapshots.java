@@ -0,0 +1,128 @@
+package com.ecommerce.snapshot;
+
+import com.ecommerce.config.CategoryListingProperties;
+import com.ecommerce.config.CategorySnapshotProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CategorySnapshot} when category.snapshot.enabled is set.
+ * <p>
+ * Readers take the reference and never lock. Changes made through this instance are applied
+ * copy-on-write as they happen; a periodic reconciliation compares the ids and versions of the
+ * table with the snapshot and reloads it when they differ, which picks up changes made by other
+ * instances or directly in the database.
+ */
+@Slf4j
+@Component
+public class CategorySnapshots implements SmartInitializingSingleton, DisposableBean, MeterBinder {
+
+    private final CategorySnapshotProperties properties;
+
+    private final CategoryListingProperties listingProperties;
+
+    private final CategoryRepository categoryRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    private final ObjectWriter writer;
+
+    private final AtomicReference<CategorySnapshot> current = new AtomicReference<>();
+
+    private ScheduledExecutorService reconciler;
+
+    public CategorySnapshots(CategorySnapshotProperties properties, CategoryListingProperties listingProperties,
+                             CategoryRepository categoryRepository, TransactionOperations transactionOperations,
+                             ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.listingProperties = listingProperties;
+        this.categoryRepository = categoryRepository;
+        this.transactionOperations = transactionOperations;
+        this.writer = objectMapper.writerFor(CategoryDTO.class);
+    }
+
+    /**
+     * @return null when snapshot mode is off
+     */
+    public CategorySnapshot current() {
+        return current.get();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuild();
+        long intervalMillis = properties.getReconcileInterval().toMillis();
+        reconciler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("category-snapshot-"));
+        reconciler.scheduleWithFixedDelay(this::reconcile, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reloads the snapshot from the table.
+     */
+    public void rebuild() {
+        // read-write, so that it is answered by the primary and never by a lagging replica
+        current.set(transactionOperations.execute(status ->
+                CategorySnapshot.of(categoryRepository.findAllProjected(), writer, listingProperties.getDefaultLimit())));
+    }
+
+    /**
+     * Reloads the snapshot if the table has changed in a way it does not reflect.
+     */
+    public void reconcile() {
+        try {
+            Boolean upToDate = transactionOperations.execute(status ->
+                    current.get().matches(categoryRepository.findAllVersions()));
+            if (!Boolean.TRUE.equals(upToDate)) {
+                log.info("Category snapshot is behind the table, reloading it");
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile the category snapshot, serving the current one", e);
+        }
+    }
+
+    /**
+     * Applies the change on the thread that made it. {@link CategorySnapshot#with} only copies the
+     * block and name shards of the category, so neither a bulk import nor a retried update of the
+     * reference costs a pass over the whole table.
+     */
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        current.updateAndGet(snapshot -> snapshot == null ? null : snapshot.with(event.getBefore(), event.getAfter()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("category.snapshot.size", current, reference -> reference.get() == null ? 0 : reference.get().size())
+                .description("Categories held by the in-memory snapshot")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+}
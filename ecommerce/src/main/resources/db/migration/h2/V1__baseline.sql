@@ -0,0 +1,13 @@
+-- The embedded database of the tests and of local runs, kept in step with the MySQL migrations of
+-- db/migration/mysql, in the types Hibernate maps the entities to on H2.
+
+create table category (
+    id bigint generated by default as identity,
+    category_description varchar(255) not null,
+    category_name varchar(255) not null,
+    image_url varchar(255) not null,
+    primary key (id)
+);
+
+alter table category add constraint UK_lroeo5fvfdeg4hpicn4lw7x9b unique (category_name);
+alter table category add constraint UK_c4u5d5h9uagk3nvroxwd7npoj unique (image_url);
@@ -0,0 +1,3 @@
+-- See db/migration/mysql/V2__category_name_constraint.sql.
+alter table category drop constraint UK_lroeo5fvfdeg4hpicn4lw7x9b;
+alter table category add constraint uk_category_name unique (category_name);
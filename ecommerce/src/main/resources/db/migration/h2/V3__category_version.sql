@@ -0,0 +1,3 @@
+-- See db/migration/mysql/V3__category_version.sql.
+alter table category add column version bigint;
+alter table category add column updated_at timestamp(6) with time zone;
@@ -0,0 +1,7 @@
+-- See db/migration/mysql/V4__category_tree.sql.
+alter table category add column parent_id bigint;
+alter table category add column path varchar(512) default '/' not null;
+alter table category add column depth integer default 0 not null;
+
+create index idx_category_path on category (path);
+create index idx_category_parent_id on category (parent_id);
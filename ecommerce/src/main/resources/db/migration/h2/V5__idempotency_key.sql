@@ -0,0 +1,12 @@
+-- See db/migration/mysql/V5__idempotency_key.sql.
+create table idempotency_key (
+    status integer,
+    claimed_at timestamp(6) with time zone not null,
+    fingerprint varchar(64) not null,
+    content_type varchar(255),
+    idempotency_key varchar(255) not null,
+    body blob,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_key_claimed_at on idempotency_key (claimed_at);
@@ -0,0 +1,10 @@
+-- See db/migration/mysql/V6__category_change.sql.
+create table category_change (
+    changed_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    origin varchar(64) not null,
+    payload varchar(8192) not null,
+    primary key (id)
+);
+
+create index idx_category_change_changed_at on category_change (changed_at);
@@ -0,0 +1,11 @@
+-- See db/migration/mysql/V7__category_indexes.sql. H2 has no accent-sensitive, case-insensitive
+-- collation per column: varchar_ignorecase is case-insensitive and accent-sensitive, as the
+-- MySQL collation.
+alter table category drop constraint uk_category_name;
+alter table category alter column category_name set data type varchar_ignorecase(255);
+alter table category add constraint uk_category_name unique (category_name);
+
+alter table category drop constraint UK_c4u5d5h9uagk3nvroxwd7npoj;
+alter table category add constraint uk_category_image_url unique (image_url);
+
+create index idx_category_version on category (id, version, updated_at);
@@ -0,0 +1,9 @@
+-- See db/migration/mysql/V8__category_id_sequence.sql.
+create table if not exists category_id_sequence (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
+
+insert into category_id_sequence (sequence_name, next_val)
+select 'category', coalesce(max(id), 0) + 500 from category;
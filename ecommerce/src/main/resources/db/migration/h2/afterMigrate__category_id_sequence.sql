@@ -0,0 +1,4 @@
+-- See db/migration/mysql/afterMigrate__category_id_sequence.sql.
+update category_id_sequence
+set next_val = greatest(next_val, (select coalesce(max(id), 0) + 500 from category))
+where sequence_name = 'category';
@@ -0,0 +1,15 @@
+-- The schema as spring.jpa.hibernate.ddl-auto=update created it before the migrations took over:
+-- the category table of the first release, with the unique keys named by Hibernate. Databases
+-- created that way are baselined at this version (spring.flyway.baseline-on-migrate) and only get
+-- the migrations that follow.
+
+create table category (
+    id bigint not null auto_increment,
+    category_description varchar(255) not null,
+    category_name varchar(255) not null,
+    image_url varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table category add constraint UK_lroeo5fvfdeg4hpicn4lw7x9b unique (category_name);
+alter table category add constraint UK_c4u5d5h9uagk3nvroxwd7npoj unique (image_url);
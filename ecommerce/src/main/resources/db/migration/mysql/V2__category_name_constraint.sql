@@ -0,0 +1,5 @@
+-- Duplicate names are detected by the database: a violation of uk_category_name is translated into
+-- CategoryNameAlreadyExistsException, so the constraint gets a name of ours.
+alter table category
+    drop index UK_lroeo5fvfdeg4hpicn4lw7x9b,
+    add constraint uk_category_name unique (category_name);
@@ -0,0 +1,5 @@
+-- Version and time of the last change of a category, from which the ETag and Last-Modified of the
+-- conditional GETs are derived. Existing categories have neither until they are next updated.
+alter table category
+    add column version bigint,
+    add column updated_at datetime(6);
@@ -0,0 +1,9 @@
+-- The category tree as materialized paths, see Category#getPath(). Existing categories become
+-- top-level categories.
+alter table category
+    add column parent_id bigint,
+    add column path varchar(512) default '/' not null,
+    add column depth integer default 0 not null;
+
+create index idx_category_path on category (path);
+create index idx_category_parent_id on category (parent_id);
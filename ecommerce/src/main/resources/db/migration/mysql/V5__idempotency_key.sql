@@ -0,0 +1,13 @@
+-- Responses of the creates and updates sent with an Idempotency-Key, shared by every instance when
+-- category.idempotency.store=jdbc, see JdbcIdempotencyStore.
+create table idempotency_key (
+    status integer,
+    claimed_at datetime(6) not null,
+    fingerprint varchar(64) not null,
+    content_type varchar(255),
+    idempotency_key varchar(255) not null,
+    body mediumblob,
+    primary key (idempotency_key)
+) engine=InnoDB;
+
+create index idx_idempotency_key_claimed_at on idempotency_key (claimed_at);
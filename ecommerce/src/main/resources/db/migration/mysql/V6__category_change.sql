@@ -0,0 +1,11 @@
+-- Changes published to the other instances by the jdbc invalidation transport, see
+-- JdbcInvalidationTransport.
+create table category_change (
+    changed_at datetime(6) not null,
+    id bigint not null auto_increment,
+    origin varchar(64) not null,
+    payload varchar(8192) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_category_change_changed_at on category_change (changed_at);
@@ -0,0 +1,18 @@
+-- Category names are unique and looked up regardless of case, but accents tell names apart:
+-- "Papa" and "papa" are the same category, "Papa" and "Papá" are not. The collation makes both
+-- the uk_category_name index and the equality of findByCategoryName behave that way. Fails if two
+-- existing names only differ in case: rename one of them first.
+alter table category
+    modify category_name varchar(255) not null collate utf8mb4_0900_as_ci;
+
+-- Image urls are compared byte for byte, as the servers that serve them do, under a name of ours
+-- instead of the one Hibernate generated.
+alter table category
+    drop index UK_c4u5d5h9uagk3nvroxwd7npoj,
+    modify image_url varchar(255) not null collate utf8mb4_bin,
+    add constraint uk_category_image_url unique (image_url);
+
+-- The listing reads rows in id order from the clustered primary key, which covers the full
+-- projection already. The page validators only need id, version and updated_at: this index covers
+-- them without reading the descriptions and urls of the rows.
+create index idx_category_version on category (id, version, updated_at);
@@ -0,0 +1,12 @@
+-- Table of the opt-in pooled ids of META-INF/orm-pooled-ids.xml, which Hibernate no longer creates.
+-- Hibernate takes the value it reads as the last id of a block of allocation-size (500) ids and
+-- hands out the 499 before it first. The row is seeded 500 past the highest id the IDENTITY column
+-- gave out, so that the first block starts after it.
+create table if not exists category_id_sequence (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into category_id_sequence (sequence_name, next_val)
+select 'category', coalesce(max(id), 0) + 500 from category;
@@ -0,0 +1,6 @@
+-- Runs after every migrate, that is at every start. Moves the pooled ids past the categories the
+-- IDENTITY column created since the last start, in case pooled ids are switched on now. See
+-- V8__category_id_sequence.sql for the 500; the value never moves back.
+update category_id_sequence
+set next_val = greatest(next_val, (select coalesce(max(id), 0) + 500 from category))
+where sequence_name = 'category';
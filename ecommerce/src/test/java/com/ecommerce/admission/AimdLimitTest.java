@@ -0,0 +1,94 @@
+package com.ecommerce.admission;
+
+import com.ecommerce.config.CategoryAdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class AimdLimitTest {
+
+    private static final long SLOW_NANOS = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void whenLimitIsReachedThenFurtherRequestsAreNotAdmitted() {
+        // given
+        AimdLimit limit = new AimdLimit(new CategoryAdmissionProperties.Budget(2, 1, 10, Duration.ofMillis(100)));
+
+        // when
+        boolean first = limit.tryAcquire();
+        boolean second = limit.tryAcquire();
+        boolean third = limit.tryAcquire();
+
+        // then
+        assertThat(first, is(true));
+        assertThat(second, is(true));
+        assertThat(third, is(false));
+        assertThat(limit.getInFlight(), is(2));
+    }
+
+    @Test
+    void whenResponsesAreFastAndTheLimitIsUsedThenItGrowsUpToTheMaximum() {
+        // given
+        AimdLimit limit = new AimdLimit(new CategoryAdmissionProperties.Budget(2, 1, 3, Duration.ofSeconds(10)));
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            release(limit, 0, false);
+            release(limit, 0, false);
+        }
+
+        // then
+        assertThat(limit.getLimit(), is(3));
+        assertThat(limit.getInFlight(), is(0));
+    }
+
+    @Test
+    void whenResponsesAreFastButTheLimitIsMostlyUnusedThenItDoesNotGrow() {
+        // given
+        AimdLimit limit = new AimdLimit(new CategoryAdmissionProperties.Budget(10, 1, 100, Duration.ofSeconds(10)));
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            release(limit, 0, false);
+        }
+
+        // then
+        assertThat(limit.getLimit(), is(10));
+    }
+
+    @Test
+    void whenResponsesAreSlowOrFailThenTheLimitIsCutOncePerRoundDownToTheMinimum() {
+        // given
+        AimdLimit limit = new AimdLimit(new CategoryAdmissionProperties.Budget(10, 4, 100, Duration.ofMillis(100)));
+        long admitted = System.nanoTime();
+        limit.tryAcquire();
+        limit.tryAcquire();
+
+        // when two requests of the same round are slow
+        limit.release(admitted, admitted + SLOW_NANOS, false);
+        limit.release(admitted, admitted + SLOW_NANOS + 1, false);
+
+        // then
+        assertThat(limit.getLimit(), is(9));
+
+        // when later rounds fail
+        for (int i = 1; i <= 20; i++) {
+            limit.tryAcquire();
+            limit.release(admitted + i * SLOW_NANOS + 2, admitted + i * SLOW_NANOS + 3, true);
+        }
+
+        // then
+        assertThat(limit.getLimit(), is(4));
+    }
+
+    private static void release(AimdLimit limit, long elapsedNanos, boolean serverError) {
+        long startNanos = System.nanoTime();
+        limit.release(startNanos, startNanos + elapsedNanos, serverError);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.admission;
+
+import com.ecommerce.config.CategoryAdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CategoryAdmissionFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private CategoryAdmissionFilter admissionFilter;
+
+    @BeforeEach
+    void setUp() {
+        CategoryAdmissionProperties properties = new CategoryAdmissionProperties();
+        properties.setRetryAfter(Duration.ofMillis(1500));
+        properties.setLookup(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        properties.setListing(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        properties.setUnbounded(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        properties.setTree(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        properties.setSuggest(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        properties.setWrite(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        properties.setBulkImport(new CategoryAdmissionProperties.Budget(1, 1, 1, Duration.ofSeconds(10)));
+        admissionFilter = new CategoryAdmissionFilter(properties);
+        admissionFilter.bindTo(registry);
+    }
+
+    @Test
+    void whenListingLimitIsReachedThenListingsAreRejectedWithRetryAfterButOtherRoutesAreAdmitted() throws ServletException, IOException {
+        // given a listing is in flight while the others arrive
+        MockHttpServletResponse secondListing = new MockHttpServletResponse();
+        MockHttpServletResponse lookup = new MockHttpServletResponse();
+        MockHttpServletResponse unbounded = new MockHttpServletResponse();
+        MockHttpServletResponse subtree = new MockHttpServletResponse();
+        MockHttpServletResponse suggest = new MockHttpServletResponse();
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        FilterChain inFlight = (request, response) -> {
+            admissionFilter.doFilter(request("GET", "/category"), secondListing, new MockFilterChain());
+            admissionFilter.doFilter(request("GET", "/category/Soccer"), lookup, new MockFilterChain());
+            MockHttpServletRequest unboundedRequest = request("GET", "/category");
+            unboundedRequest.setParameter("unbounded", "true");
+            admissionFilter.doFilter(unboundedRequest, unbounded, new MockFilterChain());
+            admissionFilter.doFilter(request("GET", "/category/Soccer/subtree"), subtree, new MockFilterChain());
+            admissionFilter.doFilter(request("GET", "/category/suggest"), suggest, new MockFilterChain());
+            admissionFilter.doFilter(request("POST", "/category/Soccer/update"), write, new MockFilterChain());
+        };
+
+        // when
+        MockHttpServletResponse firstListing = new MockHttpServletResponse();
+        admissionFilter.doFilter(request("GET", "/category"), firstListing, inFlight);
+
+        // then
+        assertThat(firstListing.getStatus(), is(200));
+        assertThat(lookup.getStatus(), is(200));
+        assertThat(unbounded.getStatus(), is(200));
+        assertThat(subtree.getStatus(), is(200));
+        assertThat(suggest.getStatus(), is(200));
+        assertThat(write.getStatus(), is(200));
+        assertThat(secondListing.getStatus(), is(503));
+        assertThat(secondListing.getHeader(HttpHeaders.RETRY_AFTER), is("2"));
+        assertThat(secondListing.getContentAsString(), containsString("overloaded"));
+        assertThat(registry.get("category.admission.rejected").tag("route", "listing").counter().count(), is(1.0));
+        assertThat(registry.get("category.admission.rejected").tag("route", "lookup").counter().count(), is(0.0));
+        assertThat(registry.get("category.admission.limit").tag("route", "listing").gauge().value(), is(1.0));
+        assertThat(registry.get("category.admission.limit").tag("route", "unbounded").gauge().value(), is(1.0));
+    }
+
+    @Test
+    void whenLookupsAndImportsArriveThenLookupsShareOneLimitAndImportsHaveTheirOwn() throws ServletException, IOException {
+        // given an import is in flight while the others arrive
+        MockHttpServletResponse lookup = new MockHttpServletResponse();
+        MockHttpServletResponse secondImport = new MockHttpServletResponse();
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        FilterChain importing = (request, response) -> {
+            FilterChain reading = (readRequest, readResponse) ->
+                    admissionFilter.doFilter(request("POST", "/category/lookup"), lookup, new MockFilterChain());
+            admissionFilter.doFilter(request("GET", "/category/Soccer"), new MockHttpServletResponse(), reading);
+            admissionFilter.doFilter(request("POST", "/category/import"), secondImport, new MockFilterChain());
+            admissionFilter.doFilter(request("POST", "/category/create"), write, new MockFilterChain());
+        };
+
+        // when
+        MockHttpServletResponse firstImport = new MockHttpServletResponse();
+        admissionFilter.doFilter(request("POST", "/category/import"), firstImport, importing);
+
+        // then
+        assertThat(firstImport.getStatus(), is(200));
+        assertThat(lookup.getStatus(), is(503));
+        assertThat(secondImport.getStatus(), is(503));
+        assertThat(write.getStatus(), is(200));
+        assertThat(registry.get("category.admission.rejected").tag("route", "import").counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenRequestIsAStreamOrNotACategoryRequestThenItIsNeverLimited() throws ServletException, IOException {
+        // given
+        MockHttpServletResponse export = new MockHttpServletResponse();
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+        FilterChain inFlight = (request, response) -> {
+            admissionFilter.doFilter(request("GET", "/category/export"), export, new MockFilterChain());
+            admissionFilter.doFilter(request("GET", "/actuator/health"), actuator, new MockFilterChain());
+        };
+
+        // when
+        admissionFilter.doFilter(request("GET", "/category/suggest"), new MockHttpServletResponse(), inFlight);
+
+        // then
+        assertThat(export.getStatus(), is(200));
+        assertThat(actuator.getStatus(), is(200));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,276 @@
+package com.ecommerce.audit;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.config.CategoryAuditProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CategoryAuditLogTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CategoryAuditProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CategoryAuditProperties();
+        properties.setDirectory(directory);
+        properties.setFsync(false);
+    }
+
+    @Test
+    void whenCategoriesChangeThenTheLogReplaysThemInOrderWithBeforeAndAfter() throws IOException {
+        // given
+        CategoryDTO created = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        CategoryDTO renamed = CategoryDTOBuilder.builder().categoryName("Football").version(1L).build().toCategoryDTO();
+
+        // when
+        CategoryAuditLog auditLog = startedLog();
+        auditLog.onCategoryChanged(CategoryChangedEvent.created(created));
+        auditLog.onCategoryChanged(CategoryChangedEvent.updated(created, renamed));
+        auditLog.stop();
+
+        // then
+        List<CategoryAuditRecord> records = replay(auditLog, 0);
+        assertThat(auditLog.lag(), is(0L));
+        assertThat(records, hasSize(2));
+        assertThat(records.get(0).getSequence(), is(0L));
+        assertThat(records.get(0).getType(), is(CategoryAuditType.CREATED));
+        assertThat(records.get(0).getBefore(), is(nullValue()));
+        assertThat(records.get(0).getAfter().getCategoryName(), is("Soccer"));
+        assertThat(records.get(1).getSequence(), is(1L));
+        assertThat(records.get(1).getType(), is(CategoryAuditType.UPDATED));
+        assertThat(records.get(1).getBefore().getCategoryName(), is("Soccer"));
+        assertThat(records.get(1).getAfter().getCategoryName(), is("Football"));
+        assertThat(records.get(1).getAfter().getVersion(), is(1L));
+    }
+
+    @Test
+    void whenReplayStartsFromASequenceThenEarlierRecordsAreSkipped() throws IOException {
+        // given
+        CategoryAuditLog auditLog = startedLog();
+        createCategories(auditLog, 1, 10);
+        auditLog.stop();
+
+        // when
+        List<CategoryAuditRecord> records = replay(auditLog, 7);
+
+        // then
+        assertThat(sequences(records), contains(7L, 8L, 9L));
+    }
+
+    @Test
+    void whenLogIsReopenedThenSequencesContinueWhereTheyStopped() throws IOException {
+        // given
+        CategoryAuditLog first = startedLog();
+        createCategories(first, 1, 3);
+        first.stop();
+
+        // when
+        CategoryAuditLog second = startedLog();
+        createCategories(second, 4, 5);
+        second.stop();
+
+        // then
+        assertThat(sequences(replay(second, 0)), contains(0L, 1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    void whenSegmentsFillUpThenTheLogRollsOverAndReplaysAcrossThem() throws IOException {
+        // given
+        properties.setSegmentSize(DataSize.ofBytes(512));
+        properties.setBatchSize(1);
+
+        // when
+        CategoryAuditLog auditLog = startedLog();
+        createCategories(auditLog, 1, 20);
+        auditLog.stop();
+
+        // then
+        assertThat(segmentFiles(), hasSize(greaterThan(1)));
+        assertThat(sequences(replay(auditLog, 0)), equalTo(LongStream.range(0, 20).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    void whenTheLastRecordIsTornThenItIsDroppedOnReopen() throws IOException {
+        // given
+        CategoryAuditLog first = startedLog();
+        createCategories(first, 1, 3);
+        first.stop();
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        // when
+        CategoryAuditLog second = startedLog();
+        createCategories(second, 4, 4);
+        second.stop();
+
+        // then
+        List<CategoryAuditRecord> records = replay(second, 0);
+        assertThat(sequences(records), contains(0L, 1L, 2L));
+        assertThat(records.get(2).getAfter().getCategoryName(), is("category-4"));
+    }
+
+    @Test
+    void whenARecordCannotBeSerializedThenItIsLeftOutAndTheNextOnesAreWritten() throws IOException {
+        // given
+        ObjectMapper failingMapper = new ObjectMapper() {
+            @Override
+            public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+                if (((CategoryAuditRecord) value).getAfter().getCategoryName().equals("category-2")) {
+                    throw new JsonMappingException(null, "cannot serialize category-2");
+                }
+                return super.writeValueAsBytes(value);
+            }
+        }.findAndRegisterModules();
+        CategoryAuditLog auditLog = new CategoryAuditLog(properties, failingMapper);
+        auditLog.start();
+
+        // when
+        createCategories(auditLog, 1, 3);
+        auditLog.stop();
+
+        // then
+        List<CategoryAuditRecord> records = replay(auditLog, 0);
+        assertThat(sequences(records), contains(0L, 1L));
+        assertThat(records.get(1).getAfter().getCategoryName(), is("category-3"));
+        assertThat(auditLog.unwritable(), is(1L));
+        assertThat(auditLog.lag(), is(0L));
+    }
+
+    @Test
+    void whenAnAppendFailsThenItsPartialRecordIsCutOffBeforeItIsRetried() throws IOException {
+        // given
+        CategoryAuditSegments segments = CategoryAuditSegments.open(directory, DataSize.ofMegabytes(1).toBytes(), false);
+        segments.append(List.of("first".getBytes()));
+        segments.close();
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 42, 1, 2, 3}));
+        }
+
+        // when the channel is closed the append fails after the bytes above were written
+        List<byte[]> second = List.of("second".getBytes());
+        assertThrows(IOException.class, () -> segments.append(second));
+        segments.append(second);
+        segments.close();
+
+        // then
+        List<String> payloads = new ArrayList<>();
+        CategoryAuditSegments.replay(directory, 0, (sequence, payload) -> payloads.add(sequence + ":" + new String(payload)));
+        assertThat(payloads, contains("0:first", "1:second"));
+    }
+
+    @Test
+    @Timeout(30)
+    void whenTheLogCannotBeWrittenWhenItStopsThenTheWriterExitsAndTheChangesAreCountedAsAbandoned() throws IOException {
+        // given a log that rolls to a new segment on every append, written once
+        Path logDirectory = directory.resolve("log");
+        properties.setDirectory(logDirectory);
+        properties.setSegmentSize(DataSize.ofBytes(1));
+        CategoryAuditLog auditLog = startedLog();
+        createCategories(auditLog, 1, 1);
+        while (auditLog.lag() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // when no segment can be created any more
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDirectory);
+        Files.createFile(logDirectory);
+        createCategories(auditLog, 2, 3);
+        auditLog.stop();
+
+        // then
+        assertThat(auditLog.abandoned(), is(2L));
+        assertThat(auditLog.lag(), is(0L));
+    }
+
+    @Test
+    void whenQueueIsFullAndOverflowDropsThenChangesAreCountedAsDropped() {
+        // given
+        properties.setQueueCapacity(2);
+        properties.setOverflow(CategoryAuditProperties.Overflow.DROP);
+        CategoryAuditLog auditLog = new CategoryAuditLog(properties, objectMapper);
+        CategoryAuditRecord record = CategoryAuditRecord.builder()
+                .type(CategoryAuditType.CREATED)
+                .after(CategoryDTOBuilder.builder().build().toCategoryDTO())
+                .build();
+
+        // when the writer is not started nothing leaves the queue
+        List<Boolean> accepted = Stream.generate(() -> record).limit(4)
+                .map(auditLog::enqueue)
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(accepted, contains(true, true, false, false));
+        assertThat(auditLog.dropped(), is(2L));
+        assertThat(auditLog.lag(), is(2L));
+    }
+
+    private CategoryAuditLog startedLog() {
+        CategoryAuditLog auditLog = new CategoryAuditLog(properties, objectMapper);
+        auditLog.start();
+        return auditLog;
+    }
+
+    private static void createCategories(CategoryAuditLog auditLog, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            auditLog.onCategoryChanged(CategoryChangedEvent.created(CategoryDTOBuilder.builder()
+                    .id((long) i)
+                    .categoryName("category-" + i)
+                    .build()
+                    .toCategoryDTO()));
+        }
+    }
+
+    private static List<CategoryAuditRecord> replay(CategoryAuditLog auditLog, long fromSequence) throws IOException {
+        List<CategoryAuditRecord> records = new ArrayList<>();
+        auditLog.replay(fromSequence, records::add);
+        return records;
+    }
+
+    private static List<Long> sequences(List<CategoryAuditRecord> records) {
+        return records.stream().map(CategoryAuditRecord::getSequence).collect(Collectors.toList());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.ecommerce.builder;
 import com.ecommerce.dto.request.CategoryDTO;
 import lombok.Builder;
 
+import java.time.Instant;
+
 @Builder
 public class CategoryDTOBuilder {
     @Builder.Default
@@ -17,11 +19,22 @@ public class CategoryDTOBuilder {
     @Builder.Default
     private String imageUrl = "www.test.com";
 
+    private Long parentId;
+
+    @Builder.Default
+    private Long version = 0L;
+
+    @Builder.Default
+    private Instant updatedAt = Instant.parse("2024-01-01T10:15:30Z");
+
     public CategoryDTO toCategoryDTO(){
         return new CategoryDTO(id,
                 categoryName,
                 categoryDescription,
-                imageUrl);
+                imageUrl,
+                parentId,
+                version,
+                updatedAt);
     }
 
 }
@@ -0,0 +1,83 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.config.CategoryCacheProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CategoryNameCacheTest {
+
+    private final CategoryDTO categoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void whenSameNameIsReadWithDifferentCaseThenItIsLoadedOnce() {
+        CategoryNameCache cache = new CategoryNameCache(new CategoryCacheProperties());
+
+        cache.get("Soccer", this::load);
+        Optional<CategoryDTO> found = cache.get(" soccer ", this::load);
+
+        assertThat(found, is(equalTo(Optional.of(categoryDTO))));
+        assertThat(loads.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void whenMissingNameIsReadTwiceThenTheMissIsCached() {
+        CategoryNameCache cache = new CategoryNameCache(new CategoryCacheProperties());
+
+        cache.get("Tennis", this::load);
+        Optional<CategoryDTO> found = cache.get("Tennis", this::load);
+
+        assertThat(found, is(equalTo(Optional.empty())));
+        assertThat(loads.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void whenNameIsInvalidatedThenItIsLoadedAgain() {
+        CategoryNameCache cache = new CategoryNameCache(new CategoryCacheProperties());
+
+        cache.get("Soccer", this::load);
+        cache.invalidate("SOCCER");
+        cache.get("Soccer", this::load);
+
+        assertThat(loads.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenCacheIsDisabledThenEveryReadIsLoaded() {
+        CategoryCacheProperties properties = new CategoryCacheProperties();
+        properties.setEnabled(false);
+        CategoryNameCache cache = new CategoryNameCache(properties);
+
+        cache.get("Soccer", this::load);
+        cache.get("Soccer", this::load);
+
+        assertThat(loads.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenCacheIsBoundThenHitsAndMissesAreExposed() {
+        CategoryNameCache cache = new CategoryNameCache(new CategoryCacheProperties());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("Soccer", this::load);
+        cache.get("Soccer", this::load);
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count(), is(equalTo(1.0)));
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count(), is(equalTo(1.0)));
+    }
+
+    private Optional<CategoryDTO> load(String name) {
+        loads.incrementAndGet();
+        return name.equalsIgnoreCase(categoryDTO.getCategoryName()) ? Optional.of(categoryDTO) : Optional.empty();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryVersionDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.service.CategoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+public class CategorySecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void whenCategoryIsLookedUpByNameAgainThenItIsResolvedFromTheCache() throws Exception {
+        // given
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        entityManagerFactory.getCache().evictAll();
+        categoryRepository.findByCategoryName("Soccer").orElseThrow();
+        statistics.clear();
+
+        // when
+        Category soccer = categoryRepository.findByCategoryName("Soccer").orElseThrow();
+
+        // then
+        assertThat(soccer.getCategoryName(), is("Soccer"));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(statistics.getNaturalIdCacheHitCount(), is(1L));
+        assertThat(statistics.getDomainDataRegionStatistics(Category.CACHE_REGION).getHitCount(), is(1L));
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", Category.CACHE_REGION)
+                .tag("result", "hit")
+                .functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void whenCategoryIsRenamedThenTheOldNameNoLongerResolves() throws Exception {
+        // given
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        categoryRepository.findByCategoryName("Soccer").orElseThrow();
+
+        // when
+        categoryService.update("Soccer", CategoryDTOBuilder.builder().categoryName("Football").build().toCategoryDTO());
+
+        // then
+        assertThat(categoryRepository.findByCategoryName("Soccer").isPresent(), is(false));
+        assertThat(categoryRepository.findByCategoryName("Football").orElseThrow().getVersion(), is(1L));
+    }
+
+    @Test
+    void whenCategoryIsCreatedThenTheCachedListingIsDropped() throws Exception {
+        // given
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        statistics.clear();
+        firstPage();
+        assertThat(firstPage(), hasSize(1));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+
+        // when
+        categoryService.createCategory(CategoryDTOBuilder.builder().categoryName("Basketball").imageUrl("www.basketball.com").build().toCategoryDTO());
+
+        // then
+        assertThat(firstPage(), hasSize(2));
+    }
+
+    @Test
+    void whenTheWholeTableIsReadThenTheResultIsNotCached() throws Exception {
+        // given
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        statistics.clear();
+
+        // when
+        categoryRepository.findAllProjected();
+        categoryRepository.findAllVersions();
+        categoryRepository.findAllProjected();
+
+        // then
+        assertThat(statistics.getQueryCachePutCount(), is(0L));
+        assertThat(statistics.getQueryCacheHitCount(), is(0L));
+    }
+
+    @Test
+    void whenAnotherInstanceChangesACategoryThenItIsEvicted() throws Exception {
+        // given
+        CategoryDTO soccer = categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        categoryRepository.findByCategoryName("Soccer").orElseThrow();
+        assertThat(entityManagerFactory.getCache().contains(Category.class, soccer.getId()), is(true));
+
+        // when
+        eventPublisher.publishEvent(CategoryChangedEvent.remote(soccer, soccer));
+
+        // then
+        assertThat(entityManagerFactory.getCache().contains(Category.class, soccer.getId()), is(false));
+    }
+
+    private List<CategoryVersionDTO> firstPage() {
+        return categoryRepository.findPageVersionsAfter(0, PageRequest.of(0, 10));
+    }
+}
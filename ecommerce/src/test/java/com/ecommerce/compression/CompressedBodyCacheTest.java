@@ -0,0 +1,152 @@
+package com.ecommerce.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.ecommerce.compression.CompressedBodyCache.Listing;
+import com.ecommerce.config.CategoryCompressionProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class CompressedBodyCacheTest {
+
+    private static final byte[] LARGE_BODY = ("[" + "{\"categoryName\":\"Soccer\"},".repeat(100) + "{}]")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private CategoryCompressionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CategoryCompressionProperties();
+    }
+
+    @Test
+    void whenClientAcceptsGzipThenTheBodyIsGzippedOnceAndReusedForTheSameETag() throws IOException {
+        // given
+        CompressedBodyCache cache = boundCache();
+        AtomicInteger produced = new AtomicInteger();
+
+        // when
+        EncodedBody first = cache.get(Listing.PAGE, "\"p-1\"", ContentCoding.GZIP, counting(produced));
+        EncodedBody second = cache.get(Listing.PAGE, "\"p-1\"", ContentCoding.GZIP, counting(produced));
+
+        // then
+        assertThat(produced.get(), is(1));
+        assertThat(second, sameInstance(first));
+        assertThat(first.coding(), is(ContentCoding.GZIP));
+        assertThat(gunzip(first.bytes()), is(LARGE_BODY));
+        assertThat(registry.get("category.compression.ratio").tag("coding", "gzip").summary().mean(), lessThan(0.5));
+        assertThat(registry.get("category.compression.cpu.saved").tag("coding", "gzip").counter().count(), greaterThan(0.0));
+    }
+
+    @Test
+    void whenTheETagChangesThenTheBodyIsProducedAgain() {
+        // given
+        CompressedBodyCache cache = boundCache();
+        AtomicInteger produced = new AtomicInteger();
+
+        // when
+        cache.get(Listing.PAGE, "\"p-1\"", ContentCoding.GZIP, counting(produced));
+        cache.get(Listing.PAGE, "\"p-2\"", ContentCoding.GZIP, counting(produced));
+
+        // then
+        assertThat(produced.get(), is(2));
+    }
+
+    @Test
+    void whenTheBodyIsSmallerThanTheThresholdThenItIsNotCompressed() throws IOException {
+        // given
+        CompressedBodyCache cache = boundCache();
+
+        // when
+        EncodedBody body = cache.get(Listing.PAGE, "\"1-0\"", ContentCoding.GZIP, () -> new int[]{1, 2, 3});
+
+        // then
+        assertThat(body.coding(), is(nullValue()));
+        assertThat(body.bytes(), is(objectMapper.writeValueAsBytes(new int[]{1, 2, 3})));
+    }
+
+    @Test
+    void whenClientAcceptsBrotliThenTheBodyIsBrotliCompressed() throws IOException {
+        // given
+        assumeTrue(Brotli4jLoader.isAvailable(), "brotli4j has no native library for this platform");
+        CompressedBodyCache cache = boundCache();
+
+        // when
+        ContentCoding coding = cache.negotiate("gzip, deflate, br");
+        EncodedBody body = cache.get(Listing.PAGE, "\"p-1\"", coding, () -> LARGE_BODY);
+
+        // then
+        assertThat(coding, is(ContentCoding.BROTLI));
+        assertThat(body.coding(), is(ContentCoding.BROTLI));
+        assertThat(Decoder.decompress(body.bytes()).getDecompressedData(), is(LARGE_BODY));
+    }
+
+    @Test
+    void whenCompressionIsDisabledThenNothingIsNegotiated() {
+        // given
+        properties.setEnabled(false);
+
+        // when
+        ContentCoding coding = new CompressedBodyCache(properties, objectMapper).negotiate("gzip, br");
+
+        // then
+        assertThat(coding, is(nullValue()));
+    }
+
+    @Test
+    void whenAcceptEncodingIsParsedThenRefusedCodingsAreSkipped() {
+        assertThat(ContentCoding.negotiate("gzip, br", true), is(ContentCoding.BROTLI));
+        assertThat(ContentCoding.negotiate("gzip, br", false), is(ContentCoding.GZIP));
+        assertThat(ContentCoding.negotiate("br;q=0, gzip;q=0.5", true), is(ContentCoding.GZIP));
+        assertThat(ContentCoding.negotiate("*", true), is(ContentCoding.GZIP));
+        assertThat(ContentCoding.negotiate("gzip;q=0", true), is(nullValue()));
+        assertThat(ContentCoding.negotiate("gzip;q=0, *", true), is(nullValue()));
+        assertThat(ContentCoding.negotiate("identity", true), is(nullValue()));
+        assertThat(ContentCoding.negotiate(null, true), is(nullValue()));
+    }
+
+    @Test
+    void whenAListingIsCodedThenItsETagNamesTheCoding() {
+        assertThat(ContentCoding.BROTLI.eTagOf("\"p-abc\""), is("\"p-abc-br\""));
+        assertThat(ContentCoding.GZIP.eTagOf("\"p-abc\""), is("\"p-abc-gzip\""));
+        assertThat(ContentCoding.heldVariantOf("\"p-old\", W/\"p-abc-br\"", "\"p-abc\""), is("\"p-abc-br\""));
+        assertThat(ContentCoding.heldVariantOf("\"p-abc\"", "\"p-abc\""), is("\"p-abc\""));
+        assertThat(ContentCoding.heldVariantOf("\"p-abc-deflate\"", "\"p-abc\""), is(nullValue()));
+        assertThat(ContentCoding.heldVariantOf(null, "\"p-abc\""), is(nullValue()));
+    }
+
+    private CompressedBodyCache boundCache() {
+        CompressedBodyCache cache = new CompressedBodyCache(properties, objectMapper);
+        cache.bindTo(registry);
+        return cache;
+    }
+
+    private static CompressedBodyCache.BodySupplier<RuntimeException> counting(AtomicInteger produced) {
+        return () -> {
+            produced.incrementAndGet();
+            return LARGE_BODY;
+        };
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzipInput.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class MetricsConfigurationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void whenCategoryIsNotFoundThenRequestIsTaggedWithEndpointAndException() throws Exception {
+        mockMvc.perform(get("/category/Unknown"))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.get("http.server.requests")
+                .tag("endpoint", "CategoryController.listCategoryByName")
+                .tag("uri", "/category/{name}")
+                .tag("outcome", "CLIENT_ERROR")
+                .tag("exception", "CategoryNotFoundException")
+                .timer()
+                .count(), is(greaterThanOrEqualTo(1L)));
+    }
+
+    @Test
+    void whenRepositoryIsQueriedThenTheQueryIsTimed() throws Exception {
+        mockMvc.perform(get("/category/Missing"))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "CategoryRepository")
+                .tag("method", "findByCategoryName")
+                .timer()
+                .count(), is(greaterThanOrEqualTo(1L)));
+    }
+
+    @Test
+    void whenApplicationStartsThenPoolAndHibernateMetricsAreRegistered() {
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge(), is(notNullValue()));
+        assertThat(meterRegistry.find("hibernate.statements").functionCounter(), is(notNullValue()));
+    }
+}
@@ -1,31 +1,71 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.compression.CompressedBodyCache;
+import com.ecommerce.compression.ContentCoding;
+import com.ecommerce.config.CategoryCompressionProperties;
 import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.request.CategoryLookupDTO;
+import com.ecommerce.dto.request.CategoryMoveDTO;
+import com.ecommerce.dto.response.CategoryImportResultDTO;
+import com.ecommerce.dto.response.CategoryLookupResultDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.dto.response.CategoryTreeDTO;
 import com.ecommerce.dto.response.MessageResponseDTO;
 import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.service.CategoryExportFormat;
+import com.ecommerce.service.CategoryExportService;
+import com.ecommerce.service.CategoryImportService;
 import com.ecommerce.service.CategoryService;
+import com.ecommerce.service.CategoryTreeService;
+import com.ecommerce.service.CategoryValidator;
 import com.ecommerce.utils.JsonConvertionUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 
 import static com.ecommerce.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +84,21 @@ public class CategoryControllerTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private CategoryImportService categoryImportService;
+
+    @Mock
+    private CategoryExportService categoryExportService;
+
+    @Mock
+    private CategoryTreeService categoryTreeService;
+
+    @Spy
+    private CompressedBodyCache compressedBodyCache =
+            new CompressedBodyCache(new CategoryCompressionProperties(), new ObjectMapper()
+                    .findAndRegisterModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
     @InjectMocks
     private CategoryController categoryController;
 
@@ -117,6 +172,119 @@ public class CategoryControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenGETIsCalledWithValidNameThenValidatorsAreReturned() throws Exception {
+        // given
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().version(3L).build().toCategoryDTO();
+
+        //when
+        when(categoryService.listCategoryByName(categoryDTO.getCategoryName())).thenReturn(categoryDTO);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category/" + categoryDTO.getCategoryName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, categoryDTO.getUpdatedAt().toEpochMilli()));
+    }
+
+    @Test
+    void whenGETIsCalledWithCurrentETagThenNotModifiedStatusIsReturnedWithoutLoadingTheCategory() throws Exception {
+        // given
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().version(3L).build().toCategoryDTO();
+
+        //when
+        when(categoryService.validatorOf(categoryDTO.getCategoryName()))
+                .thenReturn(CategoryValidator.of(categoryDTO));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category/" + categoryDTO.getCategoryName())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(categoryService, never()).listCategoryByName(any());
+    }
+
+    @Test
+    void whenGETIsCalledWithStaleETagThenTheCategoryIsReturned() throws Exception {
+        // given
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().version(4L).build().toCategoryDTO();
+
+        //when
+        when(categoryService.validatorOf(categoryDTO.getCategoryName()))
+                .thenReturn(CategoryValidator.of(categoryDTO));
+        when(categoryService.listCategoryByName(categoryDTO.getCategoryName())).thenReturn(categoryDTO);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category/" + categoryDTO.getCategoryName())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    void whenGETCategoriesPageIsCalledWithCurrentETagThenNotModifiedStatusIsReturned() throws Exception {
+        // given
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        CategoryPageDTO categoryPageDTO = CategoryPageDTO.builder()
+                .content(Collections.singletonList(categoryDTO))
+                .build();
+        String eTag = CategoryValidator.ofPage(categoryPageDTO).getETag();
+
+        //when
+        when(categoryService.pageValidatorOf(null, 1)).thenReturn(CategoryValidator.ofPage(categoryPageDTO));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        verify(categoryService, never()).listPage(any(), any());
+    }
+
+    @Test
+    void whenGETCategoriesPageIsCalledWithTheETagOfAnotherCodingThenNotModifiedStatusIsReturned() throws Exception {
+        // given
+        CategoryPageDTO categoryPageDTO = CategoryPageDTO.builder()
+                .content(Collections.singletonList(CategoryDTOBuilder.builder().build().toCategoryDTO()))
+                .build();
+        String eTag = CategoryValidator.ofPage(categoryPageDTO).getETag();
+        String gzipETag = ContentCoding.GZIP.eTagOf(eTag);
+
+        //when
+        when(categoryService.pageValidatorOf(null, 1)).thenReturn(CategoryValidator.ofPage(categoryPageDTO));
+
+        // then
+        assertThat(gzipETag.equals(eTag), is(false));
+        mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("limit", "1")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"p-other\", " + gzipETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipETag));
+        verify(categoryService, never()).listPage(any(), any());
+    }
+
+    @Test
+    void whenGETSuggestIsCalledThenSuggestionsAreReturned() throws Exception {
+        //when
+        when(categoryService.suggest("soc", 5)).thenReturn(List.of(new CategorySuggestionDTO(VALID_CATEGORY_ID, "Soccer")));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category/suggest")
+                        .param("q", "soc")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].categoryName", is("Soccer")));
+    }
+
     @Test
     void whenGETCategoriesListIsCalledThenOkStatusIsReturned() throws Exception {
         // given
@@ -127,6 +295,7 @@ public class CategoryControllerTest {
 
         // then
         mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("unbounded", "true")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].categoryName", is(categoryDTO.getCategoryName())))
@@ -144,10 +313,67 @@ public class CategoryControllerTest {
 
         // then
         mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("unbounded", "true")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void whenGETCategoriesListIsCalledThenTheETagOfEveryCategoryIsReturned() throws Exception {
+        // given
+        List<CategoryDTO> categories = Collections.singletonList(CategoryDTOBuilder.builder().build().toCategoryDTO());
+
+        //when
+        when(categoryService.listAll()).thenReturn(categories);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("unbounded", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, CategoryValidator.ofAll(categories).getETag()));
+    }
+
+    @Test
+    void whenGETCategoriesListIsCalledWithCurrentETagThenNotModifiedStatusIsReturnedWithoutListingTheCategories() throws Exception {
+        // given
+        CategoryValidator validator = CategoryValidator.ofAll(
+                Collections.singletonList(CategoryDTOBuilder.builder().build().toCategoryDTO()));
+
+        //when
+        when(categoryService.listAllValidator()).thenReturn(validator);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("unbounded", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, validator.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, validator.getETag()));
+        verify(categoryService, never()).listAll();
+        verify(categoryService, never()).listAllJson();
+    }
+
+    @Test
+    void whenGETCategoriesPageIsCalledThenOkStatusAndNextCursorAreReturned() throws Exception {
+        // given
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        CategoryPageDTO categoryPageDTO = CategoryPageDTO.builder()
+                .content(Collections.singletonList(categoryDTO))
+                .nextCursor("MQ")
+                .build();
+
+        //when
+        when(categoryService.listPage("MA", 1)).thenReturn(categoryPageDTO);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                        .param("cursor", "MA")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].categoryName", is(categoryDTO.getCategoryName())))
+                .andExpect(jsonPath("$.nextCursor", is("MQ")));
+    }
+
     @Test
     void whenUPDATEIsCalledToThenOKStatusIsReturned() throws Exception {
         CategoryDTO categoryDTOToUpdate = CategoryDTO
@@ -186,4 +412,225 @@ public class CategoryControllerTest {
                 .andExpect(status().isNotFound());
     }
 
-}
\ No newline at end of file
+    @Test
+    void whenPOSTImportIsCalledWithNdjsonThenTheImportReportIsReturned() throws Exception {
+        // given
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        CategoryImportResultDTO importResultDTO = CategoryImportResultDTO.builder()
+                .created(1)
+                .rejected(0)
+                .rows(Collections.emptyList())
+                .build();
+
+        // when
+        when(categoryImportService.importCategories(any(InputStream.class))).thenReturn(importResultDTO);
+
+        // then
+        mockMvc.perform(post("/category/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(asJsonString(categoryDTO) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)));
+    }
+
+    @Test
+    void whenGETExportIsCalledThenRowsAreStreamedAsNdjson() throws Exception {
+        // when
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(categoryExportService).export(eq(CategoryExportFormat.NDJSON), eq(0L), any(OutputStream.class));
+
+        // then
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/category/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void whenGETExportIsCalledAcceptingGzipThenRowsAreCompressed() throws Exception {
+        // when
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(categoryExportService).export(eq(CategoryExportFormat.CSV), eq(5L), any(OutputStream.class));
+
+        // then
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/category/export")
+                        .param("format", "csv")
+                        .param("since", "5")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gzipInput.readAllBytes(), StandardCharsets.UTF_8), is("id\n1\n"));
+        }
+    }
+
+    @Test
+    void whenGETExportIsCalledRefusingGzipThenRowsAreNotCompressed() throws Exception {
+        // when
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(categoryExportService).export(eq(CategoryExportFormat.CSV), eq(0L), any(OutputStream.class));
+
+        // then
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/category/export")
+                        .param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    void whenGETCategoriesPageAcceptsGzipThenTheCompressedBodyIsCachedByETag() throws Exception {
+        // given
+        List<CategoryDTO> categories = LongStream.rangeClosed(1, 30)
+                .mapToObj(id -> CategoryDTOBuilder.builder().id(id).categoryName("category-" + id).build().toCategoryDTO())
+                .collect(Collectors.toList());
+        CategoryPageDTO categoryPageDTO = CategoryPageDTO.builder().content(categories).build();
+
+        // when
+        when(categoryService.pageValidatorOf(null, 30)).thenReturn(CategoryValidator.ofPage(categoryPageDTO));
+        when(categoryService.listPage(null, 30)).thenReturn(categoryPageDTO);
+
+        // then
+        for (int request = 0; request < 2; request++) {
+            byte[] body = mockMvc.perform(MockMvcRequestBuilders.get("/category")
+                            .param("limit", "30")
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, ContentCoding.GZIP.eTagOf(CategoryValidator.ofPage(categoryPageDTO).getETag())))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsByteArray();
+
+            try (GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                ObjectMapper objectMapper = new ObjectMapper();
+                assertThat(objectMapper.readTree(gzipInput), is(objectMapper.readTree(asJsonString(categoryPageDTO))));
+            }
+        }
+        verify(categoryService).listPage(null, 30);
+    }
+
+    @Test
+    void whenEveryCategoryFitsOnOnePageThenTheGzippedPageAndUnboundedListingAreNotMixedUp() throws Exception {
+        // given one page holds the whole table, so both listings have the same validator
+        List<CategoryDTO> categories = LongStream.rangeClosed(1, 30)
+                .mapToObj(id -> CategoryDTOBuilder.builder().id(id).categoryName("category-" + id).build().toCategoryDTO())
+                .collect(Collectors.toList());
+        CategoryPageDTO categoryPageDTO = CategoryPageDTO.builder().content(categories).build();
+        CategoryValidator validator = CategoryValidator.ofPage(categoryPageDTO);
+
+        // when
+        when(categoryService.pageValidatorOf(null, null)).thenReturn(validator);
+        when(categoryService.listPage(null, null)).thenReturn(categoryPageDTO);
+        when(categoryService.listAllValidator()).thenReturn(validator);
+        when(categoryService.listAll()).thenReturn(categories);
+
+        // then
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int request = 0; request < 2; request++) {
+            assertThat(gunzipJson(MockMvcRequestBuilders.get("/category")).isObject(), is(true));
+            assertThat(gunzipJson(MockMvcRequestBuilders.get("/category").param("unbounded", "true")),
+                    is(objectMapper.readTree(asJsonString(categories))));
+        }
+    }
+
+    @Test
+    void whenPOSTLookupIsCalledThenFoundCategoriesAndMissingNamesAreReturned() throws Exception {
+        // given
+        CategoryDTO soccer = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        CategoryLookupResultDTO result = CategoryLookupResultDTO.builder()
+                .categories(List.of(soccer))
+                .missing(List.of("Golf"))
+                .build();
+
+        // when
+        when(categoryService.lookup(List.of("Soccer", "Golf"))).thenReturn(result);
+
+        // then
+        mockMvc.perform(post("/category/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(CategoryLookupDTO.builder().categoryNames(List.of("Soccer", "Golf")).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[0].categoryName", is("Soccer")))
+                .andExpect(jsonPath("$.missing[0]", is("Golf")));
+    }
+
+    @Test
+    void whenPOSTLookupIsCalledWithABlankNameThenAnErrorIsReturned() throws Exception {
+        mockMvc.perform(post("/category/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(CategoryLookupDTO.builder().categoryNames(List.of("Soccer", " ")).build())))
+                .andExpect(status().isBadRequest());
+
+        verify(categoryService, never()).lookup(any());
+    }
+
+    @Test
+    void whenGETSubtreeIsCalledThenTheCategoryIsReturnedWithItsChildren() throws Exception {
+        // given
+        CategoryTreeDTO tree = CategoryTreeDTO.of(CategoryDTOBuilder.builder().categoryName("Sports").build().toCategoryDTO());
+        tree.getChildren().add(CategoryTreeDTO.of(CategoryDTOBuilder.builder().id(2L).parentId(1L).build().toCategoryDTO()));
+
+        // when
+        when(categoryTreeService.subtree("Sports", 2)).thenReturn(tree);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/category/Sports/subtree").param("depth", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName", is("Sports")))
+                .andExpect(jsonPath("$.children[0].categoryName", is("Soccer")))
+                .andExpect(jsonPath("$.children[0].parentId", is(1)));
+    }
+
+    @Test
+    void whenPOSTMoveIsCalledWithoutCategoriesThenAnErrorIsReturned() throws Exception {
+        mockMvc.perform(post("/category/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(CategoryMoveDTO.builder().categoryNames(List.of()).parentName("Sports").build())))
+                .andExpect(status().isBadRequest());
+
+        verify(categoryTreeService, never()).move(any());
+    }
+
+    @Test
+    void whenGETExportIsCalledWithUnknownFormatThenBadRequestIsReturned() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/category/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode gunzipJson(MockHttpServletRequestBuilder request) throws Exception {
+        byte[] body = mockMvc.perform(request.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        try (GZIPInputStream gzipInput = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new ObjectMapper().readTree(gzipInput);
+        }
+    }
+}
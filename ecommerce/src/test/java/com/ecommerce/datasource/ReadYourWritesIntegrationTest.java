@@ -0,0 +1,93 @@
+package com.ecommerce.datasource;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.service.CategoryService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.ecommerce.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Same setup as {@link ReplicaRoutingIntegrationTest}, with a read-your-writes window: a client
+ * that just wrote reads its write back from the primary, the others still read the replica, which
+ * never gets it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadYourWritesIntegrationTest.PRIMARY_URL,
+        "category.replica.enabled=true",
+        "category.replica.sources[0].url=" + ReadYourWritesIntegrationTest.REPLICA_URL
+                + ";INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "category.replica.lag-probe=none",
+        "category.replica.read-your-writes-window=1m",
+        "category.replica.health-check-interval=1h",
+        "category.cache.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+public class ReadYourWritesIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:read-your-writes-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:read-your-writes-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from category");
+    }
+
+    @Test
+    void whenAClientCreatesACategoryThenItReadsItBackAndOtherClientsDoNotYet() throws Exception {
+        // given
+        Cookie writtenAt = mockMvc.perform(post("/category/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(CategoryDTOBuilder.builder().build().toCategoryDTO())))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE);
+
+        // when the same client reads
+        mockMvc.perform(get("/category/Soccer").cookie(writtenAt))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("Soccer"));
+
+        // when another client reads
+        mockMvc.perform(get("/category/Soccer"))
+                // then
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenTheServiceWritesThenItsNextReadInTheSameRequestSeesTheWrite() throws Exception {
+        // given
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+
+        // when
+        String name = categoryService.listCategoryByName("Soccer").getCategoryName();
+
+        // then
+        assertThat(name, is("Soccer"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.ecommerce.datasource;
+
+import com.ecommerce.config.CategoryReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private HikariDataSource first;
+
+    @Mock
+    private HikariDataSource second;
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection firstConnection = mock(Connection.class);
+
+    private final Connection secondConnection = mock(Connection.class);
+
+    private final CategoryReplicaProperties properties = new CategoryReplicaProperties();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        properties.setLagProbe(CategoryReplicaProperties.LagProbe.NONE);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        when(first.getPoolName()).thenReturn("replica-0");
+        when(second.getPoolName()).thenReturn("replica-1");
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void whenReplicasAreBalancedRoundRobinThenTheyTakeTurns() throws SQLException {
+        // given
+        ReplicaDataSource dataSource = replicaDataSource(new ReadYourWrites(Duration.ZERO));
+
+        // when
+        List<Connection> connections = List.of(dataSource.getConnection(), dataSource.getConnection(), dataSource.getConnection());
+
+        // then
+        assertThat(connections, contains(firstConnection, secondConnection, firstConnection));
+    }
+
+    @Test
+    void whenReplicasAreBalancedByConnectionsThenTheLeastBusyIsChosen() throws SQLException {
+        // given
+        properties.setBalancing(CategoryReplicaProperties.Balancing.LEAST_CONNECTIONS);
+        HikariPoolMXBean busy = mock(HikariPoolMXBean.class);
+        HikariPoolMXBean idle = mock(HikariPoolMXBean.class);
+        when(busy.getActiveConnections()).thenReturn(5);
+        when(idle.getActiveConnections()).thenReturn(1);
+        when(first.getHikariPoolMXBean()).thenReturn(busy);
+        when(second.getHikariPoolMXBean()).thenReturn(idle);
+        ReplicaDataSource dataSource = replicaDataSource(new ReadYourWrites(Duration.ZERO));
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection, is(secondConnection));
+    }
+
+    @Test
+    void whenAReplicaFailsItsHealthCheckThenItIsSkippedAndWithoutReplicasThePrimaryAnswers() throws SQLException {
+        // given
+        ReplicaDataSource dataSource = replicaDataSource(new ReadYourWrites(Duration.ZERO));
+        when(firstConnection.isValid(anyInt())).thenReturn(false);
+
+        // when
+        dataSource.checkHealth();
+
+        // then
+        assertThat(List.of(dataSource.getConnection(), dataSource.getConnection()), everyItem(is(secondConnection)));
+
+        // when
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+        dataSource.checkHealth();
+
+        // then
+        assertThat(dataSource.getConnection(), is(primaryConnection));
+    }
+
+    @Test
+    void whenAWriteWasJustCommittedThenReadsStayOnThePrimary() throws SQLException {
+        // given
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+        ReplicaDataSource dataSource = replicaDataSource(readYourWrites);
+        TransactionExecution readOnly = mock(TransactionExecution.class);
+        when(readOnly.isReadOnly()).thenReturn(true);
+
+        // when
+        readYourWrites.afterCommit(readOnly, null);
+
+        // then
+        assertThat(dataSource.getConnection(), is(firstConnection));
+
+        // when
+        readYourWrites.afterCommit(mock(TransactionExecution.class), null);
+
+        // then
+        assertThat(dataSource.getConnection(), is(primaryConnection));
+    }
+
+    @Test
+    void whenAClientJustCommittedAWriteThenOnlyItsOwnReadsStayOnThePrimary() throws SQLException {
+        // given
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+        ReplicaDataSource dataSource = replicaDataSource(readYourWrites);
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+
+        // when
+        inRequest(new MockHttpServletRequest(), writeResponse, () -> {
+            readYourWrites.afterCommit(mock(TransactionExecution.class), null);
+            return null;
+        });
+
+        // then
+        Cookie writtenAt = writeResponse.getCookie(ReadYourWrites.COOKIE);
+        assertThat(writtenAt, is(notNullValue()));
+        MockHttpServletRequest sameClient = new MockHttpServletRequest();
+        sameClient.setCookies(writtenAt);
+        assertThat(inRequest(sameClient, new MockHttpServletResponse(), dataSource::getConnection), is(primaryConnection));
+        assertThat(inRequest(new MockHttpServletRequest(), new MockHttpServletResponse(), dataSource::getConnection),
+                is(firstConnection));
+        assertThat(dataSource.getConnection(), is(secondConnection));
+    }
+
+    @Test
+    void whenAConnectionIsAskedForWithOtherCredentialsThenThePrimaryOpensIt() throws SQLException {
+        // given
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+        ReplicaDataSource dataSource = replicaDataSource(new ReadYourWrites(Duration.ZERO));
+
+        // when
+        Connection connection = dataSource.getConnection("reporting", "secret");
+
+        // then
+        assertThat(connection, is(primaryConnection));
+    }
+
+    private static <T> T inRequest(MockHttpServletRequest request, MockHttpServletResponse response,
+                                   Callable<T> work) throws SQLException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            return work.call();
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private ReplicaDataSource replicaDataSource(ReadYourWrites readYourWrites) {
+        return new ReplicaDataSource(primary, List.of(first, second), properties, readYourWrites);
+    }
+}
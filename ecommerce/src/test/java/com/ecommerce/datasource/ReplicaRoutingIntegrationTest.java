@@ -0,0 +1,115 @@
+package com.ecommerce.datasource;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.service.CategoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Two embedded databases stand in for the primary and its replica. Nothing replicates between
+ * them, so where a row is found tells where the query went.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+        "category.replica.enabled=true",
+        "category.replica.sources[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL
+                + ";INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "category.replica.lag-probe=query",
+        "category.replica.lag-query=select coalesce(max(lag_seconds), 0) from replica_lag",
+        "category.replica.max-lag=5s",
+        "category.replica.read-your-writes-window=0s",
+        "category.replica.health-check-interval=1h",
+        "category.cache.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+public class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from category");
+        replica.update("delete from category");
+        replica.update("delete from replica_lag");
+        replicaDataSource.checkHealth();
+    }
+
+    @Test
+    void whenCategoriesAreReadThenTheReplicaAnswers() throws Exception {
+        // given
+        insertOnReplica("Replica only");
+
+        // when
+        CategoryDTO category = categoryService.listCategoryByName("Replica only");
+
+        // then
+        assertThat(category.getCategoryName(), is("Replica only"));
+        assertThat(categoryService.listPage(null, null).getContent().stream()
+                .map(CategoryDTO::getCategoryName)
+                .collect(Collectors.toList()), contains("Replica only"));
+    }
+
+    @Test
+    void whenCategoryIsWrittenThenThePrimaryIsChangedAndTheUpdateReadsItBackFromThePrimary() throws Exception {
+        // given
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+
+        // when
+        categoryService.update("Soccer", CategoryDTOBuilder.builder().categoryName("Football").build().toCategoryDTO());
+
+        // then
+        assertThat(primary.queryForList("select category_name from category", String.class), contains("Football"));
+        assertThat(replica.queryForObject("select count(*) from category", Long.class), is(0L));
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.listCategoryByName("Football"));
+    }
+
+    @Test
+    void whenReplicaLagsTooFarBehindThenReadsGoToThePrimaryUntilItCatchesUp() throws Exception {
+        // given
+        insertOnReplica("Replica only");
+        replica.update("insert into replica_lag (lag_seconds) values (60)");
+
+        // when
+        replicaDataSource.checkHealth();
+
+        // then
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.listCategoryByName("Replica only"));
+
+        // when
+        replica.update("update replica_lag set lag_seconds = 1");
+        replicaDataSource.checkHealth();
+
+        // then
+        assertThat(categoryService.listCategoryByName("Replica only").getCategoryName(), is("Replica only"));
+    }
+
+    private void insertOnReplica(String name) {
+        replica.update("insert into category (category_name, category_description, image_url, version) values (?, ?, ?, 0)",
+                name, name + " products", "www." + name.replace(' ', '-') + ".com");
+    }
+}
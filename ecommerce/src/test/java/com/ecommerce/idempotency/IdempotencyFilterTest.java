@@ -0,0 +1,177 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.config.CategoryIdempotencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"categoryName\":\"Soccer\"}";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private IdempotencyFilter idempotencyFilter;
+
+    @BeforeEach
+    void setUp() {
+        CategoryIdempotencyProperties properties = new CategoryIdempotencyProperties();
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(properties) {
+
+            @Override
+            public IdempotentResponse find(String key) {
+                lookups.incrementAndGet();
+                return super.find(key);
+            }
+        };
+        idempotencyFilter = new IdempotencyFilter(store, properties);
+        idempotencyFilter.bindTo(registry);
+    }
+
+    @Test
+    void whenRequestIsRetriedWithTheSameKeyThenTheStoredResponseIsReplayed() throws ServletException, IOException {
+        // given
+        idempotencyFilter.doFilter(request("key-1", BODY), new MockHttpServletResponse(), created());
+
+        // when
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request("key-1", BODY), retry, created());
+
+        // then
+        assertThat(executions.get(), is(1));
+        assertThat(retry.getStatus(), is(201));
+        assertThat(retry.getContentType(), is(MediaType.APPLICATION_JSON_VALUE));
+        assertThat(retry.getContentAsString(), is("{\"id\":1,\"read\":" + BODY + "}"));
+        assertThat(retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED), is("true"));
+        assertThat(registry.get("category.idempotency.requests").tag("outcome", "replayed").counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenKeyIsReusedWithAnotherBodyThenTheRequestIsRejected() throws ServletException, IOException {
+        // given
+        idempotencyFilter.doFilter(request("key-1", BODY), new MockHttpServletResponse(), created());
+
+        // when
+        MockHttpServletResponse reused = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request("key-1", "{\"categoryName\":\"Tennis\"}"), reused, created());
+
+        // then
+        assertThat(executions.get(), is(1));
+        assertThat(reused.getStatus(), is(422));
+    }
+
+    @Test
+    void whenRequestFailsThenItsRetryIsExecutedAgain() throws ServletException, IOException {
+        // given
+        idempotencyFilter.doFilter(request("key-1", BODY), new MockHttpServletResponse(), (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(409);
+        });
+
+        // when
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request("key-1", BODY), retry, created());
+
+        // then
+        assertThat(executions.get(), is(2));
+        assertThat(retry.getStatus(), is(201));
+        assertThat(retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED), is(nullValue()));
+    }
+
+    @Test
+    void whenDuplicateArrivesWhileTheRequestExecutesThenItWaitsForItsResponse() throws Exception {
+        // given the first request holds the key until the duplicate is waiting
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            executing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        CompletableFuture<Void> firstDone = CompletableFuture.runAsync(() -> filter("key-1", first, slow));
+        executing.await(5, TimeUnit.SECONDS);
+
+        // when the duplicate looked the key up (the first request did twice) it finds it executing
+        MockHttpServletResponse duplicate = new MockHttpServletResponse();
+        CompletableFuture<Void> duplicateDone = CompletableFuture.runAsync(() -> filter("key-1", duplicate, created()));
+        while (lookups.get() < 3) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        release.countDown();
+        CompletableFuture.allOf(firstDone, duplicateDone).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(executions.get(), is(1));
+        assertThat(first.getStatus(), is(201));
+        assertThat(duplicate.getStatus(), is(201));
+        assertThat(duplicate.getContentAsString(), is(first.getContentAsString()));
+        assertThat(registry.get("category.idempotency.requests").tag("outcome", "waited").counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenRequestHasNoKeyThenItIsExecutedEveryTime() throws ServletException, IOException {
+        idempotencyFilter.doFilter(request(null, BODY), new MockHttpServletResponse(), created());
+        idempotencyFilter.doFilter(request(null, BODY), new MockHttpServletResponse(), created());
+
+        assertThat(executions.get(), is(2));
+    }
+
+    private void filter(String key, MockHttpServletResponse response, FilterChain chain) {
+        try {
+            idempotencyFilter.doFilter(request(key, BODY), response, chain);
+        } catch (ServletException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stands for the controller: reads the body and answers 201 with it.
+     */
+    private FilterChain created() {
+        return (request, response) -> {
+            int id = executions.incrementAndGet();
+            String read = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+            ((HttpServletResponse) response).setStatus(201);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(("{\"id\":" + id + ",\"read\":" + read + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/category/create");
+        request.setServletPath("/category/create");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.config.CategoryIdempotencyProperties;
+import com.ecommerce.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "category.idempotency.store=jdbc")
+public class JdbcIdempotencyStoreIntegrationTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private CategoryIdempotencyProperties properties;
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void whenStoreIsJdbcThenResponsesAreKeptInTheDatabase() {
+        // given
+        assertThat(idempotencyStore, is(instanceOf(JdbcIdempotencyStore.class)));
+        IdempotentResponse response = response("fingerprint-1");
+
+        // when
+        boolean claimed = idempotencyStore.claim("key-1", "fingerprint-1");
+        IdempotentResponse whileExecuting = idempotencyStore.find("key-1");
+        idempotencyStore.complete("key-1", response);
+
+        // then
+        assertThat(claimed, is(true));
+        assertThat(whileExecuting, is(nullValue()));
+        IdempotentResponse found = idempotencyStore.find("key-1");
+        assertThat(found.status(), is(201));
+        assertThat(found.contentType(), is("application/json"));
+        assertThat(new String(found.body(), StandardCharsets.UTF_8), is("{\"id\":1}"));
+    }
+
+    @Test
+    void whenKeyIsClaimedThenOnlyAnAbandonedOrExpiredClaimIsTakenOver() {
+        // given
+        JdbcIdempotencyStore otherInstance = storeAt(NOW);
+        otherInstance.claim("key-1", "fingerprint-1");
+
+        // when
+        boolean whileExecuting = storeAt(NOW.plusSeconds(1)).claim("key-1", "fingerprint-2");
+        boolean afterWaitTimeout = storeAt(NOW.plus(properties.getWaitTimeout()).plusSeconds(1)).claim("key-1", "fingerprint-2");
+
+        // then
+        assertThat(whileExecuting, is(false));
+        assertThat(afterWaitTimeout, is(true));
+        assertThat(idempotencyKeyRepository.findById("key-1").orElseThrow().getFingerprint(), is("fingerprint-2"));
+    }
+
+    @Test
+    void whenResponseExpiresThenItIsNoLongerFoundAndTheKeyCanBeReused() {
+        // given
+        JdbcIdempotencyStore store = storeAt(NOW);
+        store.claim("key-1", "fingerprint-1");
+        store.complete("key-1", response("fingerprint-1"));
+        JdbcIdempotencyStore later = storeAt(NOW.plus(properties.getTtl()).plus(Duration.ofMinutes(1)));
+
+        // when
+        IdempotentResponse found = later.find("key-1");
+        boolean claimed = later.claim("key-1", "fingerprint-2");
+
+        // then
+        assertThat(found, is(nullValue()));
+        assertThat(claimed, is(true));
+    }
+
+    @Test
+    void whenClaimIsReleasedThenTheKeyIsFreeAgain() {
+        idempotencyStore.claim("key-1", "fingerprint-1");
+        idempotencyStore.release("key-1");
+
+        assertThat(idempotencyKeyRepository.existsById("key-1"), is(false));
+        assertThat(idempotencyStore.claim("key-1", "fingerprint-2"), is(true));
+    }
+
+    private JdbcIdempotencyStore storeAt(Instant instant) {
+        return new JdbcIdempotencyStore(idempotencyKeyRepository, properties, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private static IdempotentResponse response(String fingerprint) {
+        return new IdempotentResponse(fingerprint, 201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+}
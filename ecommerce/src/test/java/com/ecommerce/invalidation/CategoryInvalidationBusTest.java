@@ -0,0 +1,146 @@
+package com.ecommerce.invalidation;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryCacheProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two buses on one loopback transport stand for two instances of the application.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CategoryInvalidationBusTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @Mock
+    private ApplicationEventPublisher publisherA;
+
+    @Mock
+    private ApplicationEventPublisher publisherB;
+
+    private final SimpleMeterRegistry registryB = new SimpleMeterRegistry();
+
+    private final LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+
+    private final CategoryNameCache cacheA = new CategoryNameCache(new CategoryCacheProperties());
+
+    private final CategoryNameCache cacheB = new CategoryNameCache(new CategoryCacheProperties());
+
+    private final CategoryDTO before = CategoryDTOBuilder.builder().build().toCategoryDTO();
+
+    private final CategoryDTO after = CategoryDTOBuilder.builder().categoryName("Football").version(1L).build().toCategoryDTO();
+
+    private CategoryInvalidationBus nodeA;
+
+    private CategoryInvalidationBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new CategoryInvalidationBus(transport, cacheA, publisherA, "node-a", Clock.fixed(NOW, ZoneOffset.UTC));
+        nodeB = new CategoryInvalidationBus(transport, cacheB, publisherB, "node-b", Clock.fixed(NOW.plusMillis(250), ZoneOffset.UTC));
+        nodeB.bindTo(registryB);
+    }
+
+    @Test
+    void whenCategoryChangesOnOneNodeThenTheOtherEvictsBothNamesAndFollowsTheChange() {
+        // given both nodes cached the category under its old name, node B the new name as missing
+        cacheA.get(before.getCategoryName(), name -> Optional.of(before));
+        cacheB.get(before.getCategoryName(), name -> Optional.of(before));
+        cacheB.get(after.getCategoryName(), name -> Optional.empty());
+
+        // when
+        nodeA.onCategoryChanged(CategoryChangedEvent.updated(before, after));
+
+        // then
+        assertThat(cacheB.peek(before.getCategoryName()), is(nullValue()));
+        assertThat(cacheB.get(after.getCategoryName(), name -> Optional.of(after)), is(Optional.of(after)));
+        assertThat(cacheA.peek(before.getCategoryName()), is(before));
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(publisherB).publishEvent(event.capture());
+        assertThat(event.getValue().isRemote(), is(true));
+        assertThat(event.getValue().getAfter(), is(after));
+        verifyNoInteractions(publisherA);
+        assertThat(registryB.get("category.invalidation.lag").timer().totalTime(TimeUnit.MILLISECONDS), is(250.0));
+    }
+
+    @Test
+    void whenChangeIsDeliveredAgainThenItIsAppliedOnce() {
+        // given
+        CategoryInvalidation invalidation = new CategoryInvalidation(7, "node-a", NOW, before, after);
+        nodeB.receive(invalidation);
+        cacheB.get(after.getCategoryName(), name -> Optional.of(after));
+
+        // when
+        nodeB.receive(invalidation);
+
+        // then
+        assertThat(cacheB.peek(after.getCategoryName()), is(after));
+        verify(publisherB, times(1)).publishEvent(ArgumentMatchers.any(CategoryChangedEvent.class));
+        assertThat(registryB.get("category.invalidation.received").tag("outcome", "duplicate").counter().count(), is(1.0));
+        assertThat(nodeB.lastSequence(), is(7L));
+    }
+
+    @Test
+    void whenChangeComesAfterOnesWithAHigherSequenceThenItIsStillAppliedOnce() {
+        // given
+        nodeB.receive(new CategoryInvalidation(7, "node-a", NOW, before, after));
+        cacheB.get(before.getCategoryName(), name -> Optional.of(before));
+
+        // when
+        CategoryInvalidation late = new CategoryInvalidation(6, "node-c", NOW, null, before);
+        nodeB.receive(late);
+        nodeB.receive(late);
+
+        // then
+        assertThat(cacheB.peek(before.getCategoryName()), is(nullValue()));
+        verify(publisherB, times(2)).publishEvent(ArgumentMatchers.any(CategoryChangedEvent.class));
+        assertThat(registryB.get("category.invalidation.received").tag("outcome", "duplicate").counter().count(), is(1.0));
+        assertThat(nodeB.lastSequence(), is(7L));
+    }
+
+    @Test
+    void whenMoreSequencesThanAreRememberedWereAppliedThenTheOldestAreTakenAsApplied() {
+        // given
+        for (int sequence = 2; sequence <= CategoryInvalidationBus.REMEMBERED_SEQUENCES + 2; sequence++) {
+            nodeB.receive(new CategoryInvalidation(sequence, "node-b", NOW, before, after));
+        }
+
+        // when
+        nodeB.receive(new CategoryInvalidation(1, "node-a", NOW, before, after));
+        nodeB.receive(new CategoryInvalidation(2, "node-a", NOW, before, after));
+
+        // then
+        assertThat(registryB.get("category.invalidation.received").tag("outcome", "duplicate").counter().count(), is(2.0));
+        verifyNoInteractions(publisherB);
+    }
+
+    @Test
+    void whenRemoteChangeIsRepublishedThenItIsNotBroadcastAgain() {
+        nodeB.onCategoryChanged(CategoryChangedEvent.remote(before, after));
+
+        verifyNoInteractions(publisherA);
+        assertThat(nodeA.lastSequence(), is(0L));
+        assertThat(registryB.get("category.invalidation.lag").timer().count(), is(0L));
+    }
+}
@@ -0,0 +1,201 @@
+package com.ecommerce.invalidation;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.config.CategoryInvalidationProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.repository.CategoryChangeRepository;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.service.CategoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * The application context is one instance; a second transport on the same table, polled by hand,
+ * stands for another one.
+ */
+@SpringBootTest(properties = "category.invalidation.poll-interval=1h")
+public class JdbcInvalidationTransportIntegrationTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcInvalidationTransport transport;
+
+    @Autowired
+    private CategoryChangeRepository categoryChangeRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<CategoryInvalidation> received = new CopyOnWriteArrayList<>();
+
+    private final CategoryInvalidationProperties otherProperties = new CategoryInvalidationProperties();
+
+    private Instant otherNow = NOW;
+
+    private JdbcInvalidationTransport otherInstance;
+
+    @BeforeEach
+    void setUp() {
+        otherProperties.setGapTimeout(Duration.ofSeconds(10));
+        otherInstance = new JdbcInvalidationTransport(categoryChangeRepository, jdbcTemplate, objectMapper, otherProperties,
+                new Clock() {
+                    @Override
+                    public ZoneOffset getZone() {
+                        return ZoneOffset.UTC;
+                    }
+
+                    @Override
+                    public Clock withZone(ZoneId zone) {
+                        return this;
+                    }
+
+                    @Override
+                    public Instant instant() {
+                        return otherNow;
+                    }
+                });
+        otherInstance.subscribe(received::add);
+        otherInstance.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherInstance.stop();
+        categoryRepository.deleteAll();
+        categoryChangeRepository.deleteAll();
+    }
+
+    @Test
+    void whenCategoriesChangeThenTheOtherInstanceGetsTheChangesInOrder() throws Exception {
+        // given
+        CategoryDTO created = categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        CategoryDTO renamed = CategoryDTOBuilder.builder().categoryName("Football").build().toCategoryDTO();
+        categoryService.update(created.getCategoryName(), renamed);
+
+        // when
+        transport.flush();
+        otherInstance.poll();
+
+        // then
+        assertThat(received, hasSize(2));
+        assertThat(received.get(0).before(), is(nullValue()));
+        assertThat(received.get(0).after().getCategoryName(), is("Soccer"));
+        assertThat(received.get(1).before().getCategoryName(), is("Soccer"));
+        assertThat(received.get(1).after().getCategoryName(), is("Football"));
+        assertThat(received.get(1).after().getVersion(), is(1L));
+        assertThat(received.get(1).sequence(), is(received.get(0).sequence() + 1));
+        assertThat(received.stream().map(CategoryInvalidation::origin).distinct().collect(Collectors.toList()),
+                contains(not(emptyOrNullString())));
+    }
+
+    @Test
+    void whenAChangeIsMissingThenTheNextOnesAreDeliveredAtOnce() {
+        // given the change after the last one read is not committed yet
+        long lastId = categoryChangeRepository.findLastId();
+        insertChange(lastId + 2, "Tennis");
+
+        // when
+        otherInstance.poll();
+
+        // then
+        assertThat(received.stream().map(change -> change.after().getCategoryName()).collect(Collectors.toList()),
+                contains("Tennis"));
+        assertThat(received.get(0).sequence(), is(lastId + 2));
+    }
+
+    @Test
+    void whenMissingChangeShowsUpBeforeTheGapTimeoutThenItIsDeliveredLateAndNothingTwice() {
+        // given
+        long lastId = categoryChangeRepository.findLastId();
+        insertChange(lastId + 2, "Tennis");
+        otherInstance.poll();
+
+        // when
+        insertChange(lastId + 1, "Soccer");
+        insertChange(lastId + 3, "Golf");
+        otherNow = NOW.plusSeconds(5);
+        otherInstance.poll();
+        otherInstance.poll();
+
+        // then
+        assertThat(received.stream().map(change -> change.after().getCategoryName()).collect(Collectors.toList()),
+                contains("Tennis", "Soccer", "Golf"));
+    }
+
+    @Test
+    void whenMissingChangeShowsUpAfterTheGapTimeoutThenItIsNoLongerDelivered() {
+        // given
+        long lastId = categoryChangeRepository.findLastId();
+        insertChange(lastId + 2, "Tennis");
+        otherInstance.poll();
+        otherNow = NOW.plusSeconds(11);
+        otherInstance.poll();
+
+        // when
+        insertChange(lastId + 1, "Soccer");
+        otherInstance.poll();
+
+        // then
+        assertThat(received.stream().map(change -> change.after().getCategoryName()).collect(Collectors.toList()),
+                contains("Tennis"));
+    }
+
+    @Test
+    void whenAChangeCannotBeReadThenItIsCountedAndTheNextOnesAreStillDelivered() {
+        // given
+        long lastId = categoryChangeRepository.findLastId();
+        jdbcTemplate.update("insert into category_change (id, origin, changed_at, payload) values (?, ?, ?, ?)",
+                lastId + 1, "node-c", Timestamp.from(NOW), "{not json");
+        insertChange(lastId + 2, "Tennis");
+
+        // when
+        otherInstance.poll();
+        insertChange(lastId + 3, "Golf");
+        otherInstance.poll();
+
+        // then
+        assertThat(received.stream().map(change -> change.after().getCategoryName()).collect(Collectors.toList()),
+                contains("Tennis", "Golf"));
+        assertThat(otherInstance.unreadable(), is(1L));
+    }
+
+    private void insertChange(long id, String name) {
+        CategoryInvalidation change = new CategoryInvalidation(0, "node-c", NOW, null,
+                CategoryDTOBuilder.builder().categoryName(name).build().toCategoryDTO());
+        try {
+            jdbcTemplate.update("insert into category_change (id, origin, changed_at, payload) values (?, ?, ?, ?)",
+                    id, change.origin(), Timestamp.from(NOW), objectMapper.writeValueAsString(change));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JsonOutputTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void whenStringsAreWrittenThenTheyAreEscapedAndEncodedAsJacksonDoes() throws Exception {
+        List<String> values = List.of("", "Soccer", "Fútbol \"Sala\"", "back\\slash/slash", "\b\t\n\f\r\u0000\u001f\u007f",
+                "日本語", "trophy 🏆", "<script>&amp;</script>", "  ");
+
+        for (String value : values) {
+            JsonOutput output = new JsonOutput(1);
+            output.writeString(value);
+
+            assertThat(value, written(output), is(equalTo(objectMapper.writeValueAsString(value))));
+        }
+    }
+
+    @Test
+    void whenNumbersAreWrittenThenTheyAreTheDecimalDigits() throws Exception {
+        for (long value : new long[]{0, 7, 10, 99, 1_000_000_007L, -42, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            JsonOutput output = new JsonOutput(1);
+            output.writeLong(value);
+
+            assertThat(written(output), is(equalTo(objectMapper.writeValueAsString(value))));
+        }
+    }
+
+    @Test
+    void whenInstantsAreWrittenThenTheyAreIsoInstantsAsJacksonWritesThem() throws Exception {
+        List<Instant> values = List.of(Instant.EPOCH, Instant.parse("2000-02-29T23:59:59Z"), Instant.parse("2024-12-31T00:00:00.100Z"),
+                Instant.parse("2026-03-01T12:34:56.123456Z"), Instant.parse("2026-10-18T08:05:09.000000001Z"),
+                Instant.parse("2100-03-01T00:00:00Z"), Instant.parse("9999-12-31T23:59:59.999999999Z"),
+                Instant.parse("1969-12-31T23:59:59.5Z"), Instant.parse("+10000-01-01T00:00:00Z"));
+
+        for (Instant value : values) {
+            JsonOutput output = new JsonOutput(1);
+            output.writeInstant(value);
+
+            assertThat(value.toString(), written(output), is(equalTo(objectMapper.writeValueAsString(value))));
+        }
+    }
+
+    @Test
+    void whenBufferIsResetThenItIsWrittenFromTheStart() {
+        JsonOutput output = new JsonOutput(4);
+        output.writeString("a longer value than the buffer");
+        output.reset();
+
+        output.writeNull();
+
+        assertThat(written(output), is(equalTo("null")));
+        assertThat(output.capacity(), is(greaterThan(4)));
+    }
+
+    private static String written(JsonOutput output) {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(classes = ReactiveCategoryApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+        })
+public class ReactiveCategoryControllerTest {
+
+    private static final String CATEGORY_API_URL_PATH = "/category";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveCategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS category (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "category_name VARCHAR(255) NOT NULL UNIQUE, category_description VARCHAR(255) NOT NULL, "
+                        + "image_url VARCHAR(255) NOT NULL UNIQUE, parent_id BIGINT, version BIGINT, updated_at TIMESTAMP(6) WITH TIME ZONE)")
+                .then()
+                .then(categoryRepository.deleteAll())
+                .thenMany(categoryRepository.saveAll(List.of(
+                        new CategoryRecord(null, "Soccer", "Soccer balls", "www.soccer.com", null, 0L, null),
+                        new CategoryRecord(null, "Basketball", "Basketball balls", "www.basketball.com", null, 0L, null))))
+                .then(categoryRepository.findByCategoryName("Soccer"))
+                .flatMap(soccer -> categoryRepository.save(
+                        new CategoryRecord(null, "Tennis", "Tennis rackets", "www.tennis.com", soccer.id(), 0L, null)))
+                .block();
+    }
+
+    @Test
+    void whenGETIsCalledWithRegisteredNameThenTheSameCategoryDTOIsReturned() {
+        webTestClient.get().uri(CATEGORY_API_URL_PATH + "/Soccer")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.categoryName").isEqualTo("Soccer")
+                .jsonPath("$.categoryDescription").isEqualTo("Soccer balls")
+                .jsonPath("$.imageUrl").isEqualTo("www.soccer.com")
+                .jsonPath("$.id").isNumber()
+                .jsonPath("$.parentId").isEmpty();
+    }
+
+    @Test
+    void whenGETIsCalledWithANestedCategoryThenItsParentIdIsReturned() {
+        Long soccerId = categoryRepository.findByCategoryName("Soccer").map(CategoryRecord::id).block();
+
+        webTestClient.get().uri(CATEGORY_API_URL_PATH + "/Tennis")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.parentId").isEqualTo(soccerId);
+    }
+
+    @Test
+    void whenGETIsCalledWithUnknownNameThenNotFoundStatusIsReturned() {
+        webTestClient.get().uri(CATEGORY_API_URL_PATH + "/Golf")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void whenGETListIsCalledThenPagesAreFollowedByCursor() {
+        CategoryPageDTO firstPage = webTestClient.get().uri(CATEGORY_API_URL_PATH + "?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CategoryPageDTO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(firstPage.getContent(), hasSize(2));
+        assertThat(firstPage.getNextCursor(), is(notNullValue()));
+
+        CategoryPageDTO lastPage = webTestClient.get().uri(CATEGORY_API_URL_PATH + "?limit=2&cursor=" + firstPage.getNextCursor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CategoryPageDTO.class)
+                .returnResult().getResponseBody();
+
+        assertThat(lastPage.getContent(), hasSize(1));
+        assertThat(lastPage.getContent().get(0).getCategoryName(), is(equalTo("Tennis")));
+        assertThat(lastPage.getContent().get(0).getParentId(), is(equalTo(firstPage.getContent().get(0).getId())));
+        assertThat(lastPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenGETListIsCalledWithInvalidCursorThenBadRequestStatusIsReturned() {
+        webTestClient.get().uri(CATEGORY_API_URL_PATH + "?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenUnboundedListingIsDisabledThenBadRequestStatusIsReturned() {
+        webTestClient.get().uri(CATEGORY_API_URL_PATH + "?unbounded=true")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenStreamIsResumedThenOnlyLaterCategoriesAreSentAsEvents() {
+        List<ServerSentEvent<CategoryDTO>> all = streamEvents(0L);
+        assertThat(all, hasSize(3));
+        assertThat(all.get(0).event(), is(equalTo("category")));
+        assertThat(all.get(0).id(), is(equalTo(String.valueOf(all.get(0).data().getId()))));
+
+        List<ServerSentEvent<CategoryDTO>> resumed = streamEvents(all.get(0).data().getId());
+
+        assertThat(resumed.stream().map(event -> event.data().getCategoryName()).toList(),
+                contains("Basketball", "Tennis"));
+    }
+
+    private List<ServerSentEvent<CategoryDTO>> streamEvents(long lastEventId) {
+        Flux<ServerSentEvent<CategoryDTO>> events = webTestClient.get().uri(CATEGORY_API_URL_PATH + "/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", String.valueOf(lastEventId))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<CategoryDTO>>() {
+                })
+                .getResponseBody();
+        return events.collectList().block();
+    }
+}
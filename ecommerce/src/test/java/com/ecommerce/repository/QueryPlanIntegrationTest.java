@@ -0,0 +1,116 @@
+package com.ecommerce.repository;
+
+import org.hamcrest.Matcher;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs the repository queries, takes the SQL Hibernate sent for them and asks the embedded
+ * database for its plan, so that a query that stops using its index, or an index dropped by a
+ * migration, fails here rather than on a full table in production. The second-level cache is off:
+ * every lookup has to reach the database.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecommerce.repository.QueryPlanIntegrationTest$RecordedStatements",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+public class QueryPlanIntegrationTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryChangeRepository categoryChangeRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void whenCategoryIsLookedUpByNameThenTheUniqueNameIndexIsUsed() {
+        assertThat(planOf(() -> categoryRepository.findByCategoryName("Soccer"), "Soccer"), usesIndex("uk_category_name"));
+        assertThat(planOf(() -> categoryRepository.findForUpdateByCategoryName("Soccer"), "Soccer"), usesIndex("uk_category_name"));
+        assertThat(planOf(() -> categoryRepository.findVersionByCategoryName("Soccer"), "Soccer"), usesIndex("uk_category_name"));
+        assertThat(planOf(() -> categoryRepository.findExistingCategoryNames(List.of("Soccer", "Tennis")), "Soccer", "Tennis"),
+                usesIndex("uk_category_name"));
+        assertThat(planOf(() -> categoryRepository.findProjectedByCategoryNameIn(List.of("Soccer", "Tennis")), "Soccer", "Tennis"),
+                usesIndex("uk_category_name"));
+    }
+
+    @Test
+    void whenCategoriesAreListedThenTheyAreReadInIndexOrder() {
+        assertThat(planOf(() -> categoryRepository.findPageAfter(10, PageRequest.of(0, 50)), 10L, 50),
+                allOf(usesIndex("primary_key"), containsString("index sorted")));
+        // covered by the index, without reading the rows
+        assertThat(planOf(() -> categoryRepository.findPageVersionsAfter(10, PageRequest.of(0, 50)), 10L, 50),
+                usesIndex("idx_category_version"));
+    }
+
+    @Test
+    void whenSubtreeIsReadThenThePathIndexIsUsed() {
+        assertThat(planOf(() -> categoryRepository.findDescendants("/1/", 3), "/1/", 3),
+                usesIndex("idx_category_path"));
+        assertThat(planOf(() -> categoryRepository.findLongestDescendantPath("/1/"), "/1/"),
+                usesIndex("idx_category_path"));
+    }
+
+    @Test
+    void whenCategoryIsReadByIdThenThePrimaryKeyIsUsed() {
+        assertThat(planOf(() -> categoryRepository.findCurrentById(1L), 1L), usesIndex("primary_key"));
+    }
+
+    @Test
+    void whenChangesAndKeysArePolledOrPurgedThenTheirIndexesAreUsed() {
+        Instant before = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertThat(planOf(() -> categoryChangeRepository.findAfter(10, PageRequest.of(0, 500)), 10L, 500),
+                allOf(usesIndex("primary_key"), containsString("index sorted")));
+        assertThat(planOf(() -> categoryChangeRepository.deleteChangedBefore(before), before),
+                usesIndex("idx_category_change_changed_at"));
+        assertThat(planOf(() -> idempotencyKeyRepository.deleteExpired(before), before),
+                usesIndex("idx_idempotency_key_claimed_at"));
+    }
+
+    /**
+     * Plan of the last statement the query sent, with the same arguments.
+     */
+    private String planOf(Runnable query, Object... arguments) {
+        RecordedStatements.STATEMENTS.clear();
+        query.run();
+        List<String> statements = RecordedStatements.STATEMENTS;
+        assertThat(statements, is(not(empty())));
+        return jdbcTemplate.queryForObject("explain " + statements.get(statements.size() - 1), String.class, arguments);
+    }
+
+    /**
+     * H2 names the index of a constraint, and of a primary key, with a suffix of its own.
+     */
+    private static Matcher<String> usesIndex(String index) {
+        return allOf(containsStringIgnoringCase("public." + index), not(containsString("tableScan")));
+    }
+
+    public static class RecordedStatements implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Takes a database as the first release of the application left it, before the migrations, and
+ * brings it up to date the way application.properties configures Flyway.
+ */
+public class SchemaMigrationTest {
+
+    @Test
+    void whenADatabaseCreatedByHibernateIsBaselinedThenItGetsEveryLaterColumnAndTable() {
+        // given
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:baseline-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table category (id bigint generated by default as identity, " +
+                "category_description varchar(255) not null, category_name varchar(255) not null, " +
+                "image_url varchar(255) not null, primary key (id))");
+        jdbcTemplate.execute("alter table category add constraint UK_lroeo5fvfdeg4hpicn4lw7x9b unique (category_name)");
+        jdbcTemplate.execute("alter table category add constraint UK_c4u5d5h9uagk3nvroxwd7npoj unique (image_url)");
+        jdbcTemplate.update("insert into category (category_description, category_name, image_url) values ('Balls', 'Soccer', 'www.soccer.com')");
+
+        // when
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // then
+        Map<String, Object> soccer = jdbcTemplate.queryForMap("select path, depth, parent_id, version, updated_at from category");
+        assertThat(soccer.get("path"), is("/"));
+        assertThat(soccer.get("depth"), is(0));
+        assertThat(soccer.get("parent_id"), is(nullValue()));
+        List<String> tables = jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'public'", String.class);
+        assertThat(tables, hasItems("category_change", "idempotency_key", "category_id_sequence"));
+        List<String> constraints = jdbcTemplate.queryForList(
+                "select constraint_name from information_schema.table_constraints where table_name = 'category'", String.class);
+        assertThat(constraints, hasItems("uk_category_name", "uk_category_image_url"));
+        // the pooled ids start after the category of the first release
+        assertThat(jdbcTemplate.queryForObject("select next_val from category_id_sequence where sequence_name = 'category'", Long.class),
+                is(501L));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.search;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.config.CategorySuggestProperties;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CategorySuggestionIndexTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Spy
+    private CategorySuggestProperties suggestProperties = new CategorySuggestProperties();
+
+    @InjectMocks
+    private CategorySuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.findAllProjected()).thenReturn(List.of(
+                category(1L, "Soccer"),
+                category(2L, "Soccer Balls"),
+                category(3L, "Indoor Soccer"),
+                category(4L, "Sóccer Shoes for Kids"),
+                category(5L, "Basketball")));
+        suggestionIndex.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void whenQueryMatchesThenExactNameComesFirstThenNamePrefixesThenWordPrefixes() {
+        assertThat(names(suggestionIndex.suggest("soccer", 10)),
+                contains("Soccer", "Soccer Balls", "Sóccer Shoes for Kids", "Indoor Soccer"));
+    }
+
+    @Test
+    void whenQueryHasOtherCaseAndAccentsThenNamesStillMatch() {
+        assertThat(names(suggestionIndex.suggest("  SÓCCER   sh", 10)), contains("Sóccer Shoes for Kids"));
+        assertThat(names(suggestionIndex.suggest("kids", 10)), contains("Sóccer Shoes for Kids"));
+    }
+
+    @Test
+    void whenMoreNamesMatchThanTheLimitThenOnlyTheBestAreReturned() {
+        assertThat(names(suggestionIndex.suggest("s", 2)), contains("Soccer", "Soccer Balls"));
+    }
+
+    @Test
+    void whenQueryIsBlankOrUnknownThenNothingIsSuggested() {
+        assertThat(suggestionIndex.suggest(" ", 10), is(empty()));
+        assertThat(suggestionIndex.suggest("golf", 10), is(empty()));
+    }
+
+    @Test
+    void whenCategoriesChangeThenTheIndexFollows() {
+        suggestionIndex.onCategoryChanged(CategoryChangedEvent.created(category(6L, "Golf")));
+        suggestionIndex.onCategoryChanged(CategoryChangedEvent.updated(category(5L, "basketball"), category(5L, "Streetball")));
+
+        assertThat(suggestionIndex.suggest("golf", 10), contains(new CategorySuggestionDTO(6L, "Golf")));
+        assertThat(suggestionIndex.suggest("street", 10), contains(new CategorySuggestionDTO(5L, "Streetball")));
+        assertThat(suggestionIndex.suggest("basket", 10), is(empty()));
+        assertThat(suggestionIndex.size(), is(equalTo(6)));
+    }
+
+    @Test
+    void whenANameHasSeveralWordsMatchingThenItIsSuggestedOnce() {
+        suggestionIndex.onCategoryChanged(CategoryChangedEvent.created(category(6L, "Beach Soccer Socks")));
+
+        assertThat(names(suggestionIndex.suggest("so", 10)),
+                contains("Soccer", "Soccer Balls", "Sóccer Shoes for Kids", "Indoor Soccer", "Beach Soccer Socks"));
+    }
+
+    @Test
+    void whenIndexIsRebuiltThenChangesMadeWhileItLoadedAreKept() {
+        // given
+        when(categoryRepository.findAllProjected()).thenAnswer(invocation -> {
+            suggestionIndex.onCategoryChanged(CategoryChangedEvent.created(category(6L, "Golf")));
+            return List.of(category(1L, "Soccer"));
+        });
+
+        // when
+        suggestionIndex.rebuild();
+
+        // then
+        assertThat(names(suggestionIndex.suggest("golf", 10)), contains("Golf"));
+        assertThat(names(suggestionIndex.suggest("basket", 10)), is(empty()));
+        assertThat(suggestionIndex.size(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenAChangeOlderThanTheIndexedVersionArrivesThenItIsIgnored() {
+        CategoryDTO renamed = CategoryDTOBuilder.builder().id(5L).categoryName("Streetball").version(2L).build().toCategoryDTO();
+        CategoryDTO late = CategoryDTOBuilder.builder().id(5L).categoryName("Hoops").version(1L).build().toCategoryDTO();
+        suggestionIndex.onCategoryChanged(CategoryChangedEvent.remote(category(5L, "Basketball"), renamed));
+
+        suggestionIndex.onCategoryChanged(CategoryChangedEvent.remote(category(5L, "Basketball"), late));
+
+        assertThat(names(suggestionIndex.suggest("street", 10)), contains("Streetball"));
+        assertThat(suggestionIndex.suggest("hoops", 10), is(empty()));
+    }
+
+    @Test
+    void whenAQueryLongerThanThePrecomputedPrefixesMatchesManyNamesThenOnlyMaxScanMatchesAreWalked() {
+        // given
+        suggestProperties.setMaxScan(2);
+
+        // when
+        List<CategorySuggestionDTO> walked = suggestionIndex.suggest("socc", 10);
+        List<CategorySuggestionDTO> precomputed = suggestionIndex.suggest("soc", 10);
+
+        // then
+        assertThat(walked, hasSize(2));
+        assertThat(names(precomputed), contains("Soccer", "Soccer Balls", "Sóccer Shoes for Kids", "Indoor Soccer"));
+    }
+
+    @Test
+    void whenABestMatchOfAShortQueryIsRenamedThenTheNextMatchMovesUp() {
+        // given
+        suggestProperties.setMaxLimit(2);
+        suggestionIndex.rebuild();
+
+        // when
+        suggestionIndex.onCategoryChanged(CategoryChangedEvent.updated(category(1L, "Soccer"), category(1L, "Golf")));
+
+        // then
+        assertThat(names(suggestionIndex.suggest("s", 2)), contains("Soccer Balls", "Sóccer Shoes for Kids"));
+        assertThat(names(suggestionIndex.suggest("g", 2)), contains("Golf"));
+    }
+
+    private static CategoryDTO category(Long id, String name) {
+        return CategoryDTOBuilder.builder().id(id).categoryName(name).build().toCategoryDTO();
+    }
+
+    private static List<String> names(List<CategorySuggestionDTO> suggestions) {
+        return suggestions.stream().map(CategorySuggestionDTO::getCategoryName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+public class CategoryExportServiceTest {
+
+    @Autowired
+    private CategoryExportService categoryExportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category soccer;
+
+    private Category tennis;
+
+    @BeforeEach
+    void setUp() {
+        CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+        soccer = categoryRepository.save(categoryMapper.toNewModel(CategoryDTOBuilder.builder().build().toCategoryDTO()));
+        tennis = categoryRepository.save(categoryMapper.toNewModel(CategoryDTOBuilder.builder()
+                .categoryName("Tennis")
+                .categoryDescription("Rackets, balls, \"pro\" gear")
+                .imageUrl("www.tennis.com")
+                .build()
+                .toCategoryDTO()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void whenExportedAsNdjsonThenEveryCategoryIsWrittenOnItsOwnLine() throws IOException {
+        String[] lines = export(CategoryExportFormat.NDJSON, 0L).split("\n");
+
+        assertThat(lines.length, is(equalTo(2)));
+        assertThat(lines[0], containsString("\"categoryName\":\"Soccer\""));
+        assertThat(lines[1], containsString("\"categoryName\":\"Tennis\""));
+    }
+
+    @Test
+    void whenExportedAsCsvThenFieldsAreQuotedWhenNeeded() throws IOException {
+        String[] lines = export(CategoryExportFormat.CSV, 0L).split("\n");
+
+        assertThat(lines[0], is(equalTo("id,categoryName,categoryDescription,imageUrl")));
+        assertThat(lines[2], is(equalTo(tennis.getId() + ",Tennis,\"Rackets, balls, \"\"pro\"\" gear\",www.tennis.com")));
+    }
+
+    @Test
+    void whenExportedSinceAnIdThenOnlyLaterCategoriesAreWritten() throws IOException {
+        String[] lines = export(CategoryExportFormat.NDJSON, soccer.getId()).split("\n");
+
+        assertThat(lines.length, is(equalTo(1)));
+        assertThat(lines[0], containsString("\"categoryName\":\"Tennis\""));
+    }
+
+    private String export(CategoryExportFormat format, long sinceId) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        categoryExportService.export(format, sinceId, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
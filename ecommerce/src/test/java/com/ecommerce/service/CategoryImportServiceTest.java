@@ -0,0 +1,162 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.response.CategoryImportResultDTO;
+import com.ecommerce.dto.response.CategoryImportRowDTO;
+import com.ecommerce.dto.response.CategoryImportStatus;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.mapping-resources=META-INF/orm-pooled-ids.xml",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2",
+        "category.import.batch-size=2"
+})
+public class CategoryImportServiceTest {
+
+    @Autowired
+    private CategoryImportService categoryImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void whenJsonArrayIsImportedThenEveryRowIsReported() throws IOException {
+        String payload = "[" +
+                category("Soccer", "www.soccer.com") + "," +
+                category("Tennis", "www.tennis.com") + "," +
+                "{\"categoryName\":\"Golf\"}," +
+                category("soccer", "www.soccer2.com") + "," +
+                category("Basketball", "www.basketball.com") +
+                "]";
+
+        CategoryImportResultDTO result = categoryImportService.importCategories(asStream(payload));
+
+        assertThat(statuses(result.getRows()), contains(
+                CategoryImportStatus.CREATED,
+                CategoryImportStatus.CREATED,
+                CategoryImportStatus.INVALID,
+                CategoryImportStatus.DUPLICATE,
+                CategoryImportStatus.CREATED));
+        assertThat(result.getCreated(), is(equalTo(3L)));
+        assertThat(result.getRejected(), is(equalTo(2L)));
+        assertThat(result.getRows().get(0).getId(), is(notNullValue()));
+        assertThat(categoryRepository.count(), is(equalTo(3L)));
+    }
+
+    @Test
+    void whenNdjsonStreamContainsExistingCategoriesThenTheyAreReportedAsDuplicates() throws IOException {
+        categoryImportService.importCategories(asStream(category("Soccer", "www.soccer.com")));
+
+        String payload = category("Soccer", "www.soccer.com") + "\n" +
+                category("Tennis", "www.tennis.com") + "\n";
+
+        CategoryImportResultDTO result = categoryImportService.importCategories(asStream(payload));
+
+        assertThat(statuses(result.getRows()), contains(CategoryImportStatus.DUPLICATE, CategoryImportStatus.CREATED));
+    }
+
+    @Test
+    void whenRowViolatesAnotherConstraintThenOnlyThatRowFails() throws IOException {
+        String payload = category("Soccer", "www.same.com") + "\n" +
+                category("Tennis", "www.same.com") + "\n";
+
+        CategoryImportResultDTO result = categoryImportService.importCategories(asStream(payload));
+
+        assertThat(statuses(result.getRows()), contains(CategoryImportStatus.CREATED, CategoryImportStatus.FAILED));
+    }
+
+    @Test
+    void whenRowIsMalformedThenImportStopsAndPreviousRowsAreKept() throws IOException {
+        String payload = category("Soccer", "www.soccer.com") + "\n{\"categoryName\":";
+
+        CategoryImportResultDTO result = categoryImportService.importCategories(asStream(payload));
+
+        assertThat(statuses(result.getRows()), contains(CategoryImportStatus.CREATED, CategoryImportStatus.INVALID));
+        assertThat(result.getRows().get(1).getRow(), is(equalTo(2)));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void whenPooledIdsAreSwitchedOnOverExistingCategoriesThenNewIdsComeAfterThem() throws IOException {
+        // given: categories created by the IDENTITY column before the restart with pooled ids
+        jdbcTemplate.update("insert into category (id, category_description, category_name, image_url, version) " +
+                "values (200, 'Golf products', 'Golf', 'www.golf.com', 0)");
+
+        // when: the restart migrates, then imports
+        flyway.migrate();
+        String payload = category("Soccer", "www.soccer.com") + "\n" + category("Tennis", "www.tennis.com") + "\n";
+        CategoryImportResultDTO result = categoryImportService.importCategories(asStream(payload));
+
+        // then
+        assertThat(statuses(result.getRows()), contains(CategoryImportStatus.CREATED, CategoryImportStatus.CREATED));
+        assertThat(result.getRows().get(0).getId(), is(greaterThan(200L)));
+        assertThat(result.getRows().get(1).getId(), is(greaterThan(200L)));
+    }
+
+    @Test
+    void whenRowsNameAParentThenTheyArePlacedUnderItAndRowsWithAMissingParentAreRejected() throws IOException {
+        // given
+        Long sportsId = categoryImportService.importCategories(asStream(category("Sports", "www.sports.com")))
+                .getRows().get(0).getId();
+        String payload = childCategory("Soccer", "www.soccer.com", sportsId) + "\n" +
+                childCategory("Tennis", "www.tennis.com", -1L) + "\n" +
+                category("Golf", "www.golf.com") + "\n";
+
+        // when
+        CategoryImportResultDTO result = categoryImportService.importCategories(asStream(payload));
+
+        // then
+        assertThat(statuses(result.getRows()),
+                contains(CategoryImportStatus.CREATED, CategoryImportStatus.INVALID, CategoryImportStatus.CREATED));
+        assertThat(result.getRows().get(1).getMessage(), containsString("-1"));
+        Category soccer = categoryRepository.findById(result.getRows().get(0).getId()).orElseThrow();
+        assertThat(soccer.getParentId(), is(equalTo(sportsId)));
+        assertThat(soccer.getPath(), is(equalTo("/" + sportsId + "/")));
+        assertThat(soccer.getDepth(), is(equalTo(1)));
+        assertThat(categoryRepository.findById(result.getRows().get(2).getId()).orElseThrow().getParentId(), is(nullValue()));
+    }
+
+    private static String childCategory(String name, String imageUrl, Long parentId) {
+        return String.format("{\"categoryName\":\"%s\",\"categoryDescription\":\"%s products\",\"imageUrl\":\"%s\",\"parentId\":%d}",
+                name, name, imageUrl, parentId);
+    }
+
+    private static String category(String name, String imageUrl) {
+        return String.format("{\"categoryName\":\"%s\",\"categoryDescription\":\"%s products\",\"imageUrl\":\"%s\"}", name, name, imageUrl);
+    }
+
+    private static ByteArrayInputStream asStream(String payload) {
+        return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<CategoryImportStatus> statuses(List<CategoryImportRowDTO> rows) {
+        return rows.stream().map(CategoryImportRowDTO::getStatus).collect(Collectors.toList());
+    }
+}
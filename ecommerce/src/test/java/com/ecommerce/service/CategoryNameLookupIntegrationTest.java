@@ -0,0 +1,173 @@
+package com.ecommerce.service;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryLookupResultDTO;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.repository.CategoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "category.lookup.chunk-size=2",
+        "category.lookup.coalesce.enabled=true",
+        "category.lookup.coalesce.window=500ms",
+        "category.lookup.coalesce.max-batch=4"
+})
+public class CategoryNameLookupIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void whenSeveralNamesAreLookedUpThenTheyAreReadInChunks() throws Exception {
+        // given
+        create("Soccer", "Tennis", "Golf", "Rugby");
+        statistics.clear();
+
+        // when
+        CategoryLookupResultDTO result = categoryService.lookup(List.of("rugby", "Soccer", "Chess", "GOLF", "Tennis"));
+
+        // then
+        assertThat(result.getCategories().stream().map(CategoryDTO::getCategoryName).collect(Collectors.toList()),
+                contains("Rugby", "Soccer", "Golf", "Tennis"));
+        assertThat(result.getMissing(), contains("Chess"));
+        assertThat(lookupQueries(), is(3L));
+    }
+
+    @Test
+    void whenSingleNamesAreLookedUpConcurrentlyThenOneQueryAnswersThem() throws Exception {
+        // given
+        create("Basketball", "Volleyball", "Handball");
+        DistributionSummary coalesced = meterRegistry.get("category.lookup.coalesced").summary();
+        long queries = coalesced.count();
+        double names = coalesced.totalAmount();
+        statistics.clear();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        List<Future<CategoryDTO>> lookups = new ArrayList<>();
+        for (String name : List.of("Basketball", "volleyball", "Handball", "Cricket")) {
+            lookups.add(executor.submit(() -> {
+                start.await();
+                return categoryService.listCategoryByName(name);
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+
+        // then
+        assertThat(lookups.get(0).get().getCategoryName(), is("Basketball"));
+        assertThat(lookups.get(1).get().getCategoryName(), is("Volleyball"));
+        assertThat(lookups.get(2).get().getCategoryName(), is("Handball"));
+        Exception missing = assertThrows(Exception.class, () -> lookups.get(3).get());
+        assertThat(missing.getCause(), is(instanceOf(CategoryNotFoundException.class)));
+        assertThat(coalesced.count() - queries, is(1L));
+        assertThat(coalesced.totalAmount() - names, is(4.0));
+        // one batch, in two chunks of category.lookup.chunk-size
+        assertThat(lookupQueries(), is(2L));
+    }
+
+    @Test
+    void whenASingleNameIsLookedUpAloneThenItIsSentWhenTheWindowCloses() throws Exception {
+        // given
+        create("Baseball");
+        statistics.clear();
+
+        // when
+        CategoryDTO baseball = categoryService.listCategoryByName("Baseball");
+
+        // then
+        assertThat(baseball.getCategoryName(), is("Baseball"));
+        assertThat(lookupQueries(), is(1L));
+    }
+
+    @Test
+    void whenTheCallerHoldsAStaleWakeUpThenItsBatchStillWaitsForTheWindow() throws Exception {
+        // given a wake-up left over from an earlier batch
+        create("Cycling", "Rowing");
+        DistributionSummary coalesced = meterRegistry.get("category.lookup.coalesced").summary();
+        long queries = coalesced.count();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        LockSupport.unpark(Thread.currentThread());
+
+        // when a second name arrives well within the window of the first
+        Future<CategoryDTO> rowing = executor.submit(() -> {
+            Thread.sleep(100);
+            return categoryService.listCategoryByName("Rowing");
+        });
+        CategoryDTO cycling = categoryService.listCategoryByName("Cycling");
+        executor.shutdown();
+
+        // then
+        assertThat(cycling.getCategoryName(), is("Cycling"));
+        assertThat(rowing.get(10, TimeUnit.SECONDS).getCategoryName(), is("Rowing"));
+        assertThat(coalesced.count() - queries, is(1L));
+    }
+
+    /**
+     * Executions of the IN-list query only, the invalidation poller runs queries of its own.
+     */
+    private long lookupQueries() {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains("c.categoryName in :names"))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+
+    private void create(String... names) throws Exception {
+        for (String name : names) {
+            categoryService.createCategory(CategoryDTOBuilder.builder()
+                    .categoryName(name)
+                    .imageUrl("www." + name.toLowerCase() + ".com")
+                    .build()
+                    .toCategoryDTO());
+        }
+    }
+}
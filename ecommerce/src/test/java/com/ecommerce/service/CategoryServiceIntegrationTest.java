@@ -0,0 +1,199 @@
+package com.ecommerce.service;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.event.CategoryChangedEvent;
+import com.ecommerce.exception.CategoryNameAlreadyExistsException;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.snapshot.CategoryJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class CategoryServiceIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecordedChanges recordedChanges;
+
+    @TestConfiguration
+    static class RecordedChanges {
+
+        private final List<CategoryChangedEvent> changes = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void record(CategoryChangedEvent event) {
+            changes.add(event);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void whenCategoryIsCreatedTwiceThenTheUniqueNameViolationIsTranslated() throws Exception {
+        CategoryDTO categoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        categoryService.createCategory(categoryDTO);
+
+        CategoryDTO duplicatedCategoryDTO = CategoryDTOBuilder.builder().imageUrl("www.other.com").build().toCategoryDTO();
+
+        assertThrows(CategoryNameAlreadyExistsException.class, () -> categoryService.createCategory(duplicatedCategoryDTO));
+    }
+
+    @Test
+    void whenCategoryNameOnlyDiffersInCaseThenItIsTheSameName() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+
+        CategoryDTO upperCaseCategoryDTO = CategoryDTOBuilder.builder().categoryName("SOCCER").imageUrl("www.other.com").build().toCategoryDTO();
+
+        assertThrows(CategoryNameAlreadyExistsException.class, () -> categoryService.createCategory(upperCaseCategoryDTO));
+        assertThat(categoryRepository.findByCategoryName("soccer").orElseThrow().getCategoryName(), is(equalTo("Soccer")));
+    }
+
+    @Test
+    void whenCategoryIsRenamedToAnExistingNameThenTheUniqueNameViolationIsTranslated() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        categoryService.createCategory(CategoryDTOBuilder.builder().categoryName("Basketball").imageUrl("www.basketball.com").build().toCategoryDTO());
+
+        CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder.builder().categoryName("Basketball").imageUrl("www.new.com").build().toCategoryDTO();
+
+        assertThrows(CategoryNameAlreadyExistsException.class, () -> categoryService.update("Soccer", categoryDTOToUpdate));
+    }
+
+    @Test
+    void whenCategoryIsUpdatedThenTheNewValuesAreRead() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        categoryService.listCategoryByName("Soccer");
+
+        CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder.builder().categoryDescription("Soccer balls and shoes").build().toCategoryDTO();
+        categoryService.update("Soccer", categoryDTOToUpdate);
+
+        assertThat(categoryService.listCategoryByName("Soccer").getCategoryDescription(), is(equalTo("Soccer balls and shoes")));
+    }
+
+    @Test
+    void whenNotRegisteredCategoryIsUpdatedThenThrowAnException() {
+        CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder.builder().build().toCategoryDTO();
+
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.update("Tennis", categoryDTOToUpdate));
+    }
+
+    @Test
+    void whenCategoryIsUpdatedThenItsValidatorChanges() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        CategoryValidator created = categoryService.validatorOf("Soccer");
+
+        CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder.builder().categoryDescription("Soccer balls and shoes").build().toCategoryDTO();
+        categoryService.update("Soccer", categoryDTOToUpdate);
+
+        CategoryDTO updated = categoryService.listCategoryByName("Soccer");
+        assertThat(updated.getVersion(), is(equalTo(1L)));
+        assertThat(categoryService.validatorOf("Soccer"), is(equalTo(CategoryValidator.of(updated))));
+        assertThat(categoryService.validatorOf("Soccer").getETag(), is(not(equalTo(created.getETag()))));
+    }
+
+    @Test
+    void whenPageValidatorIsReadFromVersionsThenItMatchesTheLoadedPage() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        categoryService.createCategory(CategoryDTOBuilder.builder().categoryName("Basketball").imageUrl("www.basketball.com").build().toCategoryDTO());
+
+        assertThat(categoryService.pageValidatorOf(null, 1),
+                is(equalTo(CategoryValidator.ofPage(categoryService.listPage(null, 1)))));
+        assertThat(categoryService.pageValidatorOf(null, 2),
+                is(equalTo(CategoryValidator.ofPage(categoryService.listPage(null, 2)))));
+    }
+
+    @Test
+    void whenPageIsWrittenStraightFromTheRowsThenItIsTheJsonOfTheLoadedPage() throws Exception {
+        CategoryDTO sports = categoryService.createCategory(CategoryDTOBuilder.builder().categoryName("Sports").imageUrl("www.sports.com").build().toCategoryDTO());
+        categoryService.createCategory(CategoryDTOBuilder.builder().parentId(sports.getId()).build().toCategoryDTO());
+        categoryService.createCategory(CategoryDTOBuilder.builder().categoryName("Fútbol \"Sala\" 🏆")
+                .categoryDescription("Balls\\shoes\n\tand\u0001nets").imageUrl("www.futbol.com").build().toCategoryDTO());
+        categoryService.update("Sports", CategoryDTOBuilder.builder().categoryName("Sports").imageUrl("www.new.com").build().toCategoryDTO());
+
+        for (String cursor : new String[]{null, CategoryCursor.encode(sports.getId())}) {
+            CategoryJson json = categoryService.listPageJson(cursor, 2);
+            CategoryPageDTO page = categoryService.listPage(cursor, 2);
+
+            assertThat(new String(json.body(), StandardCharsets.UTF_8), is(equalTo(objectMapper.writeValueAsString(page))));
+            assertThat(json.validator(), is(equalTo(CategoryValidator.ofPage(page))));
+        }
+    }
+
+    @Test
+    void whenCategoryIsRenamedThenSuggestionsFollowTheNewName() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().categoryName("Futebol").imageUrl("www.futebol.com").build().toCategoryDTO());
+        assertThat(suggestedNames("fut"), hasItem("Futebol"));
+
+        CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder.builder().categoryName("Fútbol Sala").imageUrl("www.futebol.com").build().toCategoryDTO();
+        categoryService.update("Futebol", categoryDTOToUpdate);
+
+        assertThat(suggestedNames("fut"), allOf(hasItem("Fútbol Sala"), not(hasItem("Futebol"))));
+        assertThat(suggestedNames("sala"), hasItem("Fútbol Sala"));
+    }
+
+    @Test
+    void whenCategoryIsUpdatedConcurrentlyThenEveryEventCarriesTheRowItReplaced() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        List<CategoryChangedEvent> changes = recordedChanges.changes;
+        changes.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> updates = IntStream.range(0, 8)
+                    .mapToObj(update -> executor.submit(() -> categoryService.update("Soccer",
+                            CategoryDTOBuilder.builder().categoryDescription("update " + update).build().toCategoryDTO())))
+                    .collect(Collectors.toList());
+            for (Future<?> update : updates) {
+                update.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(changes.stream().map(event -> event.getBefore().getVersion()).collect(Collectors.toList()),
+                containsInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L));
+        for (CategoryChangedEvent event : changes) {
+            assertThat(event.getAfter().getVersion(), is(equalTo(event.getBefore().getVersion() + 1)));
+        }
+        assertThat(categoryService.listCategoryByName("Soccer").getVersion(), is(equalTo(8L)));
+    }
+
+    private List<String> suggestedNames(String query) {
+        return categoryService.suggest(query, null).stream()
+                .map(CategorySuggestionDTO::getCategoryName)
+                .collect(Collectors.toList());
+    }
+}
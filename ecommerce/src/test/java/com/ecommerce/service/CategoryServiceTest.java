@@ -1,21 +1,46 @@
 package com.ecommerce.service;
 
 import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.cache.CategoryNameCache;
+import com.ecommerce.config.CategoryCacheProperties;
+import com.ecommerce.config.CategoryListingProperties;
+import com.ecommerce.config.CategoryLookupProperties;
+import com.ecommerce.config.CategorySuggestProperties;
 import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryLookupResultDTO;
+import com.ecommerce.dto.response.CategoryPageDTO;
+import com.ecommerce.dto.response.CategorySuggestionDTO;
+import com.ecommerce.event.CategoryChangedEvent;
 import com.ecommerce.dto.response.MessageResponseDTO;
 import com.ecommerce.exception.CategoryNameAlreadyExistsException;
 import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.exception.InvalidCategoryParentException;
+import com.ecommerce.exception.InvalidCursorException;
+import com.ecommerce.exception.TooManyCategoryNamesException;
+import com.ecommerce.exception.UnboundedListingDisabledException;
 import com.ecommerce.mapper.CategoryMapper;
 import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryJsonRepository;
 import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.search.CategorySuggestionIndex;
+import com.ecommerce.snapshot.CategorySnapshots;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -23,6 +48,11 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,20 +61,46 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryJsonRepository categoryJsonRepository;
+
+    @Spy
+    private CategoryListingProperties listingProperties = new CategoryListingProperties();
+
+    @Spy
+    private CategoryNameCache categoryNameCache = new CategoryNameCache(new CategoryCacheProperties());
+
+    @Mock
+    private CategoryNameLookup categoryNameLookup;
+
+    @Spy
+    private CategoryLookupProperties lookupProperties = new CategoryLookupProperties();
+
+    @Mock
+    private CategorySuggestionIndex suggestionIndex;
+
+    @Spy
+    private CategorySuggestProperties suggestProperties = new CategorySuggestProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CategorySnapshots snapshots;
+
     private CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
 
     @InjectMocks
     private CategoryService categoryService;
 
     @Test
-    void whenPOSTCalledAndCategoryInformedThenItShouldBeCreated() throws CategoryNameAlreadyExistsException {
+    void whenPOSTCalledAndCategoryInformedThenItShouldBeCreated() throws CategoryNameAlreadyExistsException, CategoryNotFoundException, InvalidCategoryParentException {
         // given
         CategoryDTO expectedCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
         Category expectedSavedCategory = categoryMapper.toModel(expectedCategoryDTO);
 
         // when
-        when(categoryRepository.findByCategoryName(expectedCategoryDTO.getCategoryName())).thenReturn(Optional.empty());
-        when(categoryRepository.save(expectedSavedCategory)).thenReturn(expectedSavedCategory);
+        when(categoryRepository.saveAndFlush(any(Category.class))).thenReturn(expectedSavedCategory);
 
         //then
         CategoryDTO createdCategoryDTO = categoryService.createCategory(expectedCategoryDTO);
@@ -56,14 +112,42 @@ public class CategoryServiceTest {
 
     }
 
+    @Test
+    void whenCategoryIsCreatedThenAChangeEventIsPublished() throws CategoryNameAlreadyExistsException, CategoryNotFoundException, InvalidCategoryParentException {
+        // given
+        CategoryDTO expectedCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        Category expectedSavedCategory = categoryMapper.toModel(expectedCategoryDTO);
+
+        // when
+        when(categoryRepository.saveAndFlush(any(Category.class))).thenReturn(expectedSavedCategory);
+        categoryService.createCategory(expectedCategoryDTO);
+
+        // then
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().isCreation(), is(true));
+        assertThat(event.getValue().getAfter(), is(equalTo(expectedCategoryDTO)));
+    }
+
+    @Test
+    void whenSuggestIsCalledWithoutLimitThenTheDefaultLimitIsUsed() {
+        // given
+        List<CategorySuggestionDTO> suggestions = List.of(new CategorySuggestionDTO(1L, "Soccer"));
+
+        // when
+        when(suggestionIndex.suggest("soc", 10)).thenReturn(suggestions);
+
+        // then
+        assertThat(categoryService.suggest("soc", null), is(equalTo(suggestions)));
+    }
+
     @Test
     void whenPOSTCalledAndAlreadyRegisteredCategoryInformedThenAnExceptionShouldBeThrown() {
         // given
         CategoryDTO expectedCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
-        Category duplicatedCategory = categoryMapper.toModel(expectedCategoryDTO);
 
         // when
-        when(categoryRepository.findByCategoryName(expectedCategoryDTO.getCategoryName())).thenReturn(Optional.of(duplicatedCategory));
+        when(categoryRepository.saveAndFlush(any(Category.class))).thenThrow(uniqueViolation("category.uk_category_name"));
 
         // then
         assertThrows(CategoryNameAlreadyExistsException.class, () -> categoryService.createCategory(expectedCategoryDTO));
@@ -84,6 +168,23 @@ public class CategoryServiceTest {
         assertThat(foundCategoryDTO, is(equalTo(expectedFoundCategoryDTO)));
     }
 
+    @Test
+    void whenGETCalledTwiceWithSameCategoryNameThenRepositoryIsQueriedOnce() throws CategoryNotFoundException {
+        // given
+        CategoryDTO expectedFoundCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        Category expectedFoundCategory = categoryMapper.toModel(expectedFoundCategoryDTO);
+
+        // when
+        when(categoryRepository.findByCategoryName(expectedFoundCategory.getCategoryName())).thenReturn(Optional.of(expectedFoundCategory));
+
+        // then
+        categoryService.listCategoryByName(expectedFoundCategoryDTO.getCategoryName());
+        CategoryDTO foundCategoryDTO = categoryService.listCategoryByName(expectedFoundCategoryDTO.getCategoryName());
+
+        assertThat(foundCategoryDTO, is(equalTo(expectedFoundCategoryDTO)));
+        verify(categoryRepository, times(1)).findByCategoryName(expectedFoundCategory.getCategoryName());
+    }
+
     @Test
     void whenGETCalledWithNotRegisteredCategoryNameThenThrowAnException() {
         // given
@@ -97,13 +198,55 @@ public class CategoryServiceTest {
     }
 
     @Test
-    void whenGETListCategoryCalledThenReturnAListOfCategories() {
+    void whenLookupIsCalledThenFoundCategoriesAndMissingNamesAreReturnedInRequestOrder() throws TooManyCategoryNamesException {
+        // given
+        CategoryDTO soccer = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        CategoryDTO tennis = CategoryDTOBuilder.builder().id(2L).categoryName("Tennis").imageUrl("www.tennis.com").build().toCategoryDTO();
+
+        // when
+        when(categoryNameLookup.findAll(List.of("Tennis", "Golf", "soccer")))
+                .thenReturn(Map.of("tennis", tennis, "soccer", soccer));
+        CategoryLookupResultDTO result = categoryService.lookup(List.of("Tennis", "Golf", "soccer", "TENNIS"));
+
+        // then
+        assertThat(result.getCategories(), contains(tennis, soccer));
+        assertThat(result.getMissing(), contains("Golf"));
+    }
+
+    @Test
+    void whenLookupIsCalledWithCachedNamesThenOnlyTheOthersAreQueried() throws TooManyCategoryNamesException, CategoryNotFoundException {
+        // given
+        CategoryDTO soccer = CategoryDTOBuilder.builder().build().toCategoryDTO();
+        when(categoryRepository.findByCategoryName("Soccer")).thenReturn(Optional.of(categoryMapper.toModel(soccer)));
+        categoryService.listCategoryByName("Soccer");
+
+        // when
+        when(categoryNameLookup.findAll(List.of("Golf"))).thenReturn(Map.of());
+        CategoryLookupResultDTO result = categoryService.lookup(List.of("Soccer", "Golf"));
+
+        // then
+        assertThat(result.getCategories(), contains(soccer));
+        assertThat(result.getMissing(), contains("Golf"));
+    }
+
+    @Test
+    void whenLookupIsCalledWithTooManyNamesThenThrowAnException() {
+        // given
+        lookupProperties.setMaxNames(2);
+
+        // then
+        assertThrows(TooManyCategoryNamesException.class, () -> categoryService.lookup(List.of("Soccer", "Tennis", "Golf")));
+        verify(categoryNameLookup, never()).findAll(anyCollection());
+    }
+
+    @Test
+    void whenGETListCategoryCalledThenReturnAListOfCategories() throws UnboundedListingDisabledException {
         // given
         CategoryDTO expectedFoundCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
-        Category expectedFoundCategory = categoryMapper.toModel(expectedFoundCategoryDTO);
+        listingProperties.setUnboundedEnabled(true);
 
         //when
-        when(categoryRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundCategory));
+        when(categoryRepository.findAllProjected()).thenReturn(Collections.singletonList(expectedFoundCategoryDTO));
 
         //then
         List<CategoryDTO> foundListCategoriesDTO = categoryService.listAll();
@@ -113,9 +256,12 @@ public class CategoryServiceTest {
     }
 
     @Test
-    void whenGETCalledWithListCategoryThenReturnAnEmptyListOfCategories() {
+    void whenGETCalledWithListCategoryThenReturnAnEmptyListOfCategories() throws UnboundedListingDisabledException {
+        // given
+        listingProperties.setUnboundedEnabled(true);
+
         //when
-        when(categoryRepository.findAll()).thenReturn(Collections.EMPTY_LIST);
+        when(categoryRepository.findAllProjected()).thenReturn(Collections.EMPTY_LIST);
 
         //then
         List<CategoryDTO> foundListCategoriesDTO = categoryService.listAll();
@@ -124,32 +270,93 @@ public class CategoryServiceTest {
     }
 
     @Test
-    void whenUpdatedIsCalledWithValidIdThenUpdatedCategory() throws CategoryNotFoundException, CategoryNameAlreadyExistsException {
-        //given
+    void whenGETListCategoryCalledWithoutUnboundedOptInThenThrowAnException() {
+        assertThrows(UnboundedListingDisabledException.class, () -> categoryService.listAll());
+    }
+
+    @Test
+    void whenGETPageCalledAndMoreRowsExistThenReturnPageWithNextCursor() throws InvalidCursorException {
+        // given
+        CategoryDTO firstCategoryDTO = CategoryDTOBuilder.builder().id(1L).build().toCategoryDTO();
+        CategoryDTO secondCategoryDTO = CategoryDTOBuilder.builder().id(2L).categoryName("Basketball").build().toCategoryDTO();
+
+        // when
+        when(categoryRepository.findPageAfter(eq(0L), eq(PageRequest.of(0, 2))))
+                .thenReturn(Arrays.asList(firstCategoryDTO, secondCategoryDTO));
+
+        // then
+        CategoryPageDTO page = categoryService.listPage(null, 1);
+
+        assertThat(page.getContent(), contains(firstCategoryDTO));
+        assertThat(page.getNextCursor(), is(equalTo(CategoryCursor.encode(1L))));
+    }
+
+    @Test
+    void whenGETPageCalledWithCursorOfLastPageThenReturnPageWithoutNextCursor() throws InvalidCursorException {
+        // given
+        CategoryDTO secondCategoryDTO = CategoryDTOBuilder.builder().id(2L).categoryName("Basketball").build().toCategoryDTO();
+
+        // when
+        when(categoryRepository.findPageAfter(eq(1L), eq(PageRequest.of(0, 51))))
+                .thenReturn(Collections.singletonList(secondCategoryDTO));
+
+        // then
+        CategoryPageDTO page = categoryService.listPage(CategoryCursor.encode(1L), null);
+
+        assertThat(page.getContent(), contains(secondCategoryDTO));
+        assertThat(page.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenGETPageCalledWithMalformedCursorThenThrowAnException() {
+        assertThrows(InvalidCursorException.class, () -> categoryService.listPage("not-a-cursor", null));
+    }
+
+    @Test
+    void whenPOSTCalledAndAnotherConstraintIsViolatedThenTheViolationIsRethrown() {
+        // given
         CategoryDTO expectedCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
-        Category expectedSavedCategory = categoryMapper.toModel(expectedCategoryDTO);
 
         // when
-        when(categoryRepository.findByCategoryName(expectedCategoryDTO.getCategoryName())).thenReturn(Optional.of(expectedSavedCategory));
-        when(categoryRepository.save(any(Category.class))).thenReturn(expectedSavedCategory);
+        when(categoryRepository.saveAndFlush(any(Category.class))).thenThrow(uniqueViolation("category.uk_image_url"));
 
+        // then
+        assertThrows(DataIntegrityViolationException.class, () -> categoryService.createCategory(expectedCategoryDTO));
+    }
 
+    @Test
+    void whenUpdatedIsCalledWithValidNameThenUpdatedCategory() throws CategoryNotFoundException, CategoryNameAlreadyExistsException {
+        //given
         CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder
                 .builder()
                 .categoryName("Teste nome atualizado")
                 .build()
                 .toCategoryDTO();
+        Category currentCategory = categoryMapper.toModel(CategoryDTOBuilder.builder().build().toCategoryDTO());
 
-        // then
-        MessageResponseDTO successMessage = categoryService.update(expectedSavedCategory.getCategoryName(), categoryDTOToUpdate);
-
-        assertEquals("Category successfully updated with ID 1", successMessage.getMessage());
+        // when
+        when(categoryRepository.findForUpdateByCategoryName("Soccer")).thenReturn(Optional.of(currentCategory));
+        when(categoryRepository.updateByCategoryName(eq("Soccer"),
+                eq(categoryDTOToUpdate.getCategoryName()),
+                eq(categoryDTOToUpdate.getCategoryDescription()),
+                eq(categoryDTOToUpdate.getImageUrl()),
+                any(Instant.class))).thenReturn(1);
 
+        // then
+        MessageResponseDTO successMessage = categoryService.update("Soccer", categoryDTOToUpdate);
+
+        assertEquals("Category successfully updated with name Teste nome atualizado", successMessage.getMessage());
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getBefore().getCategoryName(), is(equalTo("Soccer")));
+        assertThat(event.getValue().getAfter().getCategoryName(), is(equalTo("Teste nome atualizado")));
+        assertThat(event.getValue().getAfter().getId(), is(equalTo(currentCategory.getId())));
+        assertThat(event.getValue().getAfter().getVersion(), is(equalTo(currentCategory.getVersion() + 1)));
     }
 
     @Test
-    void whenUpdatedIsCalledWithInvalidIdThenThrowExceptionCategory(){
-
+    void whenUpdatedIsCalledWithInvalidNameThenThrowExceptionCategory(){
+        //given
         CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder
                 .builder()
                 .id(2L)
@@ -157,30 +364,46 @@ public class CategoryServiceTest {
                 .build()
                 .toCategoryDTO();
 
-        assertThrows(CategoryNotFoundException.class, () -> categoryService.update(categoryDTOToUpdate.getCategoryName(), categoryDTOToUpdate),"Category with id 2 not found.");
+        // when
+        when(categoryRepository.findForUpdateByCategoryName(categoryDTOToUpdate.getCategoryName())).thenReturn(Optional.empty());
 
+        // then
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.update(categoryDTOToUpdate.getCategoryName(), categoryDTOToUpdate),"Category with name Teste nome atualizado not found.");
+        verify(categoryRepository, never()).updateByCategoryName(any(), any(), any(), any(), any());
     }
 
     @Test
-    void whenUpdatedIsCalledWithNameThatAlreadyExistsInTheSystemThenThrowExceptionCategory(){
-        String categoryName = "Teste";
+    void whenUpdatedCategoryIsRemovedConcurrentlyThenThrowExceptionCategory() {
         //given
-        CategoryDTO expectedCategoryDTO = CategoryDTOBuilder.builder().build().toCategoryDTO();
-        Category expectedSavedCategory = categoryMapper.toModel(expectedCategoryDTO);
+        CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder.builder().build().toCategoryDTO();
 
         // when
-        when(categoryRepository.findByCategoryName(expectedCategoryDTO.getCategoryName())).thenReturn(Optional.of(expectedSavedCategory));
-        when(categoryRepository.save(any(Category.class))).thenReturn(expectedSavedCategory);
+        when(categoryRepository.findForUpdateByCategoryName("Soccer")).thenReturn(Optional.of(categoryMapper.toModel(categoryDTOToUpdate)));
+        when(categoryRepository.updateByCategoryName(any(), any(), any(), any(), any())).thenReturn(0);
 
+        // then
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.update("Soccer", categoryDTOToUpdate));
+    }
 
+    @Test
+    void whenUpdatedIsCalledWithNameThatAlreadyExistsInTheSystemThenThrowExceptionCategory(){
+        //given
         CategoryDTO categoryDTOToUpdate = CategoryDTOBuilder
                 .builder()
-                .categoryName(categoryName)
+                .categoryName("Teste")
                 .build()
                 .toCategoryDTO();
 
-        assertThrows(CategoryNameAlreadyExistsException.class, () -> categoryService.update(categoryDTOToUpdate.getCategoryName(), categoryDTOToUpdate));
+        // when
+        when(categoryRepository.findForUpdateByCategoryName("Soccer")).thenReturn(Optional.of(categoryMapper.toModel(CategoryDTOBuilder.builder().build().toCategoryDTO())));
+        when(categoryRepository.updateByCategoryName(any(), any(), any(), any(), any())).thenThrow(uniqueViolation("category.uk_category_name"));
 
+        // then
+        assertThrows(CategoryNameAlreadyExistsException.class, () -> categoryService.update("Soccer", categoryDTOToUpdate));
+    }
 
+    private static DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", null, constraintName));
     }
 }
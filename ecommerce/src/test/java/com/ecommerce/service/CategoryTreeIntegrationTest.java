@@ -0,0 +1,152 @@
+package com.ecommerce.service;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.request.CategoryMoveDTO;
+import com.ecommerce.dto.response.CategoryTreeDTO;
+import com.ecommerce.exception.InvalidCategoryParentException;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CategoryTreeIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryTreeService categoryTreeService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Sports > Soccer > Balls > Kids, Sports > Soccer > Shoes, Sports > Tennis
+        CategoryDTO sports = create("Sports", null);
+        CategoryDTO soccer = create("Soccer", sports);
+        create("Tennis", sports);
+        CategoryDTO balls = create("Balls", soccer);
+        create("Shoes", soccer);
+        create("Kids", balls);
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void whenSubtreeIsFetchedThenItStopsAtTheRequestedDepth() throws Exception {
+        CategoryTreeDTO oneLevel = categoryTreeService.subtree("Sports", 1);
+        assertThat(names(oneLevel.getChildren()), contains("Soccer", "Tennis"));
+        assertThat(oneLevel.getChildren().get(0).getChildren(), is(empty()));
+
+        CategoryTreeDTO soccer = categoryTreeService.subtree("Sports", 3).getChildren().get(0);
+        assertThat(names(soccer.getChildren()), contains("Balls", "Shoes"));
+        assertThat(names(soccer.getChildren().get(0).getChildren()), contains("Kids"));
+
+        assertThat(categoryTreeService.subtree("Soccer", 0).getChildren(), is(empty()));
+    }
+
+    @Test
+    void whenBreadcrumbIsFetchedThenAncestorsComeTopLevelFirst() throws Exception {
+        assertThat(categoryTreeService.breadcrumb("Kids").stream().map(CategoryDTO::getCategoryName).collect(Collectors.toList()),
+                contains("Sports", "Soccer", "Balls", "Kids"));
+        assertThat(categoryTreeService.breadcrumb("Sports").stream().map(CategoryDTO::getCategoryName).collect(Collectors.toList()),
+                contains("Sports"));
+    }
+
+    @Test
+    void whenBranchIsMovedThenItsWholeSubtreeFollows() throws Exception {
+        categoryTreeService.move(CategoryMoveDTO.builder().categoryNames(List.of("Balls")).parentName("Tennis").build());
+
+        assertThat(categoryTreeService.breadcrumb("Kids").stream().map(CategoryDTO::getCategoryName).collect(Collectors.toList()),
+                contains("Sports", "Tennis", "Balls", "Kids"));
+        assertThat(names(categoryTreeService.subtree("Soccer", 5).getChildren()), contains("Shoes"));
+        CategoryDTO balls = categoryService.listCategoryByName("Balls");
+        assertThat(balls.getParentId(), is(categoryService.listCategoryByName("Tennis").getId()));
+        assertThat(balls.getVersion(), is(1L));
+        assertThat(categoryRepository.findByCategoryName("Kids").orElseThrow().getDepth(), is(3));
+    }
+
+    @Test
+    void whenBranchIsMovedToTheTopLevelThenItHasNoParent() throws Exception {
+        categoryTreeService.move(CategoryMoveDTO.builder().categoryNames(List.of("Soccer")).build());
+
+        assertThat(categoryService.listCategoryByName("Soccer").getParentId(), is(nullValue()));
+        assertThat(categoryTreeService.breadcrumb("Kids").stream().map(CategoryDTO::getCategoryName).collect(Collectors.toList()),
+                contains("Soccer", "Balls", "Kids"));
+    }
+
+    @Test
+    void whenAMoveWouldCreateACycleThenNothingIsMoved() {
+        CategoryMoveDTO move = CategoryMoveDTO.builder().categoryNames(List.of("Tennis", "Sports")).parentName("Balls").build();
+
+        assertThrows(InvalidCategoryParentException.class, () -> categoryTreeService.move(move));
+
+        Category tennis = categoryRepository.findByCategoryName("Tennis").orElseThrow();
+        assertThat(tennis.getParentId(), is(categoryRepository.findByCategoryName("Sports").orElseThrow().getId()));
+        assertThat(tennis.getDepth(), is(1));
+    }
+
+    @Test
+    void whenSubtreeIsLargeThenItIsStillFetchedWithTwoStatements() throws Exception {
+        Category soccer = categoryRepository.findByCategoryName("Soccer").orElseThrow();
+        categoryRepository.saveAll(IntStream.range(0, 2000)
+                .mapToObj(index -> {
+                    Category category = CategoryMapper.INSTANCE.toNewModel(CategoryDTOBuilder.builder()
+                            .categoryName("team-" + index)
+                            .imageUrl("www.team-" + index + ".com")
+                            .build()
+                            .toCategoryDTO());
+                    category.placeUnder(soccer);
+                    return category;
+                })
+                .collect(Collectors.toList()));
+        // the root is read from the database too, not resolved from the second-level cache
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        CategoryTreeDTO tree = categoryTreeService.subtree("Sports", 3);
+
+        assertThat(tree.getChildren().get(0).getChildren(), hasSize(2002));
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+    }
+
+    private CategoryDTO create(String name, CategoryDTO parent) throws Exception {
+        return categoryService.createCategory(CategoryDTOBuilder.builder()
+                .categoryName(name)
+                .imageUrl("www." + name.toLowerCase() + ".com")
+                .parentId(parent == null ? null : parent.getId())
+                .build()
+                .toCategoryDTO());
+    }
+
+    private static List<String> names(List<CategoryTreeDTO> nodes) {
+        return nodes.stream().map(node -> node.getCategory().getCategoryName()).collect(Collectors.toList());
+    }
+}
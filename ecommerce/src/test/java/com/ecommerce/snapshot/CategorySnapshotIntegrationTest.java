@@ -0,0 +1,76 @@
+package com.ecommerce.snapshot;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.exception.CategoryNotFoundException;
+import com.ecommerce.mapper.CategoryMapper;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.service.CategoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "category.snapshot.enabled=true",
+        "category.snapshot.reconcile-interval=1h"
+})
+@AutoConfigureMockMvc
+public class CategorySnapshotIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategorySnapshots snapshots;
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+        snapshots.rebuild();
+    }
+
+    @Test
+    void whenCategoriesChangeThroughTheServiceThenTheSnapshotServesThemAtOnce() throws Exception {
+        categoryService.createCategory(CategoryDTOBuilder.builder().build().toCategoryDTO());
+        categoryService.update("Soccer", CategoryDTOBuilder.builder().categoryDescription("Soccer balls and shoes").build().toCategoryDTO());
+
+        mockMvc.perform(get("/category/soccer"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.categoryDescription").value("Soccer balls and shoes"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].categoryName").value("Soccer"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/category/Tennis"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenTableIsChangedBehindTheApplicationsBackThenReconciliationPicksItUp() throws Exception {
+        categoryRepository.saveAndFlush(CategoryMapper.INSTANCE.toNewModel(CategoryDTOBuilder.builder().build().toCategoryDTO()));
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.listCategoryByName("Soccer"));
+
+        snapshots.reconcile();
+
+        assertThat(categoryService.listCategoryByName("Soccer").getCategoryName(), is("Soccer"));
+    }
+}
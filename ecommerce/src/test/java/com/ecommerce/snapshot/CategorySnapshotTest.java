@@ -0,0 +1,153 @@
+package com.ecommerce.snapshot;
+
+import com.ecommerce.builder.CategoryDTOBuilder;
+import com.ecommerce.dto.request.CategoryDTO;
+import com.ecommerce.dto.response.CategoryVersionDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CategorySnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final CategorySnapshot snapshot = CategorySnapshot.of(
+            LongStream.of(5, 1, 3, 2, 4).mapToObj(CategorySnapshotTest::category).collect(Collectors.toList()),
+            objectMapper.writerFor(CategoryDTO.class),
+            2);
+
+    @Test
+    void whenPagesAreServedFromTheSnapshotThenTheirJsonIsWhatJacksonWouldWrite() throws JsonProcessingException {
+        for (long afterId : new long[]{0, 1, 2, 3, 4, 5, 10}) {
+            for (int pageSize : new int[]{1, 2, 3, 10}) {
+                assertThat("after " + afterId + ", " + pageSize + " per page",
+                        snapshot.pageJson(afterId, pageSize).body(),
+                        is(objectMapper.writeValueAsBytes(snapshot.page(afterId, pageSize))));
+            }
+        }
+        assertThat(snapshot.allJson(), is(objectMapper.writeValueAsBytes(snapshot.all())));
+        assertThat(snapshot.json("category-3").body(), is(objectMapper.writeValueAsBytes(category(3))));
+    }
+
+    @Test
+    void whenPageIsListedThenCategoriesComeInIdOrderWithACursorToTheNextPage() {
+        assertThat(ids(snapshot.page(0, 2).getContent()), contains(1L, 2L));
+        assertThat(snapshot.page(0, 2).getNextCursor(), is(notNullValue()));
+        assertThat(ids(snapshot.page(4, 2).getContent()), contains(5L));
+        assertThat(snapshot.page(4, 2).getNextCursor(), is(nullValue()));
+        assertThat(snapshot.pageValidator(2, 2), is(snapshot.pageJson(2, 2).validator()));
+    }
+
+    @Test
+    void whenCategoryIsLookedUpThenCaseAndSurroundingBlanksAreIgnored() {
+        assertThat(snapshot.get(" CATEGORY-2 ").getId(), is(2L));
+        assertThat(snapshot.get("category-9"), is(nullValue()));
+        assertThat(snapshot.json("category-9"), is(nullValue()));
+    }
+
+    @Test
+    void whenCategoriesChangeThenANewSnapshotHasThemAndTheOldOneIsUntouched() {
+        // given
+        CategoryDTO renamed = CategoryDTOBuilder.builder().id(2L).categoryName("Renamed").imageUrl("www.renamed.com").version(1L)
+                .build().toCategoryDTO();
+
+        // when
+        CategorySnapshot changed = snapshot.with(null, category(6)).with(category(2), renamed);
+
+        // then
+        assertThat(ids(changed.all()), contains(1L, 2L, 3L, 4L, 5L, 6L));
+        assertThat(changed.get("Renamed").getVersion(), is(1L));
+        assertThat(changed.get("category-2"), is(nullValue()));
+        assertThat(snapshot.get("category-2"), is(notNullValue()));
+        assertThat(snapshot.size(), is(5));
+    }
+
+    @Test
+    void whenManyCategoriesAreAddedOneByOneThenPagesAndLookupsSpanTheBlocks() throws JsonProcessingException {
+        // given
+        List<Long> ids = LongStream.rangeClosed(1, 3L * CategorySnapshot.MAX_BLOCK_SIZE).boxed().collect(Collectors.toList());
+        Collections.shuffle(ids, new Random(7));
+        CategorySnapshot grown = CategorySnapshot.of(List.of(), objectMapper.writerFor(CategoryDTO.class), 2);
+
+        // when
+        for (long id : ids) {
+            grown = grown.with(null, category(id));
+        }
+
+        // then
+        assertThat(grown.size(), is(ids.size()));
+        assertThat(ids(grown.all()), is(LongStream.rangeClosed(1, ids.size()).boxed().collect(Collectors.toList())));
+        assertThat(ids(grown.page(CategorySnapshot.MAX_BLOCK_SIZE - 2, 5).getContent()),
+                contains(511L, 512L, 513L, 514L, 515L));
+        assertThat(grown.get("category-1000").getId(), is(1000L));
+        assertThat(grown.allJson(), is(objectMapper.writeValueAsBytes(grown.all())));
+        assertThat(grown.pageJson(700, 300).body(), is(objectMapper.writeValueAsBytes(grown.page(700, 300))));
+    }
+
+    @Test
+    void whenACategoryAfterTheFirstPageChangesThenTheFirstPageIsKept() {
+        // given
+        CategoryJson firstPage = snapshot.pageJson(0, 2);
+        CategoryDTO changed = CategoryDTOBuilder.builder().id(4L).categoryName("category-4").imageUrl("www.other.com").version(1L)
+                .build().toCategoryDTO();
+
+        // when
+        CategorySnapshot later = snapshot.with(category(4), changed).with(null, category(9));
+        CategorySnapshot earlier = snapshot.with(category(2), category(2));
+
+        // then
+        assertThat(later.pageJson(0, 2), is(sameInstance(firstPage)));
+        assertThat(earlier.pageJson(0, 2), is(not(sameInstance(firstPage))));
+        assertThat(later.get("category-4").getImageUrl(), is("www.other.com"));
+    }
+
+    @Test
+    void whenAChangeIsOlderThanTheSnapshotThenItIsIgnored() {
+        // given
+        CategoryDTO current = CategoryDTOBuilder.builder().id(3L).categoryName("category-3").version(4L).build().toCategoryDTO();
+        CategoryDTO stale = CategoryDTOBuilder.builder().id(3L).categoryName("Stale").version(2L).build().toCategoryDTO();
+        CategorySnapshot rebuilt = snapshot.with(category(3), current);
+
+        // when
+        CategorySnapshot changed = rebuilt.with(null, stale);
+
+        // then
+        assertThat(changed, is(sameInstance(rebuilt)));
+        assertThat(changed.get("Stale"), is(nullValue()));
+    }
+
+    @Test
+    void whenTableIsComparedThenOnlyTheSameIdsAndVersionsMatch() {
+        List<CategoryVersionDTO> rows = snapshot.all().stream().map(CategoryVersionDTO::of).collect(Collectors.toList());
+        assertThat(snapshot.matches(rows), is(true));
+
+        rows.set(1, new CategoryVersionDTO(2L, 7L, null));
+        assertThat(snapshot.matches(rows), is(false));
+        assertThat(snapshot.matches(rows.subList(0, 4)), is(false));
+    }
+
+    private static CategoryDTO category(long id) {
+        return CategoryDTOBuilder.builder()
+                .id(id)
+                .categoryName("category-" + id)
+                .imageUrl("www.category-" + id + ".com")
+                .build()
+                .toCategoryDTO();
+    }
+
+    private static List<Long> ids(List<CategoryDTO> categories) {
+        return categories.stream().map(CategoryDTO::getId).collect(Collectors.toList());
+    }
+}
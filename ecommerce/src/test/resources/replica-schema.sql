@@ -0,0 +1,6 @@
+-- Schema of the embedded replica used by ReplicaRoutingIntegrationTest, run on every new connection
+CREATE TABLE IF NOT EXISTS category (id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    category_name VARCHAR(255) NOT NULL UNIQUE, category_description VARCHAR(255) NOT NULL,
+    image_url VARCHAR(255) NOT NULL UNIQUE, parent_id BIGINT,
+    path VARCHAR(512) DEFAULT '/' NOT NULL, depth INT DEFAULT 0 NOT NULL, version BIGINT, updated_at TIMESTAMP(6) WITH TIME ZONE);
+CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds BIGINT NOT NULL);